@@ -0,0 +1,119 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.CollectorRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête de l'instrumentation Micrometer de MetricsService.processBonjour,
+ * sans le Thread.sleep simulé (seule l'instrumentation est mesurée).
+ *
+ * - baseline : le traitement seul, sans compteur ni timer
+ * - processBonjour : bonjour.requests + bonjour.response.time.recordCallable(...), meters créés par MetricsService
+ * - recordCustomMetric : recherche du meter dans le registre à chaque appel (nom + tags)
+ *
+ * Registres : simple (SimpleMeterRegistry), prometheus (histogramme publié),
+ * prometheus-exemplars (+ TraceExemplarSampler, contexte de trace dans le MDC comme sous TraceContextFilter)
+ * et prometheus-sketches (composite Prometheus + SketchMeterRegistry, comme avec demo.sketches.enabled).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MetricsServiceBenchmark {
+
+    private static final String RESPONSE = "Bonjour, Spring avec métriques!";
+
+    @Param({"simple", "prometheus", "prometheus-exemplars", "prometheus-sketches"})
+    public String registry;
+
+    private MeterRegistry meterRegistry;
+    private MetricsService metricsService;
+    private Counter bonjourCounter;
+    private Timer responseTimer;
+    private final Callable<String> work = () -> RESPONSE;
+
+    @Setup
+    public void setUp() {
+        meterRegistry = switch (registry) {
+            case "simple" -> new SimpleMeterRegistry();
+            case "prometheus" -> new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            case "prometheus-exemplars" -> new PrometheusMeterRegistry(PrometheusConfig.DEFAULT, new CollectorRegistry(),
+                    Clock.SYSTEM, new ExemplarsConfiguration.TraceExemplarSampler(10_000));
+            case "prometheus-sketches" -> new CompositeMeterRegistry(Clock.SYSTEM, List.of(
+                    new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                    new SketchMeterRegistry(Clock.SYSTEM, Set.of("bonjour.response.time"), List.of("uri"), 0.01,
+                            2048, 5, Duration.ofSeconds(60), 200)));
+            default -> throw new IllegalArgumentException("Registre inconnu : " + registry);
+        };
+        metricsService = new MetricsService(meterRegistry);
+        bonjourCounter = meterRegistry.get("bonjour.requests").counter();
+        responseTimer = meterRegistry.get("bonjour.response.time").timer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        meterRegistry.close();
+    }
+
+    /**
+     * Contexte de trace par thread de benchmark (lu par le sampler d'exemplars)
+     */
+    @State(Scope.Thread)
+    public static class TraceContext {
+        @Setup
+        public void setUp() {
+            MDC.put(TraceContextFilter.MDC_TRACE_ID, "0af7651916cd43dd8448eb211c80319c");
+            MDC.put(TraceContextFilter.MDC_SPAN_ID, "b7ad6b7169203331");
+            MDC.put(TraceContextFilter.MDC_SAMPLED, "1");
+        }
+
+        @TearDown
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    @Benchmark
+    public String baseline() throws Exception {
+        return work.call();
+    }
+
+    @Benchmark
+    public String processBonjour(TraceContext traceContext) throws Exception {
+        bonjourCounter.increment();
+        return responseTimer.recordCallable(work);
+    }
+
+    @Benchmark
+    public void recordCustomMetric() {
+        metricsService.recordCustomMetric("bonjour", 42.0);
+    }
+}
@@ -1,11 +1,13 @@
 package com.exemple.demo;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.concurrent.ThreadLocalRandom;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -15,9 +17,15 @@ public class BonjourEQLController {
     @Autowired
     private MetricsService metricsService;
 
+    @Autowired
+    private DataStreamService dataStreamService;
+
+    @Autowired
+    private TinyLfuCache<String, String> userCache;
+
     @GetMapping("/bonjour-eql")
-    public String direBonjourEQL() {
-        return metricsService.processBonjour();
+    public String direBonjourEQL(@RequestHeader(name = HttpWarmupTask.HEADER, required = false) String warmup) {
+        return metricsService.processBonjour(warmup == null);
     }
 
     @PostMapping("/metrics/custom")
@@ -28,6 +36,11 @@ public class BonjourEQLController {
     
     @GetMapping("/user/{id}")
     public String getUser(@PathVariable String id) {
+        return userCache.get(id, this::loadUser);
+    }
+
+    // Requête en base derrière le cache
+    private String loadUser(String id) {
         // Fake work simulation on database query
         try {
             Thread.sleep(ThreadLocalRandom.current().nextInt(20, 100));
@@ -38,14 +51,17 @@ public class BonjourEQLController {
     }
 
     @PostMapping("/data")
-    public String postData(@RequestBody String data) {
+    public String postData(HttpServletRequest request) throws IOException {
+        // Corps lu en flux, sans String intermédiaire
+        long length = dataStreamService.countChars(request.getInputStream(),
+                request.getContentLengthLong(), request.getCharacterEncoding());
         // Fake work simulation on data processing
         try {
             Thread.sleep(ThreadLocalRandom.current().nextInt(30, 150));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
-        return "Données reçues: " + data.length() + " caractères";
+        return "Données reçues: " + length + " caractères";
     }
 
     @GetMapping("/error")
@@ -0,0 +1,97 @@
+package com.exemple.demo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier de chunk en ajout seul, projeté en mémoire (FileChannel.map).
+ *
+ * En-tête : "TSC1" puis la longueur utilisée (en-tête compris), mise à jour après chaque ajout :
+ * un crash au milieu d'un ajout laisse un fichier lisible jusqu'au dernier ajout complet.
+ * Le fichier est créé à sa capacité ; fermé, il est tronqué à sa longueur utilisée.
+ */
+final class ChunkFile {
+
+    // "TSC1"
+    static final int MAGIC = 0x54534331;
+    static final int HEADER_SIZE = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position = HEADER_SIZE;
+
+    private ChunkFile(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static ChunkFile create(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, HEADER_SIZE);
+            return new ChunkFile(path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return false si la place manque, rien n'est écrit
+     */
+    boolean append(byte[] frame) {
+        if (frame.length > buffer.capacity() - position) {
+            return false;
+        }
+        buffer.put(position, frame);
+        position += frame.length;
+        buffer.putInt(4, position);
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Force sur disque et tronque à la longueur utilisée. Le buffer n'est plus lu ensuite :
+     * la projection reste valide jusqu'à position, seule la fin inutilisée disparaît.
+     */
+    void close() throws IOException {
+        buffer.force();
+        channel.truncate(position);
+        channel.close();
+    }
+
+    Path path() { return path; }
+
+    int capacity() { return buffer.capacity(); }
+
+    /**
+     * Contenu utilisé d'un fichier (fermé ou en cours d'écriture), en-tête exclu
+     *
+     * @throws IOException si le fichier n'est pas un chunk
+     */
+    static ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Chunk file too short: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a chunk file: " + path);
+            }
+            int used = Math.min(mapped.getInt(4), (int) channel.size());
+            return mapped.slice(HEADER_SIZE, Math.max(0, used - HEADER_SIZE));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Délestage par groupe d'endpoints : la requête est rejetée tout de suite en 503 avec Retry-After,
+ * au lieu de s'empiler dans Tomcat jusqu'au timeout, si
+ * - le groupe a atteint sa limite de concurrence adaptative (GradientLimiter, sur le temps de
+ *   traitement) : un groupe ralenti ne monopolise pas les threads des autres
+ * - la requête a déjà attendu un worker plus que max-queue-time (QueueTimeExecutor, si actif) :
+ *   la traiter ne ferait que retarder les suivantes, la rejeter vide la file en quelques microsecondes
+ *
+ * - Groupes : demo.concurrency.groups=nom=pattern,... (un nom répété regroupe plusieurs patterns)
+ * - Métriques par groupe : concurrency.limit, concurrency.in.flight, concurrency.rejected{reason}
+ *
+ * Placé après les filtres de trace et de profilage : les rejets restent visibles.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "demo.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final byte[] REJECTED_BODY = "Service surchargé, réessayez plus tard".getBytes(StandardCharsets.UTF_8);
+
+    private record Group(String name, List<PathPattern> patterns, GradientLimiter limiter,
+                         Counter rejectedByLimit, Counter rejectedByQueueTime) {
+
+        boolean matches(PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final List<Group> groups = new ArrayList<>();
+    private final long maxQueueNanos;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${demo.concurrency.groups:user=/user/**,data=/data}") String groupsSpec,
+                                  @Value("${demo.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${demo.concurrency.min-limit:2}") int minLimit,
+                                  @Value("${demo.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${demo.concurrency.tolerance:1.5}") double tolerance,
+                                  @Value("${demo.concurrency.smoothing:0.2}") double smoothing,
+                                  @Value("${demo.concurrency.long-window:600}") int longWindow,
+                                  @Value("${demo.concurrency.max-queue-time-ms:500}") long maxQueueTimeMs,
+                                  @Value("${demo.concurrency.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueTimeMs);
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+
+        Map<String, List<PathPattern>> patternsByGroup = new LinkedHashMap<>();
+        for (String entry : groupsSpec.split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                throw new IllegalArgumentException("demo.concurrency.groups : entrée invalide '" + entry
+                        + "', attendu nom=pattern");
+            }
+            patternsByGroup.computeIfAbsent(parts[0].trim(), k -> new ArrayList<>())
+                    .add(PathPatternParser.defaultInstance.parse(parts[1].trim()));
+        }
+
+        patternsByGroup.forEach((name, patterns) -> {
+            GradientLimiter limiter = new GradientLimiter(initialLimit, minLimit, maxLimit, tolerance, smoothing,
+                    longWindow);
+            Gauge.builder("concurrency.limit", limiter, GradientLimiter::getLimit)
+                    .description("Limite de concurrence adaptative du groupe")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.in.flight", limiter, GradientLimiter::getInFlight)
+                    .description("Requêtes en cours dans le groupe")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            groups.add(new Group(name, List.copyOf(patterns), limiter,
+                    rejectedCounter(meterRegistry, name, "limit"), rejectedCounter(meterRegistry, name, "queue-time")));
+            logger.info("Limiteur de concurrence '{}' sur {} (limite initiale {})", name, patterns, limiter.getLimit());
+        });
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String group, String reason) {
+        return Counter.builder("concurrency.rejected")
+                .description("Requêtes rejetées en 503 par le limiteur de concurrence")
+                .tag("group", group)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Group group = findGroup(request);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (RequestClock.current().peekQueueNanos() > maxQueueNanos) {
+            group.rejectedByQueueTime().increment();
+            reject(response);
+            return;
+        }
+        if (!group.limiter().tryAcquire()) {
+            group.rejectedByLimit().increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            group.limiter().release(System.nanoTime() - start);
+        }
+    }
+
+    private Group findGroup(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Group group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(REJECTED_BODY.length);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+}
@@ -0,0 +1,311 @@
+package com.exemple.demo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sketch de quantiles fusionnable (DDSketch) : garantie d'erreur relative sur chaque quantile.
+ *
+ * - Valeur v rangée dans l'intervalle d'index ceil(log_gamma(v)), gamma = (1 + alpha) / (1 - alpha) :
+ *   le quantile rendu est à moins de alpha (ex : 1 %) de la vraie valeur, quelle que soit la distribution
+ * - Fusion exacte : deux sketches de même alpha s'additionnent intervalle par intervalle. Le p99
+ *   d'une flotte est celui du sketch fusionné, pas une moyenne des p99 des instances
+ * - Nombre d'intervalles borné (maxBins) : au-delà, les plus bas sont regroupés, seuls les petits
+ *   quantiles perdent la garantie
+ * - Sérialisation compacte : compteurs en varint, intervalles vides aux extrémités omis
+ *
+ * Non thread-safe : synchronisé par l'appelant.
+ */
+public class DDSketch {
+
+    // "DDS1"
+    private static final int MAGIC = 0x44445331;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int INITIAL_BINS = 64;
+    // Limite à la lecture d'un sketch reçu
+    private static final int MAX_BINS_LIMIT = 1 << 16;
+    // En dessous, la valeur compte comme 0 (index borné)
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double multiplier;
+    private final int maxBins;
+
+    // bins[i] : compteur de l'index offset + i
+    private long[] bins = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public DDSketch(double relativeAccuracy, int maxBins) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in ]0, 1[");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.multiplier = 1 / Math.log(gamma);
+        this.maxBins = maxBins;
+    }
+
+    /**
+     * @param value valeur positive (une valeur négative compte comme 0)
+     */
+    public void accept(double value) {
+        if (value < MIN_INDEXABLE) {
+            zeroCount++;
+            value = Math.max(value, 0);
+        } else {
+            add((int) Math.ceil(Math.log(value) * multiplier), 1);
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @throws IllegalArgumentException si les précisions diffèrent
+     */
+    public void merge(DDSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of relative accuracy "
+                    + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < other.bins.length; i++) {
+            if (other.bins[i] != 0) {
+                add(other.offset + i, other.bins[i]);
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param quantile entre 0 et 1
+     * @return NaN si le sketch est vide
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * (count - 1);
+        if (rank < zeroCount) {
+            return Math.max(min, 0);
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen > rank) {
+                // Valeur représentative de l'intervalle ]gamma^(k-1), gamma^k], à alpha près
+                double value = 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    public DDSketch copy() {
+        DDSketch copy = new DDSketch(relativeAccuracy, maxBins);
+        copy.merge(this);
+        return copy;
+    }
+
+    public void clear() {
+        Arrays.fill(bins, 0);
+        zeroCount = 0;
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    private void add(int index, long n) {
+        if (bins.length == 0) {
+            bins = new long[Math.min(INITIAL_BINS, maxBins)];
+            offset = index - bins.length / 2;
+        }
+        if (index < offset || index >= offset + bins.length) {
+            if (index < offset && bins.length == maxBins && highestIndex(index) - index >= maxBins) {
+                // Sous les intervalles gardés : compté dans le plus bas, sans réallouer
+                bins[0] += n;
+                return;
+            }
+            grow(index);
+        }
+        bins[Math.max(index - offset, 0)] += n;
+    }
+
+    // Plus haut index non vide, ou defaultIndex si aucun
+    private int highestIndex(int defaultIndex) {
+        for (int i = bins.length - 1; i >= 0; i--) {
+            if (bins[i] != 0) {
+                return offset + i;
+            }
+        }
+        return defaultIndex;
+    }
+
+    private void grow(int index) {
+        // Étendue réelle (intervalles non vides), sans la marge allouée
+        int low = index;
+        int high = index;
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] != 0) {
+                low = Math.min(low, offset + i);
+                high = Math.max(high, offset + i);
+            }
+        }
+        int span = high - low + 1;
+        // Marge pour ne pas réallouer à chaque nouvel index
+        int length = Math.min(maxBins, Math.max(span + INITIAL_BINS / 2, bins.length * 2));
+        int newOffset;
+        if (span > maxBins) {
+            // Trop d'intervalles : on garde les plus hauts, les plus bas sont regroupés
+            newOffset = high - maxBins + 1;
+        } else if (index == low) {
+            // Extension vers le bas : la marge va sous le nouvel index
+            newOffset = high - length + 1;
+        } else {
+            newOffset = low;
+        }
+        long[] newBins = new long[length];
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] != 0) {
+                newBins[Math.max(offset + i - newOffset, 0)] += bins[i];
+            }
+        }
+        bins = newBins;
+        offset = newOffset;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        int first = 0;
+        int last = bins.length - 1;
+        while (first <= last && bins[first] == 0) {
+            first++;
+        }
+        while (last >= first && bins[last] == 0) {
+            last--;
+        }
+        out.writeByte(FORMAT_VERSION);
+        out.writeDouble(relativeAccuracy);
+        writeVarLong(out, maxBins);
+        writeVarLong(out, count);
+        writeVarLong(out, zeroCount);
+        out.writeDouble(sum);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        int length = last - first + 1;
+        writeVarLong(out, zigZag(offset + first));
+        writeVarLong(out, length);
+        for (int i = first; i <= last; i++) {
+            writeVarLong(out, bins[i]);
+        }
+    }
+
+    /**
+     * @throws IOException si le format est inconnu
+     */
+    public static DDSketch readFrom(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported sketch format version " + version);
+        }
+        double relativeAccuracy = in.readDouble();
+        long maxBins = readVarLong(in);
+        if (maxBins <= 0 || maxBins > MAX_BINS_LIMIT) {
+            throw new IOException("Invalid sketch maximum bins " + maxBins);
+        }
+        DDSketch sketch = new DDSketch(relativeAccuracy, (int) maxBins);
+        sketch.count = readVarLong(in);
+        sketch.zeroCount = readVarLong(in);
+        sketch.sum = in.readDouble();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        long first = readVarLong(in);
+        int start = (int) ((first >>> 1) ^ -(first & 1));
+        int length = (int) readVarLong(in);
+        if (length > sketch.maxBins) {
+            throw new IOException("Sketch has " + length + " bins, more than its maximum " + sketch.maxBins);
+        }
+        sketch.bins = new long[length];
+        sketch.offset = start;
+        for (int i = 0; i < length; i++) {
+            sketch.bins[i] = readVarLong(in);
+        }
+        return sketch;
+    }
+
+    /**
+     * Sketches nommés, format de l'endpoint /sketches : "DDS1", nombre, puis (nom, sketch)
+     */
+    public static void writeAll(Map<String, DDSketch> sketches, DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        writeVarLong(out, sketches.size());
+        for (Map.Entry<String, DDSketch> entry : sketches.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * @throws IOException si le flux n'est pas au format de writeAll
+     */
+    public static Map<String, DDSketch> readAll(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a sketch snapshot");
+        }
+        int size = (int) readVarLong(in);
+        Map<String, DDSketch> sketches = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String name = in.readUTF();
+            sketches.put(name, readFrom(in));
+        }
+        return sketches;
+    }
+
+    private static long zigZag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // Getters
+    public double getRelativeAccuracy() { return relativeAccuracy; }
+    public long getCount() { return count; }
+    public double getSum() { return sum; }
+    public double getMin() { return count == 0 ? Double.NaN : min; }
+    public double getMax() { return count == 0 ? Double.NaN : max; }
+}
@@ -0,0 +1,68 @@
+package com.exemple.demo;
+
+import io.prometheus.client.exemplars.Exemplar;
+import io.prometheus.client.exemplars.ExemplarSampler;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exemplars : chaque bucket des histogrammes (bonjour.response.time, http.server.requests)
+ * garde le traceId/spanId d'une requête récente, visible dans la sortie OpenMetrics de
+ * /actuator/prometheus (Accept: application/openmetrics-text).
+ *
+ * Spring Boot passe ce sampler au PrometheusMeterRegistry.
+ */
+@Configuration
+public class ExemplarsConfiguration {
+
+    @Bean
+    public ExemplarSampler traceExemplarSampler(@Value("${demo.exemplars.interval-ms:10000}") long intervalMs) {
+        return new TraceExemplarSampler(intervalMs);
+    }
+
+    /**
+     * Au plus un exemplar par bucket et par intervalle : tant que l'exemplar courant du bucket
+     * est plus récent que l'intervalle, l'échantillon est ignoré sans lecture du MDC ni allocation.
+     * Le contexte de trace vient du MDC (traceparent entrant via TraceContextFilter, ou agent OpenTelemetry) :
+     * sans contexte réel, pas d'exemplar.
+     */
+    static class TraceExemplarSampler implements ExemplarSampler {
+
+        private final long intervalMs;
+
+        TraceExemplarSampler(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        @Override
+        public Exemplar sample(double increment, Exemplar previous) {
+            return sampleIfDue(increment, previous);
+        }
+
+        @Override
+        public Exemplar sample(double value, double bucketFrom, double bucketTo, Exemplar previous) {
+            return sampleIfDue(value, previous);
+        }
+
+        private Exemplar sampleIfDue(double value, Exemplar previous) {
+            long now = System.currentTimeMillis();
+            if (previous != null && previous.getTimestampMs() != null
+                    && now - previous.getTimestampMs() < intervalMs) {
+                return null;
+            }
+            String traceId = MDC.get(TraceContextFilter.MDC_TRACE_ID);
+            String spanId = MDC.get(TraceContextFilter.MDC_SPAN_ID);
+            if (traceId == null) {
+                // Clés de l'instrumentation logback-mdc de l'agent OpenTelemetry
+                traceId = MDC.get("trace_id");
+                spanId = MDC.get("span_id");
+            }
+            if (traceId == null || spanId == null || "0".equals(MDC.get(TraceContextFilter.MDC_SAMPLED))) {
+                return null;
+            }
+            return new Exemplar(value, now, "trace_id", traceId, "span_id", spanId);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.exemple.demo;
+
+import java.util.Arrays;
+
+/**
+ * Compression Gorilla d'une série (timestamp en secondes, valeur double), comme dans la TSDB de Facebook.
+ *
+ * - Timestamps : delta de delta. À pas constant (10 s), chaque point coûte 1 bit
+ * - Valeurs : XOR avec la valeur précédente. Valeur inchangée : 1 bit ; sinon seuls les bits
+ *   significatifs du XOR sont écrits, en réutilisant la fenêtre (zéros de tête et de queue) du point
+ *   précédent quand elle suffit
+ *
+ * Un flux ne porte pas sa longueur : le nombre de points est stocké à côté (voir MetricsHistoryStore).
+ */
+final class Gorilla {
+
+    private Gorilla() {
+    }
+
+    static final class Encoder {
+        private final BitWriter out = new BitWriter();
+        private int count;
+        private long previousTimestamp;
+        private long previousDelta;
+        private long previousBits;
+        private int previousLeading = Integer.MAX_VALUE;
+        private int previousTrailing;
+
+        void append(long timestamp, double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (count == 0) {
+                out.write(timestamp, 64);
+                out.write(bits, 64);
+            } else {
+                writeTimestamp(timestamp);
+                writeValue(bits);
+            }
+            previousTimestamp = timestamp;
+            previousBits = bits;
+            count++;
+        }
+
+        private void writeTimestamp(long timestamp) {
+            long delta = timestamp - previousTimestamp;
+            long deltaOfDelta = delta - previousDelta;
+            previousDelta = delta;
+            if (deltaOfDelta == 0) {
+                out.write(0, 1);
+            } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+                out.write(0b10, 2);
+                out.write(deltaOfDelta, 7);
+            } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+                out.write(0b110, 3);
+                out.write(deltaOfDelta, 9);
+            } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+                out.write(0b1110, 4);
+                out.write(deltaOfDelta, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(deltaOfDelta, 64);
+            }
+        }
+
+        private void writeValue(long bits) {
+            long xor = bits ^ previousBits;
+            if (xor == 0) {
+                out.write(0, 1);
+                return;
+            }
+            out.write(1, 1);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= previousLeading && trailing >= previousTrailing) {
+                // Les bits significatifs tiennent dans la fenêtre du point précédent
+                out.write(0, 1);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                out.write(1, 1);
+                out.write(leading, 5);
+                // 64 bits significatifs codés 0 sur 6 bits
+                out.write(significant & 0x3F, 6);
+                out.write(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        int count() { return count; }
+
+        int bitLength() { return out.bitLength(); }
+
+        byte[] toByteArray() { return out.toByteArray(); }
+    }
+
+    interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    /**
+     * Relit count points d'un flux écrit par Encoder
+     */
+    static void decode(byte[] data, int offset, int count, PointConsumer consumer) {
+        if (count == 0) {
+            return;
+        }
+        BitReader in = new BitReader(data, offset);
+        long timestamp = in.read(64);
+        long bits = in.read(64);
+        consumer.accept(timestamp, Double.longBitsToDouble(bits));
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            long deltaOfDelta;
+            if (in.read(1) == 0) {
+                deltaOfDelta = 0;
+            } else if (in.read(1) == 0) {
+                deltaOfDelta = in.readSigned(7);
+            } else if (in.read(1) == 0) {
+                deltaOfDelta = in.readSigned(9);
+            } else if (in.read(1) == 0) {
+                deltaOfDelta = in.readSigned(12);
+            } else {
+                deltaOfDelta = in.read(64);
+            }
+            delta += deltaOfDelta;
+            timestamp += delta;
+
+            if (in.read(1) == 1) {
+                if (in.read(1) == 1) {
+                    leading = (int) in.read(5);
+                    int significant = (int) in.read(6);
+                    if (significant == 0) {
+                        significant = 64;
+                    }
+                    trailing = 64 - leading - significant;
+                }
+                bits ^= in.read(64 - leading - trailing) << trailing;
+            }
+            consumer.accept(timestamp, Double.longBitsToDouble(bits));
+        }
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer = new byte[64];
+        private int bitLength;
+
+        // Les n bits de poids faible de value, du plus fort au plus faible
+        void write(long value, int n) {
+            ensureCapacity(bitLength + n);
+            for (int i = n - 1; i >= 0; i--) {
+                if (((value >>> i) & 1) != 0) {
+                    buffer[bitLength >>> 3] |= (byte) (0x80 >>> (bitLength & 7));
+                }
+                bitLength++;
+            }
+        }
+
+        private void ensureCapacity(int bits) {
+            int bytes = (bits + 7) >>> 3;
+            if (bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(bytes, buffer.length * 2));
+            }
+        }
+
+        int bitLength() { return bitLength; }
+
+        byte[] toByteArray() { return Arrays.copyOf(buffer, (bitLength + 7) >>> 3); }
+    }
+
+    private static final class BitReader {
+        private final byte[] data;
+        private long position;
+
+        BitReader(byte[] data, int offset) {
+            this.data = data;
+            this.position = (long) offset << 3;
+        }
+
+        long read(int n) {
+            long value = 0;
+            for (int i = 0; i < n; i++) {
+                int bit = (data[(int) (position >>> 3)] >>> (7 - (position & 7))) & 1;
+                value = (value << 1) | bit;
+                position++;
+            }
+            return value;
+        }
+
+        // Complément à deux sur n bits
+        long readSigned(int n) {
+            long value = read(n);
+            return (value << (64 - n)) >> (64 - n);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.exemple.demo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concurrence adaptative, par gradient de latence (à la manière de Gradient2 de
+ * Netflix concurrency-limits).
+ *
+ * - Deux moyennes mobiles du RTT : courte (état actuel) et longue (référence "sans charge")
+ * - gradient = tolérance × RTT long / RTT court, borné à [0.5, 1] : la limite baisse dès que la
+ *   latence dépasse la référence de plus que la tolérance, et remonte de √limite sinon
+ * - Pas d'ajustement quand moins de la moitié de la limite est utilisée : aucun signal
+ *
+ * tryAcquire() est un CAS sans verrou ; la mise à jour de la limite, à chaque réponse, est synchronisée.
+ */
+public class GradientLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double shortAlpha;
+    private final double longAlpha;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                           int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.shortAlpha = 2.0 / (SHORT_WINDOW + 1);
+        this.longAlpha = 2.0 / (longWindow + 1);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return false si la limite est atteinte : la requête doit être rejetée sans release()
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBeforeRelease);
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBeforeRelease) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += shortAlpha * (rttNanos - shortRttNanos);
+        longRttNanos += longAlpha * (rttNanos - longRttNanos);
+
+        // Latence nettement redescendue (fin d'un incident) : la référence rattrape plus vite
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        if (inFlightBeforeRelease < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double next = estimatedLimit * (1 - smoothing) + target * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    // Getters
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getShortRttMillis() {
+        return shortRttNanos / 1_000_000;
+    }
+
+    public synchronized double getLongRttMillis() {
+        return longRttNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,133 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.step.StepMeterRegistry;
+import io.micrometer.core.instrument.step.StepRegistryConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registre Micrometer à pas de 10 s qui écrit ses mesures dans MetricsHistoryStore.
+ *
+ * Comme SketchMeterRegistry, il rejoint le registre composite de Spring Boot : il reçoit
+ * bonjour.requests, bonjour.response.time et les métriques JVM des binders Micrometer
+ * (équivalents de celles exportées par jmx_config.yml).
+ * - Seuls les noms configurés sont suivis ; "jvm.gc.*" suit tous les noms de ce préfixe
+ * - Une série par nom, suffixe et tags : bonjour.response.time.mean{method=GET,uri=/bonjour-eql}
+ * - Gauge : valeur ; Counter : nombre sur le pas ; Timer et résumé : .count, .mean (ms) et .max (ms)
+ */
+public class HistoryMeterRegistry extends StepMeterRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryMeterRegistry.class);
+
+    static final Duration STEP = Duration.ofSeconds(10);
+
+    private final MetricsHistoryStore store;
+
+    public HistoryMeterRegistry(Clock clock, MetricsHistoryStore store, List<String> meterNames) {
+        super(new StepRegistryConfig() {
+            @Override
+            public String prefix() {
+                return "demo.history";
+            }
+
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public Duration step() {
+                return STEP;
+            }
+        }, clock);
+        this.store = store;
+        config().meterFilter(MeterFilter.denyUnless(id -> matches(meterNames, id.getName())));
+    }
+
+    private static boolean matches(List<String> meterNames, String name) {
+        for (String meterName : meterNames) {
+            if (meterName.endsWith("*") ? name.startsWith(meterName.substring(0, meterName.length() - 1))
+                    : name.equals(meterName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void publish() {
+        // Les mesures step portent sur le pas qui vient de se terminer
+        long stepSeconds = STEP.toSeconds();
+        long now = clock.wallTime() / 1000;
+        long timestamp = now - Math.floorMod(now, stepSeconds) - stepSeconds;
+
+        Map<String, Double> values = new TreeMap<>();
+        for (Meter meter : getMeters()) {
+            String tags = tags(meter.getId());
+            String name = meter.getId().getName();
+            meter.use(
+                    gauge -> values.put(name + tags, gauge.value()),
+                    counter -> values.put(name + tags, counter.count()),
+                    timer -> {
+                        values.put(name + ".count" + tags, (double) timer.count());
+                        if (timer.count() > 0) {
+                            values.put(name + ".mean" + tags, timer.mean(TimeUnit.MILLISECONDS));
+                        }
+                        values.put(name + ".max" + tags, timer.max(TimeUnit.MILLISECONDS));
+                    },
+                    summary -> {
+                        values.put(name + ".count" + tags, (double) summary.count());
+                        if (summary.count() > 0) {
+                            values.put(name + ".mean" + tags, summary.mean());
+                        }
+                        values.put(name + ".max" + tags, summary.max());
+                    },
+                    longTaskTimer -> values.put(name + ".active" + tags, (double) longTaskTimer.activeTasks()),
+                    timeGauge -> values.put(name + tags, timeGauge.value(TimeUnit.MILLISECONDS)),
+                    functionCounter -> values.put(name + tags, functionCounter.count()),
+                    functionTimer -> {
+                        values.put(name + ".count" + tags, functionTimer.count());
+                        if (functionTimer.count() > 0) {
+                            values.put(name + ".mean" + tags, functionTimer.mean(TimeUnit.MILLISECONDS));
+                        }
+                    },
+                    other -> {
+                    });
+        }
+        try {
+            store.append(timestamp, values);
+        } catch (RuntimeException e) {
+            logger.error("Écriture de l'historique des métriques impossible", e);
+        }
+    }
+
+    private static String tags(Meter.Id id) {
+        List<Tag> tags = id.getTags();
+        if (tags.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for (Tag tag : tags) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return builder.append('}').toString();
+    }
+
+    @Override
+    protected TimeUnit getBaseTimeUnit() {
+        return TimeUnit.MILLISECONDS;
+    }
+}
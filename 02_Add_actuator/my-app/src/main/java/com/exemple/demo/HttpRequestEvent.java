@@ -0,0 +1,31 @@
+package com.exemple.demo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR d'une requête HTTP : début, fin, thread et route Spring.
+ *
+ * Permet d'attribuer les échantillons CPU et d'allocation à un endpoint (voir JfrProfiler),
+ * et de retrouver les requêtes dans un dump .jfr ouvert avec JDK Mission Control.
+ */
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category("Demo")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    static final String NAME = "com.exemple.demo.HttpRequest";
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    String route;
+
+    @Label("Status")
+    int status;
+}
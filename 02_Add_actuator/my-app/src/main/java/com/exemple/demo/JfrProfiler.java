@@ -0,0 +1,343 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profilage continu par JFR, sans agent : où partent le CPU, les allocations, la contention et les pauses GC.
+ *
+ * - Un RecordingStream agrège dans l'application les échantillons CPU, les échantillons d'allocation,
+ *   la contention de moniteurs et les pauses GC en tables top-N glissantes (par pile et par endpoint)
+ * - Les échantillons sont attribués à un endpoint par les HttpRequestEvent (même thread, même instant),
+ *   avec quelques secondes de délai : une requête en cours n'est connue qu'à sa fin
+ * - Un recording continu sur disque (maxAge borné) sert aux dumps .jfr des N dernières minutes
+ *
+ * Réglages bas coût : échantillonnage CPU toutes les 20 ms, allocations limitées à 100 échantillons/s,
+ * contention au-delà de 10 ms, piles tronquées à quelques frames.
+ */
+@Component
+@ConditionalOnProperty(name = "demo.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrProfiler.class);
+
+    static final String OUTSIDE_REQUEST = "(hors requête)";
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+
+    // Délai avant d'attribuer un échantillon hors requête (la requête englobante n'est peut-être pas finie)
+    private static final long ATTRIBUTION_DELAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int MAX_PENDING_SAMPLES = 100_000;
+    private static final int MAX_REQUESTS_PER_THREAD = 256;
+    private static final int MAX_KEYS_PER_WINDOW = 5_000;
+
+    private record RequestSpan(long startNanos, long endNanos, String route) {
+    }
+
+    private record PendingSample(long threadId, long timeNanos, boolean cpu, long weight) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    private final int stackDepth;
+    private final int topSize;
+    private final long windowNanos;
+    private final Duration maxAge;
+    private final Path dumpDirectory;
+
+    private final RollingTopN cpuByStack;
+    private final RollingTopN allocationByStack;
+    private final RollingTopN lockByStack;
+    private final RollingTopN gcPauses;
+    private final RollingTopN cpuByEndpoint;
+    private final RollingTopN allocationByEndpoint;
+    private final Map<String, RollingTopN> tables = new LinkedHashMap<>();
+    private final Timer lockContentionTimer;
+
+    // État de l'attribution : uniquement manipulé par le thread du RecordingStream
+    private final Map<Long, ArrayDeque<RequestSpan>> requestsByThread = new HashMap<>();
+    private final ArrayDeque<PendingSample> pendingSamples = new ArrayDeque<>();
+    private long latestEventNanos;
+    private long windowStart = System.nanoTime();
+
+    private RecordingStream stream;
+    private Recording recording;
+
+    public JfrProfiler(MeterRegistry meterRegistry,
+                       @Value("${demo.profiling.execution-sample-period:20 ms}") String executionSamplePeriod,
+                       @Value("${demo.profiling.allocation-throttle:100/s}") String allocationThrottle,
+                       @Value("${demo.profiling.lock-threshold:10 ms}") String lockThreshold,
+                       @Value("${demo.profiling.stack-depth:5}") int stackDepth,
+                       @Value("${demo.profiling.top:10}") int topSize,
+                       @Value("${demo.profiling.window-seconds:60}") int windowSeconds,
+                       @Value("${demo.profiling.windows:5}") int windows,
+                       @Value("${demo.profiling.max-age-minutes:10}") int maxAgeMinutes,
+                       @Value("${demo.profiling.dump-directory:profiling}") String dumpDirectory) {
+        this.meterRegistry = meterRegistry;
+        this.stackDepth = stackDepth;
+        this.topSize = topSize;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.dumpDirectory = Path.of(dumpDirectory);
+
+        settings.put(EXECUTION_SAMPLE + "#enabled", "true");
+        settings.put(EXECUTION_SAMPLE + "#period", executionSamplePeriod);
+        settings.put(ALLOCATION_SAMPLE + "#enabled", "true");
+        settings.put(ALLOCATION_SAMPLE + "#throttle", allocationThrottle);
+        settings.put(ALLOCATION_SAMPLE + "#stackTrace", "true");
+        settings.put(MONITOR_ENTER + "#enabled", "true");
+        settings.put(MONITOR_ENTER + "#threshold", lockThreshold);
+        settings.put(MONITOR_ENTER + "#stackTrace", "true");
+        settings.put(GARBAGE_COLLECTION + "#enabled", "true");
+        settings.put(GARBAGE_COLLECTION + "#threshold", "0 ms");
+        settings.put(HttpRequestEvent.NAME + "#enabled", "true");
+        settings.put(HttpRequestEvent.NAME + "#threshold", "0 ms");
+
+        cpuByStack = table("cpu", windows);
+        allocationByStack = table("allocation", windows);
+        lockByStack = table("lock", windows);
+        gcPauses = table("gc", windows);
+        cpuByEndpoint = table("cpu-by-endpoint", windows);
+        allocationByEndpoint = table("allocation-by-endpoint", windows);
+
+        lockContentionTimer = Timer.builder("jfr.lock.contention")
+                .description("Attente d'entrée dans un moniteur (au-delà du seuil JFR)")
+                .register(meterRegistry);
+    }
+
+    private RollingTopN table(String name, int windows) {
+        RollingTopN table = new RollingTopN(windows, MAX_KEYS_PER_WINDOW);
+        tables.put(name, table);
+        return table;
+    }
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        // Recording sur disque pour les dumps : profil "default" de JFR + les événements ci-dessus
+        Map<String, String> recordingSettings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        recordingSettings.putAll(settings);
+        recording = new Recording(recordingSettings);
+        recording.setName("demo-continuous-profiling");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.start();
+
+        stream = new RecordingStream();
+        stream.setSettings(settings);
+        // Les handlers copient ce qu'ils gardent : objets réutilisables, pas de tri global
+        stream.setReuse(true);
+        stream.setOrdered(false);
+        stream.onEvent(EXECUTION_SAMPLE, this::onExecutionSample);
+        stream.onEvent(ALLOCATION_SAMPLE, this::onAllocationSample);
+        stream.onEvent(MONITOR_ENTER, this::onMonitorEnter);
+        stream.onEvent(GARBAGE_COLLECTION, this::onGarbageCollection);
+        stream.onEvent(HttpRequestEvent.NAME, this::onHttpRequest);
+        stream.onFlush(this::onFlush);
+        stream.startAsync();
+        logger.info("Profilage JFR continu démarré : {}", settings);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void onExecutionSample(RecordedEvent event) {
+        cpuByStack.add(stackKey(event.getStackTrace()), 1);
+        pending(event.getThread("sampledThread"), event.getStartTime(), true, 1);
+    }
+
+    private void onAllocationSample(RecordedEvent event) {
+        long weight = event.getLong("weight");
+        allocationByStack.add(event.getClass("objectClass").getName() + " @ " + stackKey(event.getStackTrace()), weight);
+        pending(event.getThread(), event.getStartTime(), false, weight);
+    }
+
+    private void onMonitorEnter(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        lockByStack.add(event.getClass("monitorClass").getName() + " @ " + stackKey(event.getStackTrace()), nanos);
+        lockContentionTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void onGarbageCollection(RecordedEvent event) {
+        String name = event.getString("name");
+        long pauseNanos = event.getDuration("sumOfPauses").toNanos();
+        gcPauses.add(name, pauseNanos);
+        meterRegistry.timer("jfr.gc.pause", "gc", name).record(pauseNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void onHttpRequest(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        if (thread == null) {
+            return;
+        }
+        ArrayDeque<RequestSpan> requests = requestsByThread.computeIfAbsent(thread.getJavaThreadId(), id -> new ArrayDeque<>());
+        if (requests.size() == MAX_REQUESTS_PER_THREAD) {
+            requests.pollFirst();
+        }
+        long end = nanos(event.getEndTime());
+        requests.addLast(new RequestSpan(nanos(event.getStartTime()), end, event.getString("route")));
+        latestEventNanos = Math.max(latestEventNanos, end);
+    }
+
+    private void pending(RecordedThread thread, Instant time, boolean cpu, long weight) {
+        if (thread == null) {
+            return;
+        }
+        long timeNanos = nanos(time);
+        latestEventNanos = Math.max(latestEventNanos, timeNanos);
+        if (pendingSamples.size() == MAX_PENDING_SAMPLES) {
+            PendingSample oldest = pendingSamples.pollFirst();
+            recordEndpoint(findRoute(oldest), oldest);
+        }
+        pendingSamples.addLast(new PendingSample(thread.getJavaThreadId(), timeNanos, cpu, weight));
+    }
+
+    private void onFlush() {
+        Iterator<PendingSample> iterator = pendingSamples.iterator();
+        while (iterator.hasNext()) {
+            PendingSample sample = iterator.next();
+            String route = findRoute(sample);
+            if (route == null && latestEventNanos - sample.timeNanos() < ATTRIBUTION_DELAY_NANOS) {
+                continue;
+            }
+            recordEndpoint(route, sample);
+            iterator.remove();
+        }
+
+        long oldest = latestEventNanos - 2 * ATTRIBUTION_DELAY_NANOS;
+        requestsByThread.values().forEach(requests -> {
+            while (!requests.isEmpty() && requests.peekFirst().endNanos() < oldest) {
+                requests.pollFirst();
+            }
+        });
+        requestsByThread.values().removeIf(ArrayDeque::isEmpty);
+
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos) {
+            windowStart = now;
+            tables.values().forEach(RollingTopN::rotate);
+        }
+    }
+
+    private String findRoute(PendingSample sample) {
+        ArrayDeque<RequestSpan> requests = requestsByThread.get(sample.threadId());
+        if (requests != null) {
+            for (RequestSpan request : requests) {
+                if (sample.timeNanos() >= request.startNanos() && sample.timeNanos() <= request.endNanos()) {
+                    return request.route();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void recordEndpoint(String route, PendingSample sample) {
+        String endpoint = route != null ? route : OUTSIDE_REQUEST;
+        if (sample.cpu()) {
+            cpuByEndpoint.add(endpoint, 1);
+            meterRegistry.counter("jfr.cpu.samples", "endpoint", endpoint).increment();
+        } else {
+            allocationByEndpoint.add(endpoint, sample.weight());
+            meterRegistry.counter("jfr.allocation.bytes", "endpoint", endpoint).increment(sample.weight());
+        }
+    }
+
+    private String stackKey(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(pile inconnue)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < Math.min(stackDepth, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            if (i > 0) {
+                key.append(" <- ");
+            }
+            key.append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+            if (frame.getLineNumber() > 0) {
+                key.append(':').append(frame.getLineNumber());
+            }
+        }
+        return key.toString();
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    /**
+     * Table top-N par nom (cpu, allocation, lock, gc, cpu-by-endpoint, allocation-by-endpoint), null si inconnue
+     */
+    public List<RollingTopN.Entry> top(String table, int limit) {
+        RollingTopN topN = tables.get(table);
+        return topN != null ? topN.top(limit) : null;
+    }
+
+    /**
+     * Écrit les N dernières minutes du recording continu dans un fichier .jfr (à ouvrir avec JDK Mission Control).
+     * Le découpage se fait par chunk JFR : le fichier peut commencer un peu avant.
+     */
+    public Path dump(int minutes) throws IOException {
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve("profile-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        // Un recording en cours ne peut pas être lu : copie arrêtée, limitée à la fenêtre demandée
+        Instant end = Instant.now();
+        try (Recording snapshot = recording.copy(true);
+             InputStream in = snapshot.getStream(end.minus(Duration.ofMinutes(minutes)), end)) {
+            if (in == null) {
+                throw new IOException("Aucune donnée JFR sur les " + minutes + " dernières minutes");
+            }
+            Files.copy(in, file);
+        }
+        logger.info("Dump JFR des {} dernières minutes : {} ({} octets)", minutes, file.toAbsolutePath(), Files.size(file));
+        return file;
+    }
+
+    // Getters
+    public Map<String, String> getSettings() { return settings; }
+    public List<String> getTableNames() { return List.copyOf(tables.keySet()); }
+    public int getTopSize() { return topSize; }
+    public Duration getMaxAge() { return maxAge; }
+    public long getWindowSeconds() { return TimeUnit.NANOSECONDS.toSeconds(windowNanos); }
+}
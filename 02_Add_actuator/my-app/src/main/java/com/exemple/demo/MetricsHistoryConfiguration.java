@@ -0,0 +1,46 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.util.NamedThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Historique local des métriques (GET /history) : HistoryMeterRegistry rejoint le registre composite
+ * et écrit toutes les 10 s dans MetricsHistoryStore. Le store est fermé après le registre
+ * (dernier pas publié, puis points en mémoire écrits sur disque).
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.history.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsHistoryConfiguration {
+
+    @Bean
+    public MetricsHistoryStore metricsHistoryStore(
+            @Value("${demo.history.directory:history}") Path directory,
+            @Value("${demo.history.raw-retention:1d}") Duration rawRetention,
+            @Value("${demo.history.minute-retention:7d}") Duration minuteRetention,
+            @Value("${demo.history.hour-retention:90d}") Duration hourRetention,
+            @Value("${demo.history.max-disk-size:100MB}") DataSize maxDiskSize,
+            @Value("${demo.history.chunk-size:1MB}") DataSize chunkSize,
+            @Value("${demo.history.flush-interval:5m}") Duration flushInterval,
+            @Value("${demo.history.max-series:1000}") int maxSeries) throws IOException {
+        return new MetricsHistoryStore(directory, rawRetention, minuteRetention, hourRetention,
+                maxDiskSize.toBytes(), Math.toIntExact(chunkSize.toBytes()), flushInterval, maxSeries);
+    }
+
+    @Bean
+    public HistoryMeterRegistry historyMeterRegistry(Clock clock, MetricsHistoryStore store,
+            @Value("${demo.history.meters:bonjour.requests,bonjour.response.time,jvm.memory.used}") List<String> meterNames) {
+        HistoryMeterRegistry registry = new HistoryMeterRegistry(clock, store, meterNames);
+        registry.start(new NamedThreadFactory("metrics-history"));
+        return registry;
+    }
+}
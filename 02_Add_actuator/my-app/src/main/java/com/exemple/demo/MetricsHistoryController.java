@@ -0,0 +1,92 @@
+package com.exemple.demo;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historique local des métriques.
+ *
+ * - GET /history?series=...&from=1h  : points d'une série ; from et to en durée relative (1h, 7d)
+ *                                      ou en epoch ms, resolution 10s, 1m, 1h ou auto
+ * - GET /history/series              : séries connues
+ * - GET /history/stats               : fichiers, octets et points écrits par résolution
+ */
+@RestController
+public class MetricsHistoryController {
+
+    private final ObjectProvider<MetricsHistoryStore> store;
+
+    @Value("${demo.history.max-points:2000}")
+    private int maxPoints;
+
+    public MetricsHistoryController(ObjectProvider<MetricsHistoryStore> store) {
+        this.store = store;
+    }
+
+    @GetMapping("/history")
+    public Map<String, Object> history(@RequestParam String series,
+                                       @RequestParam(defaultValue = "1h") String from,
+                                       @RequestParam(required = false) String to,
+                                       @RequestParam(defaultValue = "auto") String resolution) throws IOException {
+        long now = System.currentTimeMillis();
+        long fromMs = instant(from, now);
+        long toMs = to != null ? instant(to, now) : now;
+        if (fromMs > toMs) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        Map<String, Object> result;
+        try {
+            result = historyStore().query(series, fromMs / 1000, toMs / 1000,
+                    "auto".equals(resolution) ? null : resolution, maxPoints);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown series " + series);
+        }
+        return result;
+    }
+
+    @GetMapping("/history/series")
+    public List<String> series() {
+        return historyStore().getSeries();
+    }
+
+    @GetMapping("/history/stats")
+    public Map<String, Object> stats() throws IOException {
+        MetricsHistoryStore historyStore = store.getIfAvailable();
+        if (historyStore == null) {
+            return Map.of("enabled", false);
+        }
+        return historyStore.getStats();
+    }
+
+    private MetricsHistoryStore historyStore() {
+        MetricsHistoryStore historyStore = store.getIfAvailable();
+        if (historyStore == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Metrics history is disabled");
+        }
+        return historyStore;
+    }
+
+    // Durée relative à maintenant (1h), ou epoch ms
+    private static long instant(String value, long now) {
+        try {
+            return Character.isDigit(value.charAt(value.length() - 1))
+                    ? Long.parseLong(value)
+                    : now - DurationStyle.detectAndParse(value).toMillis();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid instant " + value);
+        }
+    }
+}
@@ -0,0 +1,585 @@
+package com.exemple.demo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Historique local des métriques sur disque, sans serveur Prometheus (déploiements edge).
+ *
+ * - Trois résolutions : points bruts à 10 s, agrégats à 1 min calculés depuis les points bruts,
+ *   agrégats à 1 h calculés depuis ceux à 1 min (min, max, somme, nombre)
+ * - Chaque série est compressée en Gorilla en mémoire, puis écrite en frame dans le fichier de chunk
+ *   (ChunkFile, projeté en mémoire) de son bloc de temps : toutes les flush-interval pour les points
+ *   bruts (6 fois pour 1 min, 360 fois pour 1 h, 6 h au plus) et à chaque changement de bloc
+ *   (1 h de points bruts, 1 jour à 1 min, 30 jours à 1 h par fichier)
+ * - Rétention par résolution : les fichiers dont le bloc est expiré sont supprimés
+ * - Disque borné (max-disk-size) : au-delà, les fichiers les plus anciens sont supprimés,
+ *   d'abord les points bruts, puis les agrégats à 1 min, puis à 1 h
+ *
+ * Frame : id de série, champ, nombre de points, longueur, flux Gorilla. Les séries sont numérotées
+ * dans series.idx. Un crash perd les points pas encore écrits (flush-interval de points bruts au plus).
+ * À l'arrêt, les agrégats en cours (1 min, 1 h) sont écrits partiels ; après redémarrage le même
+ * intervalle est écrit une seconde fois avec la suite des points, et les deux sont fusionnés à la lecture.
+ * Écritures par le thread de HistoryMeterRegistry, lectures par l'endpoint : accès synchronisés.
+ */
+public class MetricsHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHistoryStore.class);
+
+    private static final String SERIES_INDEX = "series.idx";
+    private static final String CHUNK_SUFFIX = ".chunk";
+
+    // Champs d'une frame : valeur brute, ou agrégat
+    private static final int VALUE = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+    private static final int SUM = 3;
+    private static final int COUNT = 4;
+
+    // 6 h : au plus autant d'agrégats horaires perdus en cas de crash
+    private static final long MAX_ROLLUP_FLUSH_SECONDS = 6 * 3600;
+
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final int chunkSize;
+    private final int maxSeries;
+
+    private final Resolution raw;
+    private final Resolution minute;
+    private final Resolution hour;
+    private final List<Resolution> resolutions;
+
+    private final Map<String, Integer> seriesIds = new HashMap<>();
+    private final List<String> seriesNames = new ArrayList<>();
+    private long droppedSeries;
+    private long deletedFiles;
+    private boolean diskFullWarned;
+
+    /**
+     * @throws IllegalArgumentException si max-disk-size ne laisse pas la place aux fichiers en cours
+     */
+    public MetricsHistoryStore(Path directory, Duration rawRetention, Duration minuteRetention, Duration hourRetention,
+                               long maxDiskBytes, int chunkSize, Duration flushInterval, int maxSeries) throws IOException {
+        if (maxDiskBytes < 4L * chunkSize) {
+            throw new IllegalArgumentException("max-disk-size (" + maxDiskBytes + " bytes) must be at least 4 chunks of "
+                    + chunkSize + " bytes");
+        }
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.chunkSize = chunkSize;
+        this.maxSeries = maxSeries;
+        this.raw = new Resolution("10s", 10, 3600, rawRetention, flushInterval);
+        this.minute = new Resolution("1m", 60, 86_400, minuteRetention, flushInterval);
+        this.hour = new Resolution("1h", 3600, 30 * 86_400, hourRetention, flushInterval);
+        this.resolutions = List.of(raw, minute, hour);
+        for (Resolution resolution : resolutions) {
+            Files.createDirectories(resolution.directory);
+        }
+        loadSeries();
+    }
+
+    private void loadSeries() throws IOException {
+        Path index = directory.resolve(SERIES_INDEX);
+        if (!Files.exists(index)) {
+            return;
+        }
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                String name = line.substring(tab + 1);
+                seriesIds.put(name, seriesNames.size());
+                seriesNames.add(name);
+            }
+        }
+    }
+
+    /**
+     * Points bruts d'un pas de 10 s
+     *
+     * @param epochSecond début du pas
+     */
+    public synchronized void append(long epochSecond, Map<String, Double> values) {
+        try {
+            // Agrégats à 1 min terminés, qui alimentent ceux à 1 h
+            minute.closeBuckets(epochSecond, (id, bucket) -> hour.aggregate(id, bucket.start).merge(bucket));
+            hour.closeBuckets(epochSecond, null);
+            for (Map.Entry<String, Double> entry : values.entrySet()) {
+                double value = entry.getValue();
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    continue;
+                }
+                int id = seriesId(entry.getKey());
+                if (id >= 0) {
+                    raw.write(id, VALUE, epochSecond, value);
+                    minute.aggregate(id, epochSecond).add(value);
+                }
+            }
+
+            boolean flushed = false;
+            for (Resolution resolution : resolutions) {
+                if (epochSecond - resolution.lastFlushSecond >= resolution.flushSeconds) {
+                    resolution.flush();
+                    resolution.lastFlushSecond = epochSecond;
+                    flushed = true;
+                }
+            }
+            if (flushed) {
+                enforceLimits(epochSecond);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int seriesId(String name) throws IOException {
+        Integer id = seriesIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (seriesNames.size() >= maxSeries) {
+            droppedSeries++;
+            return -1;
+        }
+        int newId = seriesNames.size();
+        Files.writeString(directory.resolve(SERIES_INDEX), newId + "\t" + name + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        seriesIds.put(name, newId);
+        seriesNames.add(name);
+        return newId;
+    }
+
+    private void flushAll() throws IOException {
+        for (Resolution resolution : resolutions) {
+            resolution.flush();
+        }
+    }
+
+    /**
+     * Rétention puis taille maximale sur disque
+     */
+    private void enforceLimits(long nowSecond) throws IOException {
+        for (Resolution resolution : resolutions) {
+            long expiredBefore = nowSecond - resolution.retention.toSeconds();
+            for (Path file : resolution.files()) {
+                if (blockOf(file) + resolution.blockSeconds <= expiredBefore && !resolution.isActive(file)) {
+                    delete(file);
+                }
+            }
+        }
+        long used = diskUsage();
+        for (Resolution resolution : resolutions) {
+            Iterator<Path> oldest = resolution.files().iterator();
+            while (used > maxDiskBytes && oldest.hasNext()) {
+                Path file = oldest.next();
+                if (!resolution.isActive(file)) {
+                    used -= Files.size(file);
+                    delete(file);
+                }
+            }
+        }
+        if (used > maxDiskBytes && !diskFullWarned) {
+            diskFullWarned = true;
+            logger.warn("Historique des métriques : {} octets sur disque pour {} autorisés, seuls les fichiers en cours restent",
+                    used, maxDiskBytes);
+        }
+    }
+
+    private void delete(Path file) throws IOException {
+        if (Files.deleteIfExists(file)) {
+            deletedFiles++;
+        }
+    }
+
+    private long diskUsage() throws IOException {
+        long total = Files.exists(directory.resolve(SERIES_INDEX)) ? Files.size(directory.resolve(SERIES_INDEX)) : 0;
+        for (Resolution resolution : resolutions) {
+            for (Path file : resolution.files()) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Points d'une série entre from et to (secondes epoch), à la résolution demandée
+     * ou, si null, à la plus fine qui couvre l'intervalle en au plus maxPoints points
+     *
+     * @return null si la série est inconnue
+     * @throws IllegalArgumentException si la résolution est inconnue
+     */
+    public synchronized Map<String, Object> query(String series, long from, long to, String resolutionName, int maxPoints)
+            throws IOException {
+        Integer id = seriesIds.get(series);
+        if (id == null) {
+            return null;
+        }
+        Resolution resolution = resolutionName != null ? resolution(resolutionName) : chooseResolution(from, to, maxPoints);
+
+        // Par timestamp : valeur, min, max, somme, nombre. Un agrégat présent dans plusieurs frames
+        // (intervalle coupé par un redémarrage) est fusionné
+        TreeMap<Long, double[]> points = new TreeMap<>();
+        Gorilla.PointConsumer[] consumers = new Gorilla.PointConsumer[COUNT + 1];
+        for (int field = VALUE; field <= COUNT; field++) {
+            int f = field;
+            consumers[field] = (timestamp, value) -> {
+                if (timestamp >= from && timestamp <= to) {
+                    double[] fields = points.computeIfAbsent(timestamp, t -> {
+                        double[] empty = new double[COUNT + 1];
+                        Arrays.fill(empty, Double.NaN);
+                        return empty;
+                    });
+                    fields[f] = Double.isNaN(fields[f]) ? value : merge(f, fields[f], value);
+                }
+            };
+        }
+        for (Path file : resolution.files()) {
+            long block = blockOf(file);
+            if (block + resolution.blockSeconds > from && block <= to) {
+                readFrames(file, id, consumers);
+            }
+        }
+        resolution.readPending(id, consumers);
+
+        List<Long> timestamps = new ArrayList<>(points.size());
+        List<Double> values = new ArrayList<>(points.size());
+        List<Double> mins = new ArrayList<>();
+        List<Double> maxs = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        points.forEach((timestamp, fields) -> {
+            timestamps.add(timestamp * 1000);
+            if (resolution == raw) {
+                values.add(fields[VALUE]);
+            } else {
+                values.add(fields[COUNT] > 0 ? fields[SUM] / fields[COUNT] : Double.NaN);
+                mins.add(fields[MIN]);
+                maxs.add(fields[MAX]);
+                counts.add((long) fields[COUNT]);
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("series", series);
+        result.put("resolution", resolution.name);
+        result.put("from", from * 1000);
+        result.put("to", to * 1000);
+        result.put("timestamps", timestamps);
+        result.put(resolution == raw ? "values" : "avg", values);
+        if (resolution != raw) {
+            result.put("min", mins);
+            result.put("max", maxs);
+            result.put("count", counts);
+        }
+        return result;
+    }
+
+    private static double merge(int field, double current, double value) {
+        return switch (field) {
+            case MIN -> Math.min(current, value);
+            case MAX -> Math.max(current, value);
+            case SUM, COUNT -> current + value;
+            default -> value;
+        };
+    }
+
+    private Resolution resolution(String name) {
+        for (Resolution resolution : resolutions) {
+            if (resolution.name.equals(name)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution " + name + ", expected 10s, 1m or 1h");
+    }
+
+    private Resolution chooseResolution(long from, long to, int maxPoints) {
+        long now = System.currentTimeMillis() / 1000;
+        for (Resolution resolution : resolutions) {
+            boolean retained = from >= now - resolution.retention.toSeconds();
+            if (retained && (to - from) / resolution.stepSeconds <= maxPoints) {
+                return resolution;
+            }
+        }
+        return hour;
+    }
+
+    private void readFrames(Path file, int id, Gorilla.PointConsumer[] consumers) throws IOException {
+        ByteBuffer frames = ChunkFile.read(file);
+        while (frames.hasRemaining()) {
+            int seriesId = (int) readVarLong(frames);
+            int field = frames.get();
+            int count = (int) readVarLong(frames);
+            int length = (int) readVarLong(frames);
+            if (seriesId == id && field >= VALUE && field <= COUNT) {
+                byte[] data = new byte[length];
+                frames.get(data);
+                Gorilla.decode(data, 0, count, consumers[field]);
+            } else {
+                frames.position(frames.position() + length);
+            }
+        }
+    }
+
+    public synchronized List<String> getSeries() {
+        return new ArrayList<>(new TreeSet<>(seriesNames));
+    }
+
+    public synchronized Map<String, Object> getStats() throws IOException {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toAbsolutePath().toString());
+        stats.put("series", seriesNames.size());
+        stats.put("droppedSeries", droppedSeries);
+        stats.put("diskBytes", diskUsage());
+        stats.put("maxDiskBytes", maxDiskBytes);
+        stats.put("deletedFiles", deletedFiles);
+        for (Resolution resolution : resolutions) {
+            Map<String, Object> stat = new LinkedHashMap<>();
+            List<Path> files = resolution.files();
+            long bytes = 0;
+            for (Path file : files) {
+                bytes += Files.size(file);
+            }
+            stat.put("retention", resolution.retention.toString());
+            stat.put("files", files.size());
+            stat.put("bytes", bytes);
+            stat.put("pointsWritten", resolution.pointsWritten);
+            stat.put("frameBytesWritten", resolution.frameBytesWritten);
+            stats.put(resolution.name, stat);
+        }
+        return stats;
+    }
+
+    /**
+     * Écrit les agrégats en cours et les points en mémoire, puis ferme les fichiers en cours
+     */
+    public synchronized void close() throws IOException {
+        minute.closeBuckets(Long.MAX_VALUE, (id, bucket) -> hour.aggregate(id, bucket.start).merge(bucket));
+        hour.closeBuckets(Long.MAX_VALUE, null);
+        flushAll();
+        for (Resolution resolution : resolutions) {
+            resolution.closeActive();
+        }
+    }
+
+    // Nom de fichier : <début du bloc en secondes epoch>-<numéro>.chunk
+    private static long blockOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('-')));
+    }
+
+    private static int sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(name.indexOf('-') + 1, name.length() - CHUNK_SUFFIX.length()));
+    }
+
+    private static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in chunk file");
+    }
+
+    private interface BucketListener {
+        void onClosed(int id, Bucket bucket);
+    }
+
+    /**
+     * Agrégat d'une série sur un intervalle de la résolution
+     */
+    private static final class Bucket {
+        final long start;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum;
+        long count;
+
+        Bucket(long start) {
+            this.start = start;
+        }
+
+        void add(double value) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+        }
+
+        void merge(Bucket other) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sum += other.sum;
+            count += other.count;
+        }
+    }
+
+    private final class Resolution {
+        final String name;
+        final long stepSeconds;
+        final long blockSeconds;
+        final Duration retention;
+        final Path directory;
+
+        // Par (série, champ) : points pas encore écrits sur disque
+        private final Map<Long, Gorilla.Encoder> encoders = new LinkedHashMap<>();
+        private final Map<Integer, Bucket> buckets = new HashMap<>();
+        private long currentBlock = -1;
+        private ChunkFile active;
+        // Agrégats écrits moins souvent : une frame par point coûterait plus que le point lui-même
+        final long flushSeconds;
+        long lastFlushSecond;
+        long pointsWritten;
+        long frameBytesWritten;
+
+        Resolution(String name, long stepSeconds, long blockSeconds, Duration retention, Duration flushInterval) {
+            this.name = name;
+            this.stepSeconds = stepSeconds;
+            this.blockSeconds = blockSeconds;
+            this.retention = retention;
+            this.flushSeconds = Math.min(flushInterval.toSeconds() * stepSeconds / 10, MAX_ROLLUP_FLUSH_SECONDS);
+            this.directory = MetricsHistoryStore.this.directory.resolve(name);
+        }
+
+        void write(int id, int field, long timestamp, double value) throws IOException {
+            long block = timestamp - Math.floorMod(timestamp, blockSeconds);
+            if (block != currentBlock) {
+                // Nouveau bloc : les points de l'ancien vont dans son fichier, qui est fermé
+                flush();
+                closeActive();
+                currentBlock = block;
+            }
+            encoders.computeIfAbsent(((long) id << 3) | field, k -> new Gorilla.Encoder()).append(timestamp, value);
+            pointsWritten++;
+        }
+
+        Bucket aggregate(int id, long timestamp) {
+            long start = timestamp - Math.floorMod(timestamp, stepSeconds);
+            return buckets.computeIfAbsent(id, i -> new Bucket(start));
+        }
+
+        /**
+         * Écrit les agrégats dont l'intervalle est terminé à timestamp (Long.MAX_VALUE : tous)
+         */
+        void closeBuckets(long timestamp, BucketListener listener) throws IOException {
+            long currentStart = timestamp == Long.MAX_VALUE ? timestamp : timestamp - Math.floorMod(timestamp, stepSeconds);
+            Iterator<Map.Entry<Integer, Bucket>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, Bucket> entry = iterator.next();
+                Bucket bucket = entry.getValue();
+                if (bucket.start < currentStart) {
+                    iterator.remove();
+                    write(entry.getKey(), MIN, bucket.start, bucket.min);
+                    write(entry.getKey(), MAX, bucket.start, bucket.max);
+                    write(entry.getKey(), SUM, bucket.start, bucket.sum);
+                    write(entry.getKey(), COUNT, bucket.start, bucket.count);
+                    if (listener != null) {
+                        listener.onClosed(entry.getKey(), bucket);
+                    }
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            for (Map.Entry<Long, Gorilla.Encoder> entry : encoders.entrySet()) {
+                Gorilla.Encoder encoder = entry.getValue();
+                byte[] data = encoder.toByteArray();
+                ByteBuffer frame = ByteBuffer.allocate(data.length + 32);
+                writeVarLong(frame, entry.getKey() >>> 3);
+                frame.put((byte) (entry.getKey() & 7));
+                writeVarLong(frame, encoder.count());
+                writeVarLong(frame, data.length);
+                frame.put(data);
+                appendFrame(Arrays.copyOf(frame.array(), frame.position()));
+            }
+            encoders.clear();
+            if (active != null) {
+                active.force();
+            }
+        }
+
+        private void appendFrame(byte[] frame) throws IOException {
+            if (frame.length > chunkSize - ChunkFile.HEADER_SIZE) {
+                logger.warn("Frame de {} octets plus grande qu'un chunk, ignorée", frame.length);
+                return;
+            }
+            if (active == null || !active.append(frame)) {
+                closeActive();
+                active = ChunkFile.create(nextFile(), chunkSize);
+                active.append(frame);
+            }
+            frameBytesWritten += frame.length;
+        }
+
+        private Path nextFile() throws IOException {
+            int sequence = 0;
+            for (Path file : files()) {
+                if (blockOf(file) == currentBlock) {
+                    sequence = Math.max(sequence, sequenceOf(file) + 1);
+                }
+            }
+            return directory.resolve(currentBlock + "-" + sequence + CHUNK_SUFFIX);
+        }
+
+        void closeActive() throws IOException {
+            if (active != null) {
+                active.close();
+                active = null;
+            }
+        }
+
+        boolean isActive(Path file) {
+            return active != null && active.path().equals(file);
+        }
+
+        void readPending(int id, Gorilla.PointConsumer[] consumers) {
+            for (int field = VALUE; field <= COUNT; field++) {
+                Gorilla.Encoder encoder = encoders.get(((long) id << 3) | field);
+                if (encoder != null) {
+                    Gorilla.decode(encoder.toByteArray(), 0, encoder.count(), consumers[field]);
+                }
+            }
+        }
+
+        /**
+         * Fichiers de chunk du plus ancien au plus récent
+         */
+        List<Path> files() throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> file.getFileName().toString().endsWith(CHUNK_SUFFIX))
+                        .sorted(Comparator.comparingLong(MetricsHistoryStore::blockOf)
+                                .thenComparingInt(MetricsHistoryStore::sequenceOf))
+                        .toList();
+            }
+        }
+    }
+}
@@ -22,27 +22,37 @@ public class MetricsService {
         
         this.responseTimer = Timer.builder("bonjour.response.time")
                 .description("Temps de réponse des requêtes bonjour")
+                // Buckets d'histogramme : chacun porte un exemplar (traceId) dans la sortie OpenMetrics
+                .publishPercentileHistogram()
                 .register(meterRegistry);
     }
 
-    public String processBonjour() {
+    /**
+     * @param recorded false pour le trafic de warm-up : ni bonjour.requests ni bonjour.response.time
+     */
+    public String processBonjour(boolean recorded) {
+        if (!recorded) {
+            return bonjour();
+        }
         bonjourCounter.increment();
         
         try {
-            return responseTimer.recordCallable(() -> {
-                try {
-                    Thread.sleep(ThreadLocalRandom.current().nextInt(10, 100));
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-                return "Bonjour, Spring avec métriques!";
-            });
+            return responseTimer.recordCallable(MetricsService::bonjour);
         } catch (Exception e) {
             // En cas d'erreur, retourner une réponse par défaut
             return "Bonjour, Spring avec métriques!";
         }
     }
 
+    private static String bonjour() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(10, 100));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "Bonjour, Spring avec métriques!";
+    }
+
     public void recordCustomMetric(String operation, double value) {
         meterRegistry.gauge("custom.operation.value", value);
         meterRegistry.counter("custom.operation.count", "operation", operation).increment();
@@ -0,0 +1,67 @@
+package com.exemple.demo;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint Actuator du profilage JFR continu.
+ *
+ * - GET  /actuator/profiling          : réglages et toutes les tables top-N
+ * - GET  /actuator/profiling/{table}  : une table (cpu, allocation, lock, gc, cpu-by-endpoint, allocation-by-endpoint), ?limit=N
+ * - POST /actuator/profiling          : {"minutes": 5} écrit un dump .jfr des N dernières minutes
+ *
+ * Valeurs des tables : échantillons pour cpu, octets pour allocation, nanosecondes pour lock et gc.
+ */
+@Component
+@Endpoint(id = "profiling")
+@ConditionalOnProperty(name = "demo.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingEndpoint {
+
+    private static final int DEFAULT_DUMP_MINUTES = 5;
+
+    private final JfrProfiler profiler;
+
+    public ProfilingEndpoint(JfrProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> profile() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", profiler.getSettings());
+        result.put("windowSeconds", profiler.getWindowSeconds());
+        result.put("maxAge", profiler.getMaxAge().toString());
+        for (String table : profiler.getTableNames()) {
+            result.put(table, profiler.top(table, profiler.getTopSize()));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public List<RollingTopN.Entry> table(@Selector String table, @Nullable Integer limit) {
+        return profiler.top(table, limit != null ? limit : profiler.getTopSize());
+    }
+
+    @WriteOperation
+    public Map<String, Object> dump(@Nullable Integer minutes) throws IOException {
+        int window = minutes != null ? minutes : DEFAULT_DUMP_MINUTES;
+        Path file = profiler.dump(window);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toAbsolutePath().toString());
+        result.put("sizeBytes", Files.size(file));
+        result.put("minutes", window);
+        return result;
+    }
+}
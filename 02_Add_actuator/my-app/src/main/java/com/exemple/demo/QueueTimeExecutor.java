@@ -0,0 +1,52 @@
+package com.exemple.demo;
+
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor des workers Tomcat, identique à celui que crée le connecteur (TaskQueue : nouveaux
+ * threads jusqu'à max avant de mettre en file), qui mesure l'attente de chaque tâche dans la file.
+ *
+ * L'attente dans le backlog TCP, avant l'accept, n'est pas visible d'ici.
+ */
+public class QueueTimeExecutor extends ThreadPoolExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    public QueueTimeExecutor(String namePrefix, int minSpareThreads, int maxThreads) {
+        // Comme le connecteur : pas plus de threads minimum que de threads maximum
+        super(Math.min(minSpareThreads, maxThreads), maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new TaskQueue(),
+                new TaskThreadFactory(namePrefix, true, Thread.NORM_PRIORITY));
+        ((TaskQueue) getQueue()).setParent(this);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command, System.nanoTime()));
+    }
+
+    private static final class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long enqueuedNanos;
+
+        TimedTask(Runnable task, long enqueuedNanos) {
+            this.task = task;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        @Override
+        public void run() {
+            RequestClock clock = RequestClock.current();
+            clock.dispatched(System.nanoTime() - enqueuedNanos);
+            try {
+                task.run();
+            } finally {
+                clock.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.exemple.demo;
+
+/**
+ * État de chronométrage d'une requête, un par thread worker Tomcat (aucune allocation par requête).
+ *
+ * QueueTimeExecutor y dépose le temps passé dans la file de l'executor, RequestTimingInterceptor
+ * le consomme et y garde le début du handler. Suppose une requête synchrone : le handler
+ * commence et finit sur le même thread.
+ */
+final class RequestClock {
+
+    static final long NONE = -1;
+
+    private static final ThreadLocal<RequestClock> CURRENT = ThreadLocal.withInitial(RequestClock::new);
+
+    private long queueNanos = NONE;
+    long handlerStartNanos;
+    RequestTimings.Route route;
+
+    static RequestClock current() {
+        return CURRENT.get();
+    }
+
+    void dispatched(long queueNanos) {
+        this.queueNanos = queueNanos;
+    }
+
+    /**
+     * Temps en file de la tâche courante, sans le consommer (NONE si inconnu).
+     */
+    long peekQueueNanos() {
+        return queueNanos;
+    }
+
+    /**
+     * Temps en file de la tâche courante, une seule fois : les requêtes suivantes traitées par la
+     * même tâche (keep-alive, pipelining) n'ont pas attendu un worker.
+     */
+    long takeQueueNanos() {
+        long queued = queueNanos;
+        queueNanos = NONE;
+        return queued;
+    }
+
+    void reset() {
+        queueNanos = NONE;
+        route = null;
+    }
+}
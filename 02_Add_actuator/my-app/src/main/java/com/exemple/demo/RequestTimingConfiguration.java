@@ -0,0 +1,58 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Métriques par route des requêtes en cours, du temps en file et du temps de handler.
+ *
+ * Le connecteur Tomcat reçoit un QueueTimeExecutor, dimensionné par server.tomcat.threads.*
+ * comme l'executor interne qu'il remplace. Les métriques tomcat.threads.* restent valables.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.request-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfiguration implements WebMvcConfigurer {
+
+    private final RequestTimings timings;
+
+    public RequestTimingConfiguration(MeterRegistry registry,
+                                      @Value("${demo.request-timing.max-routes:100}") int maxRoutes) {
+        this.timings = new RequestTimings(registry, maxRoutes);
+    }
+
+    @Bean
+    public RequestTimings requestTimings() {
+        return timings;
+    }
+
+    @Bean
+    public QueueTimeExecutor queueTimeExecutor(ServerProperties serverProperties, MeterRegistry registry) {
+        ServerProperties.Tomcat.Threads threads = serverProperties.getTomcat().getThreads();
+        int port = serverProperties.getPort() != null ? serverProperties.getPort() : 8080;
+        QueueTimeExecutor executor = new QueueTimeExecutor("http-nio-" + port + "-exec-",
+                threads.getMinSpare(), threads.getMax());
+        Gauge.builder("http.server.queue.size", executor, e -> e.getQueue().size())
+                .description("Requêtes en attente d'un thread worker")
+                .register(registry);
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> queueTimeExecutorCustomizer(QueueTimeExecutor executor) {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestTimingInterceptor(timings));
+    }
+}
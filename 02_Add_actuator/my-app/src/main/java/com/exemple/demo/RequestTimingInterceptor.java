@@ -0,0 +1,47 @@
+package com.exemple.demo;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Chronomètre le handler de chaque requête et l'attribue à sa route Spring.
+ *
+ * Intercepteur plutôt que filtre : la route n'est connue qu'après le handler mapping.
+ * Les dispatches ERROR (page /error après une exception) ne sont pas recomptés.
+ */
+class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private final RequestTimings timings;
+
+    RequestTimingInterceptor(RequestTimings timings) {
+        this.timings = timings;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        RequestClock clock = RequestClock.current();
+        RequestTimings.Route route = timings.route(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        route.started(clock.takeQueueNanos());
+        clock.route = route;
+        clock.handlerStartNanos = System.nanoTime();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestClock clock = RequestClock.current();
+        RequestTimings.Route route = clock.route;
+        if (route == null || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return;
+        }
+        route.finished(System.nanoTime() - clock.handlerStartNanos);
+        clock.route = null;
+    }
+}
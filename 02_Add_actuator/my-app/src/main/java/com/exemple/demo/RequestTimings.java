@@ -0,0 +1,120 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs par route : requêtes en cours, temps en file d'attente et temps de handler.
+ *
+ * Chemin chaud en quelques dizaines de nanosecondes : une lecture de ConcurrentHashMap sur la
+ * chaîne du pattern (hash en cache, même instance que la clé) et des LongAdder, sans contention
+ * entre workers. Micrometer ne lit les sommes qu'au scrape (Gauge, FunctionTimer).
+ *
+ * Métriques, tag uri comme http.server.requests :
+ * - http.server.in.flight     : requêtes dans un handler
+ * - http.server.queue.time    : attente d'un worker dans la file de l'executor Tomcat
+ * - http.server.handler.time  : du handler mapping à la fin de la réponse
+ */
+public class RequestTimings {
+
+    static final String UNKNOWN = "UNKNOWN";
+    static final String OTHER = "OTHER";
+
+    private final MeterRegistry registry;
+    private final int maxRoutes;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final Route unknown;
+    private final Route other;
+
+    public RequestTimings(MeterRegistry registry, int maxRoutes) {
+        this.registry = registry;
+        this.maxRoutes = maxRoutes;
+        this.unknown = register(UNKNOWN);
+        this.other = register(OTHER);
+    }
+
+    /**
+     * Routes précalculées au démarrage : contrôleurs et endpoints Actuator.
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        for (RequestMappingInfoHandlerMapping mapping
+                : event.getApplicationContext().getBeansOfType(RequestMappingInfoHandlerMapping.class).values()) {
+            for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+                info.getPatternValues().forEach(this::route);
+            }
+        }
+    }
+
+    Route route(Object pattern) {
+        if (pattern == null) {
+            return unknown;
+        }
+        Route route = routes.get(pattern);
+        if (route != null) {
+            return route;
+        }
+        // Route hors mappings (handler de ressources, ajout à chaud) : cardinalité bornée
+        if (routes.size() >= maxRoutes) {
+            return other;
+        }
+        return routes.computeIfAbsent(pattern.toString(), this::register);
+    }
+
+    private Route register(String uri) {
+        Route route = new Route();
+        Tags tags = Tags.of("uri", uri);
+        Gauge.builder("http.server.in.flight", route.inFlight, LongAdder::sum)
+                .description("Requêtes en cours dans un handler")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder("http.server.queue.time", route,
+                        r -> r.queueCount.sum(), r -> r.queueNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Attente d'un thread worker dans la file de l'executor Tomcat")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder("http.server.handler.time", route,
+                        r -> r.handlerCount.sum(), r -> r.handlerNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Temps passé dans le handler, réponse comprise")
+                .tags(tags)
+                .register(registry);
+        return route;
+    }
+
+    static final class Route {
+
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder queueCount = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final LongAdder handlerCount = new LongAdder();
+        final LongAdder handlerNanos = new LongAdder();
+
+        /**
+         * @param queueNanos attente en file, RequestClock.NONE si la requête n'a pas attendu de worker
+         */
+        void started(long queueNanos) {
+            inFlight.increment();
+            if (queueNanos != RequestClock.NONE) {
+                queueCount.increment();
+                this.queueNanos.add(queueNanos);
+            }
+        }
+
+        void finished(long handlerNanos) {
+            inFlight.decrement();
+            handlerCount.increment();
+            this.handlerNanos.add(handlerNanos);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.exemple.demo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrégats glissants par clé (pile d'appels, endpoint, collecteur GC) sur N fenêtres de durée fixe :
+ * à chaque rotation la fenêtre la plus ancienne est oubliée.
+ *
+ * Par clé : nombre d'occurrences, total et maximum de la valeur (octets, nanosecondes...).
+ * Écritures par le thread du RecordingStream, lectures par l'endpoint : accès synchronisés.
+ */
+public class RollingTopN {
+
+    public record Entry(String key, long count, long total, long max) {
+    }
+
+    static final String OTHERS = "(autres)";
+
+    private final List<Map<String, long[]>> windows = new ArrayList<>();
+    private final int maxKeysPerWindow;
+    private int current;
+
+    public RollingTopN(int windowCount, int maxKeysPerWindow) {
+        for (int i = 0; i < windowCount; i++) {
+            windows.add(new HashMap<>());
+        }
+        this.maxKeysPerWindow = maxKeysPerWindow;
+    }
+
+    public synchronized void add(String key, long value) {
+        Map<String, long[]> window = windows.get(current);
+        long[] stats = window.get(key);
+        if (stats == null) {
+            // Nombre de clés borné : les piles rares au-delà de la limite sont regroupées
+            key = window.size() < maxKeysPerWindow ? key : OTHERS;
+            stats = window.computeIfAbsent(key, k -> new long[3]);
+        }
+        stats[0]++;
+        stats[1] += value;
+        stats[2] = Math.max(stats[2], value);
+    }
+
+    /**
+     * Passe à la fenêtre suivante, dont le contenu (le plus ancien) est effacé
+     */
+    public synchronized void rotate() {
+        current = (current + 1) % windows.size();
+        windows.get(current).clear();
+    }
+
+    /**
+     * Les n clés au plus gros total, toutes fenêtres confondues
+     */
+    public synchronized List<Entry> top(int n) {
+        Map<String, long[]> merged = new HashMap<>();
+        for (Map<String, long[]> window : windows) {
+            window.forEach((key, stats) -> {
+                long[] total = merged.computeIfAbsent(key, k -> new long[3]);
+                total[0] += stats[0];
+                total[1] += stats[1];
+                total[2] = Math.max(total[2], stats[2]);
+            });
+        }
+        return merged.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+                .limit(n)
+                .map(e -> new Entry(e.getKey(), e.getValue()[0], e.getValue()[1], e.getValue()[2]))
+                .toList();
+    }
+}
@@ -0,0 +1,197 @@
+package com.exemple.demo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mode agrégateur : récupère les sketches des instances de la flotte (GET {peer}/sketches)
+ * et sert les percentiles de la flotte, calculés sur les sketches fusionnés.
+ *
+ * - Pull toutes les pull-interval-ms sur un thread dédié, le dernier snapshot de chaque pair est gardé
+ * - Un pair injoignable depuis plus de 3 intervalles sort de l'agrégat (son état reste visible)
+ * - Les sketches d'une autre précision sont refusés : la fusion n'aurait plus de garantie
+ *
+ * Pour inclure l'instance elle-même, ajouter sa propre URL aux pairs.
+ */
+@Service
+@ConditionalOnProperty(name = "demo.sketches.aggregator.enabled", havingValue = "true")
+public class SketchAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SketchAggregator.class);
+
+    private static final int STALE_INTERVALS = 3;
+
+    @Value("${demo.sketches.aggregator.peers:}")
+    private List<String> peerUrls;
+
+    @Value("${demo.sketches.aggregator.pull-interval-ms:10000}")
+    private long pullIntervalMs;
+
+    @Value("${demo.sketches.aggregator.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Value("${demo.sketches.relative-accuracy:0.01}")
+    private double relativeAccuracy;
+
+    @Value("${demo.sketches.max-bins:2048}")
+    private int maxBins;
+
+    private final List<Peer> peers = new ArrayList<>();
+    private HttpClient httpClient;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        for (String url : peerUrls) {
+            if (!url.isBlank()) {
+                peers.add(new Peer(url.strip().replaceAll("/+$", "")));
+            }
+        }
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sketch-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pullAll, 0, pullIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Agrégation des sketches de {} pairs toutes les {} ms", peers.size(), pullIntervalMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void pullAll() {
+        for (Peer peer : peers) {
+            try {
+                peer.update(pull(peer.url));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                peer.fail(e.toString());
+                logger.debug("Sketches de {} indisponibles : {}", peer.url, e.toString());
+            }
+        }
+    }
+
+    /**
+     * @throws IOException sur une réponse autre que 200, un format inconnu ou une autre précision
+     */
+    private Map<String, DDSketch> pull(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/sketches"))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        Map<String, DDSketch> sketches = DDSketch.readAll(new DataInputStream(new ByteArrayInputStream(response.body())));
+        for (DDSketch sketch : sketches.values()) {
+            if (sketch.getRelativeAccuracy() != relativeAccuracy) {
+                throw new IOException("Relative accuracy " + sketch.getRelativeAccuracy() + " instead of " + relativeAccuracy);
+            }
+        }
+        return sketches;
+    }
+
+    /**
+     * Sketches de la flotte : fusion des derniers snapshots des pairs à jour, par nom
+     */
+    public Map<String, DDSketch> fleet() {
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(pullIntervalMs * STALE_INTERVALS);
+        Map<String, DDSketch> fleet = new TreeMap<>();
+        for (Peer peer : peers) {
+            Map<String, DDSketch> snapshot = peer.snapshot(maxAgeNanos);
+            if (snapshot == null) {
+                continue;
+            }
+            snapshot.forEach((name, sketch) ->
+                    fleet.computeIfAbsent(name, n -> new DDSketch(relativeAccuracy, maxBins)).merge(sketch));
+        }
+        return fleet;
+    }
+
+    public List<Map<String, Object>> getPeers() {
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(pullIntervalMs * STALE_INTERVALS);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Peer peer : peers) {
+            result.add(peer.toMap(maxAgeNanos));
+        }
+        return result;
+    }
+
+    private static final class Peer {
+        final String url;
+        private Map<String, DDSketch> snapshot;
+        private long updatedNanos;
+        private String lastError;
+        private long failures;
+
+        Peer(String url) {
+            this.url = url;
+        }
+
+        synchronized void update(Map<String, DDSketch> sketches) {
+            snapshot = sketches;
+            updatedNanos = System.nanoTime();
+            lastError = null;
+        }
+
+        synchronized void fail(String error) {
+            lastError = error;
+            failures++;
+        }
+
+        /**
+         * @return null si aucun snapshot ou s'il est trop ancien
+         */
+        synchronized Map<String, DDSketch> snapshot(long maxAgeNanos) {
+            return snapshot != null && System.nanoTime() - updatedNanos <= maxAgeNanos ? snapshot : null;
+        }
+
+        synchronized Map<String, Object> toMap(long maxAgeNanos) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("url", url);
+            if (snapshot == null) {
+                map.put("status", "unknown");
+            } else {
+                long ageNanos = System.nanoTime() - updatedNanos;
+                map.put("status", ageNanos <= maxAgeNanos ? (lastError == null ? "up" : "degraded") : "stale");
+                map.put("ageMs", TimeUnit.NANOSECONDS.toMillis(ageNanos));
+                map.put("sketches", snapshot.size());
+            }
+            map.put("failures", failures);
+            if (lastError != null) {
+                map.put("error", lastError);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Clock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sketches de latence fusionnables (GET /sketches) : un second registre Micrometer, que Spring Boot
+ * regroupe avec Prometheus dans son registre composite.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.sketches.enabled", havingValue = "true", matchIfMissing = true)
+public class SketchConfiguration {
+
+    @Bean
+    public SketchMeterRegistry sketchMeterRegistry(Clock clock,
+            @Value("${demo.sketches.meters:bonjour.response.time,http.server.requests}") Set<String> meterNames,
+            @Value("${demo.sketches.tags:uri}") List<String> tagKeys,
+            @Value("${demo.sketches.relative-accuracy:0.01}") double relativeAccuracy,
+            @Value("${demo.sketches.max-bins:2048}") int maxBins,
+            @Value("${demo.sketches.window-seconds:60}") int windowSeconds,
+            @Value("${demo.sketches.windows:5}") int windows,
+            @Value("${demo.sketches.max-sketches:200}") int maxSketches) {
+        return new SketchMeterRegistry(clock, meterNames, tagKeys, relativeAccuracy, maxBins,
+                windows, Duration.ofSeconds(windowSeconds), maxSketches);
+    }
+}
@@ -0,0 +1,115 @@
+package com.exemple.demo;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sketches de latence, locaux et de la flotte.
+ *
+ * - GET /sketches                 : sketches de l'instance, format binaire (DDSketch.writeAll), lu par l'agrégateur
+ * - GET /sketches/percentiles     : percentiles de l'instance, en ms
+ * - GET /sketches/fleet           : percentiles de la flotte et état des pairs (mode agrégateur)
+ * - GET /sketches/fleet/binary    : sketches fusionnés de la flotte, même format que /sketches
+ */
+@RestController
+public class SketchController {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50Ms", "p90Ms", "p99Ms", "p999Ms"};
+
+    private final ObjectProvider<SketchMeterRegistry> sketchRegistry;
+    private final ObjectProvider<SketchAggregator> aggregator;
+
+    public SketchController(ObjectProvider<SketchMeterRegistry> sketchRegistry, ObjectProvider<SketchAggregator> aggregator) {
+        this.sketchRegistry = sketchRegistry;
+        this.aggregator = aggregator;
+    }
+
+    @GetMapping("/sketches")
+    public ResponseEntity<byte[]> sketches() throws IOException {
+        return binary(localRegistry().snapshot());
+    }
+
+    @GetMapping("/sketches/percentiles")
+    public Map<String, Object> percentiles() {
+        SketchMeterRegistry registry = sketchRegistry.getIfAvailable();
+        if (registry == null) {
+            return Map.of("enabled", false);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("relativeAccuracy", registry.getRelativeAccuracy());
+        result.put("window", registry.getWindow().toString());
+        result.put("sketches", percentiles(registry.snapshot()));
+        return result;
+    }
+
+    @GetMapping("/sketches/fleet")
+    public Map<String, Object> fleet() {
+        SketchAggregator fleetAggregator = aggregator.getIfAvailable();
+        if (fleetAggregator == null) {
+            return Map.of("enabled", false);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("peers", fleetAggregator.getPeers());
+        result.put("sketches", percentiles(fleetAggregator.fleet()));
+        return result;
+    }
+
+    @GetMapping("/sketches/fleet/binary")
+    public ResponseEntity<byte[]> fleetBinary() throws IOException {
+        SketchAggregator fleetAggregator = aggregator.getIfAvailable();
+        if (fleetAggregator == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Aggregator mode is disabled");
+        }
+        return binary(fleetAggregator.fleet());
+    }
+
+    private SketchMeterRegistry localRegistry() {
+        SketchMeterRegistry registry = sketchRegistry.getIfAvailable();
+        if (registry == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Sketches are disabled");
+        }
+        return registry;
+    }
+
+    private static ResponseEntity<byte[]> binary(Map<String, DDSketch> sketches) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            DDSketch.writeAll(sketches, out);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(bytes.toByteArray());
+    }
+
+    private static Map<String, Object> percentiles(Map<String, DDSketch> sketches) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        sketches.forEach((name, sketch) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", sketch.getCount());
+            stats.put("avgMs", round(sketch.getSum() / sketch.getCount()));
+            stats.put("minMs", round(sketch.getMin()));
+            for (int i = 0; i < QUANTILES.length; i++) {
+                stats.put(QUANTILE_NAMES[i], round(sketch.quantile(QUANTILES[i])));
+            }
+            stats.put("maxMs", round(sketch.getMax()));
+            result.put(name, stats);
+        });
+        return result;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,247 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.AbstractTimer;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.TimeWindowMax;
+import io.micrometer.core.instrument.distribution.pause.NoPauseDetector;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.noop.NoopCounter;
+import io.micrometer.core.instrument.noop.NoopDistributionSummary;
+import io.micrometer.core.instrument.noop.NoopFunctionCounter;
+import io.micrometer.core.instrument.noop.NoopFunctionTimer;
+import io.micrometer.core.instrument.noop.NoopGauge;
+import io.micrometer.core.instrument.noop.NoopLongTaskTimer;
+import io.micrometer.core.instrument.noop.NoopMeter;
+import io.micrometer.core.instrument.noop.NoopTimer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registre Micrometer qui alimente des DDSketch glissants, en millisecondes.
+ *
+ * Déclaré comme bean, il rejoint le registre composite de Spring Boot à côté de Prometheus :
+ * tout Timer enregistré (bonjour.response.time, http.server.requests...) lui parvient aussi.
+ * - Seuls les timers des noms configurés sont suivis, les autres compteurs sont des Noop
+ * - Un sketch par nom et tags retenus (ex : http.server.requests{uri=/user/{id}}),
+ *   les autres tags (status, method...) sont fusionnés. Nombre de sketches borné
+ * - N fenêtres de durée fixe comme RollingTopN : un snapshot couvre les N dernières fenêtres
+ */
+public class SketchMeterRegistry extends MeterRegistry {
+
+    private final Set<String> meterNames;
+    private final List<String> tagKeys;
+    private final double relativeAccuracy;
+    private final int maxBins;
+    private final int windowCount;
+    private final long windowNanos;
+    private final int maxSketches;
+
+    private final ConcurrentHashMap<String, RollingSketch> sketches = new ConcurrentHashMap<>();
+
+    public SketchMeterRegistry(Clock clock, Set<String> meterNames, List<String> tagKeys, double relativeAccuracy,
+                               int maxBins, int windowCount, Duration window, int maxSketches) {
+        super(clock);
+        this.meterNames = meterNames;
+        this.tagKeys = tagKeys;
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBins = maxBins;
+        this.windowCount = windowCount;
+        this.windowNanos = window.toNanos();
+        this.maxSketches = maxSketches;
+    }
+
+    /**
+     * Sketches fusionnés sur toutes les fenêtres, par nom (les vides sont omis)
+     */
+    public Map<String, DDSketch> snapshot() {
+        Map<String, DDSketch> snapshot = new TreeMap<>();
+        sketches.forEach((name, rolling) -> {
+            DDSketch merged = rolling.merged();
+            if (merged.getCount() > 0) {
+                snapshot.put(name, merged);
+            }
+        });
+        return snapshot;
+    }
+
+    public double getRelativeAccuracy() { return relativeAccuracy; }
+
+    public Duration getWindow() { return Duration.ofNanos(windowNanos * windowCount); }
+
+    @Override
+    protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig, PauseDetector pauseDetector) {
+        if (!meterNames.contains(id.getName())) {
+            return new NoopTimer(id);
+        }
+        String name = sketchName(id);
+        RollingSketch sketch = sketches.get(name);
+        if (sketch == null) {
+            if (sketches.size() >= maxSketches) {
+                return new NoopTimer(id);
+            }
+            sketch = sketches.computeIfAbsent(name, n -> new RollingSketch());
+        }
+        return new SketchTimer(id, clock, sketch);
+    }
+
+    private String sketchName(Meter.Id id) {
+        StringBuilder name = new StringBuilder(id.getName());
+        boolean first = true;
+        for (String key : tagKeys) {
+            String value = id.getTag(key);
+            if (value != null) {
+                name.append(first ? '{' : ',').append(key).append('=').append(value);
+                first = false;
+            }
+        }
+        return first ? name.toString() : name.append('}').toString();
+    }
+
+    @Override
+    protected <T> Gauge newGauge(Meter.Id id, T obj, ToDoubleFunction<T> valueFunction) {
+        return new NoopGauge(id);
+    }
+
+    @Override
+    protected Counter newCounter(Meter.Id id) {
+        return new NoopCounter(id);
+    }
+
+    @Override
+    protected LongTaskTimer newLongTaskTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig) {
+        return new NoopLongTaskTimer(id);
+    }
+
+    @Override
+    protected DistributionSummary newDistributionSummary(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig, double scale) {
+        return new NoopDistributionSummary(id);
+    }
+
+    @Override
+    protected Meter newMeter(Meter.Id id, Meter.Type type, Iterable<Measurement> measurements) {
+        return new NoopMeter(id);
+    }
+
+    @Override
+    protected <T> FunctionTimer newFunctionTimer(Meter.Id id, T obj, ToLongFunction<T> countFunction,
+                                                 ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit) {
+        return new NoopFunctionTimer(id);
+    }
+
+    @Override
+    protected <T> FunctionCounter newFunctionCounter(Meter.Id id, T obj, ToDoubleFunction<T> countFunction) {
+        return new NoopFunctionCounter(id);
+    }
+
+    @Override
+    protected TimeUnit getBaseTimeUnit() {
+        return TimeUnit.MILLISECONDS;
+    }
+
+    @Override
+    protected DistributionStatisticConfig defaultHistogramConfig() {
+        return DistributionStatisticConfig.NONE;
+    }
+
+    /**
+     * N sketches de fenêtre, rotation à la lecture ou à l'écriture selon le temps écoulé
+     */
+    private final class RollingSketch {
+        private final DDSketch[] windows = new DDSketch[windowCount];
+        private long windowStart = System.nanoTime();
+        private int current;
+
+        RollingSketch() {
+            for (int i = 0; i < windows.length; i++) {
+                windows[i] = new DDSketch(relativeAccuracy, maxBins);
+            }
+        }
+
+        synchronized void record(double millis) {
+            rotate();
+            windows[current].accept(millis);
+        }
+
+        synchronized DDSketch merged() {
+            rotate();
+            DDSketch merged = new DDSketch(relativeAccuracy, maxBins);
+            for (DDSketch window : windows) {
+                merged.merge(window);
+            }
+            return merged;
+        }
+
+        private void rotate() {
+            long elapsed = (System.nanoTime() - windowStart) / windowNanos;
+            if (elapsed <= 0) {
+                return;
+            }
+            for (long i = 0; i < Math.min(elapsed, windows.length); i++) {
+                current = (current + 1) % windows.length;
+                windows[current].clear();
+            }
+            windowStart += elapsed * windowNanos;
+        }
+    }
+
+    /**
+     * Timer qui enregistre dans un sketch partagé ; pas d'histogramme Micrometer (config NONE)
+     */
+    private static final class SketchTimer extends AbstractTimer {
+        private final RollingSketch sketch;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder totalNanos = new DoubleAdder();
+        private final TimeWindowMax max;
+
+        SketchTimer(Meter.Id id, Clock clock, RollingSketch sketch) {
+            super(id, clock, DistributionStatisticConfig.NONE, new NoPauseDetector(), TimeUnit.MILLISECONDS, false);
+            this.sketch = sketch;
+            this.max = new TimeWindowMax(clock, DistributionStatisticConfig.DEFAULT);
+        }
+
+        @Override
+        protected void recordNonNegative(long amount, TimeUnit unit) {
+            long nanos = unit.toNanos(amount);
+            count.increment();
+            totalNanos.add(nanos);
+            max.record(nanos, TimeUnit.NANOSECONDS);
+            sketch.record(nanos / 1_000_000.0);
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+
+        @Override
+        public double totalTime(TimeUnit unit) {
+            return totalNanos.sum() / unit.toNanos(1);
+        }
+
+        @Override
+        public double max(TimeUnit unit) {
+            return max.poll(unit);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cache borné en taille et en durée, éviction W-TinyLFU et chargement single-flight.
+ *
+ * Points clés :
+ * - Window-TinyLFU : les nouvelles entrées arrivent dans une petite fenêtre LRU (1 %) ; quand elle
+ *   déborde, sa plus ancienne entrée n'entre dans la zone principale SLRU que si le sketch de
+ *   fréquence la juge plus populaire que la victime. Les accès uniques et les scans ne vident pas
+ *   les entrées chaudes
+ * - Zone principale : LRU segmentée, probation (20 %) puis protected (80 %) au deuxième accès
+ * - Expiration après écriture : une entrée expirée est un miss, retirée à la lecture ou à l'éviction.
+ *   Sans hook d'invalidation, le TTL borne la durée pendant laquelle une valeur périmée est servie
+ * - Single-flight : les miss concurrents sur une même clé partagent un seul chargement
+ * - invalidate() annule aussi la publication d'un chargement en cours
+ * - Les lectures ne bloquent jamais sur la politique : si son verrou est pris, l'accès n'est pas
+ *   enregistré (ordre approximatif, la lecture reste un get de ConcurrentHashMap)
+ *
+ * Valeurs non null : mettre en cache des Optional pour retenir les absences.
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    // Politique, protégée par policyLock
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final Queue<K, V> window = new Queue<>();
+    private final Queue<K, V> probation = new Queue<>();
+    private final Queue<K, V> protectedQueue = new Queue<>();
+    private final int maximumSize;
+    private final int maxWindow;
+    private final int maxProtected;
+
+    // Statistiques
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadSuccessNanos = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadFailureNanos = new LongAdder();
+
+    public TinyLfuCache(int maximumSize, Duration ttl) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("maximumSize must be >= 2");
+        }
+        this.maximumSize = maximumSize;
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxProtected = (maximumSize - maxWindow) * 4 / 5;
+        this.ttlNanos = ttl.toNanos();
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Valeur en cache, ou null si absente ou expirée (un hit est compté, pas un miss)
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(System.nanoTime())) {
+            if (data.remove(key, node)) {
+                policyLock.lock();
+                try {
+                    unlink(node);
+                } finally {
+                    policyLock.unlock();
+                }
+            }
+            return null;
+        }
+        hits.increment();
+        if (policyLock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Valeur en cache, chargée en cas de miss. Les miss concurrents sur la même clé attendent
+     * le même chargement ; un échec est relancé à tous et n'est pas mis en cache.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        misses.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inProgress = loading.putIfAbsent(key, future);
+        if (inProgress != null) {
+            return join(inProgress);
+        }
+
+        long start = System.nanoTime();
+        try {
+            V loaded = Objects.requireNonNull(loader.apply(key), "cache loader returned null");
+            loadSuccesses.increment();
+            loadSuccessNanos.add(System.nanoTime() - start);
+            // Pas publié si invalidé pendant le chargement
+            if (loading.remove(key, future)) {
+                put(key, loaded);
+            }
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            loadFailureNanos.add(System.nanoTime() - start);
+            loading.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        loading.remove(key);
+        Node<K, V> node = data.remove(key);
+        if (node != null) {
+            policyLock.lock();
+            try {
+                unlink(node);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * Enregistre les statistiques sous les noms de métriques de cache usuels (cache.gets, cache.evictions...)
+     */
+    public TinyLfuCache<K, V> registerMetrics(MeterRegistry registry, String name) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", name, "result", "hit")
+                .description("Lectures du cache ayant trouvé une valeur")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", name, "result", "miss")
+                .description("Lectures du cache ayant dû charger la valeur")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", name)
+                .description("Entrées évincées par taille ou expiration")
+                .register(registry);
+        FunctionTimer.builder("cache.load.duration", this,
+                        c -> c.loadSuccesses.sum(), c -> c.loadSuccessNanos.sum(), TimeUnit.NANOSECONDS)
+                .tags("cache", name, "result", "success")
+                .description("Temps de chargement des valeurs absentes")
+                .register(registry);
+        FunctionTimer.builder("cache.load.duration", this,
+                        c -> c.loadFailures.sum(), c -> c.loadFailureNanos.sum(), TimeUnit.NANOSECONDS)
+                .tags("cache", name, "result", "failure")
+                .description("Temps de chargement des valeurs absentes")
+                .register(registry);
+        Gauge.builder("cache.size", this, TinyLfuCache::size)
+                .tags("cache", name)
+                .description("Nombre d'entrées dans le cache")
+                .register(registry);
+        return this;
+    }
+
+    private void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, System.nanoTime() + ttlNanos);
+        policyLock.lock();
+        try {
+            Node<K, V> previous = data.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            sketch.increment(key);
+            node.queue = WINDOW;
+            window.addLast(node);
+            evictFromWindow();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.removed) {
+            return;
+        }
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                // Deuxième accès : promue, la plus ancienne entrée protected repasse en probation
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                if (protectedQueue.size > maxProtected) {
+                    Node<K, V> demoted = protectedQueue.removeFirst();
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+            default -> protectedQueue.moveToLast(node);
+        }
+    }
+
+    private void evictFromWindow() {
+        while (window.size > maxWindow) {
+            Node<K, V> candidate = window.removeFirst();
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            if (window.size + probation.size + protectedQueue.size > maximumSize) {
+                Node<K, V> victim = probation.first != candidate ? probation.first : protectedQueue.first;
+                // Admission TinyLFU : le candidat doit être plus populaire que la victime (ou elle expirée)
+                if (victim == null || candidate.isExpired(System.nanoTime())
+                        || (!victim.isExpired(System.nanoTime())
+                        && sketch.frequency(candidate.key) <= sketch.frequency(victim.key))) {
+                    evict(candidate);
+                } else {
+                    evict(victim);
+                }
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        if (data.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.removed) {
+            return;
+        }
+        node.removed = true;
+        switch (node.queue) {
+            case WINDOW -> window.remove(node);
+            case PROBATION -> probation.remove(node);
+            default -> protectedQueue.remove(node);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long expiresAtNanos;
+        int queue;
+        boolean removed;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Liste LRU doublement chaînée intrusive : first est le moins récemment utilisé
+     */
+    private static final class Queue<K, V> {
+        Node<K, V> first;
+        Node<K, V> last;
+        int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        Node<K, V> removeFirst() {
+            Node<K, V> node = first;
+            remove(node);
+            return node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
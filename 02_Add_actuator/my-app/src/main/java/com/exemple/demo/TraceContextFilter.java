@@ -0,0 +1,66 @@
+package com.exemple.demo;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Contexte de trace de la requête, utilisé pour les exemplars des histogrammes.
+ *
+ * Ce module n'a pas de tracer : un exemplar ne doit pointer que vers une trace qui existe.
+ * - Si le MDC contient déjà traceId/spanId (agent OpenTelemetry, module 06), ils sont conservés
+ * - Sinon le contexte est repris de l'en-tête W3C "traceparent" de l'appelant : son traceId et
+ *   son span (parent-id), le span client qui a bien été enregistré de son côté
+ * - Sans traceparent, aucun contexte n'est inventé : pas d'exemplar pour la requête
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceContextFilter extends OncePerRequestFilter {
+
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_SPAN_ID = "spanId";
+    public static final String MDC_SAMPLED = "traceSampled";
+
+    private static final String TRACEPARENT = "traceparent";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (MDC.get(MDC_TRACE_ID) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String traceparent = request.getHeader(TRACEPARENT);
+        if (!isValidTraceparent(traceparent)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // 00-<traceId 32 hex>-<parentId 16 hex>-<flags>
+        boolean sampled = (Character.digit(traceparent.charAt(54), 16) & 1) == 1;
+        MDC.put(MDC_TRACE_ID, traceparent.substring(3, 35));
+        MDC.put(MDC_SPAN_ID, traceparent.substring(36, 52));
+        MDC.put(MDC_SAMPLED, sampled ? "1" : "0");
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_TRACE_ID);
+            MDC.remove(MDC_SPAN_ID);
+            MDC.remove(MDC_SAMPLED);
+        }
+    }
+
+    private static boolean isValidTraceparent(String value) {
+        return value != null && value.length() == 55 && value.startsWith("00-")
+                && value.charAt(35) == '-' && value.charAt(52) == '-';
+    }
+}
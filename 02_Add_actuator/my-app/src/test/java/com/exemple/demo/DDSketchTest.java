@@ -0,0 +1,115 @@
+package com.exemple.demo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDSketch : erreur relative des quantiles, fusion exacte et format de /sketches.
+ */
+class DDSketchTest {
+
+    private static final double ALPHA = 0.01;
+    private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1};
+
+    // Latences log-normales en µs entières : sommes exactes quel que soit l'ordre
+    private static double[] latencies(long seed, int n) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.round(Math.exp(10 + 1.5 * random.nextGaussian()));
+        }
+        return values;
+    }
+
+    private static DDSketch sketch(double[]... values) {
+        DDSketch sketch = new DDSketch(ALPHA, 2048);
+        for (double[] part : values) {
+            for (double value : part) {
+                sketch.accept(value);
+            }
+        }
+        return sketch;
+    }
+
+    private static byte[] bytes(DDSketch sketch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    @Test
+    void quantilesAreWithinRelativeAccuracy() {
+        double[] values = latencies(42, 100_000);
+        DDSketch sketch = sketch(values);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (double q : QUANTILES) {
+            // Même rang que DDSketch.quantile : q * (n - 1)
+            double expected = sorted[(int) (q * (sorted.length - 1))];
+            double actual = sketch.quantile(q);
+            assertTrue(Math.abs(actual - expected) <= ALPHA * expected + 1e-12,
+                    "q" + q + " : " + actual + " au lieu de " + expected);
+        }
+        assertEquals(sorted[0], sketch.getMin());
+        assertEquals(sorted[sorted.length - 1], sketch.getMax());
+    }
+
+    @Test
+    void mergeEqualsSketchOfTheUnion() throws IOException {
+        double[] a = latencies(1, 20_000);
+        // Autre instance, plus lente et avec des zéros
+        double[] b = Arrays.stream(latencies(2, 5_000)).map(v -> v < 5000 ? 0 : v * 10).toArray();
+
+        DDSketch merged = sketch(a);
+        merged.merge(sketch(b));
+        DDSketch union = sketch(a, b);
+
+        assertArrayEquals(bytes(union), bytes(merged));
+        for (double q : QUANTILES) {
+            assertEquals(union.quantile(q), merged.quantile(q), "q" + q);
+        }
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new DDSketch(0.02, 2048)));
+    }
+
+    @Test
+    void writeAllReadAllRoundTrip() throws IOException {
+        Map<String, DDSketch> sketches = new LinkedHashMap<>();
+        sketches.put("http.server.requests uri=/user/{id}", sketch(latencies(3, 10_000)));
+        sketches.put("bonjour.response.time", sketch(new double[]{0, 0, 12.5, 80}));
+        sketches.put("vide", new DDSketch(ALPHA, 2048));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DDSketch.writeAll(sketches, new DataOutputStream(out));
+        Map<String, DDSketch> read = DDSketch.readAll(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+        assertEquals(List.copyOf(sketches.keySet()), List.copyOf(read.keySet()));
+        for (Map.Entry<String, DDSketch> entry : sketches.entrySet()) {
+            DDSketch original = entry.getValue();
+            DDSketch copy = read.get(entry.getKey());
+            assertArrayEquals(bytes(original), bytes(copy), entry.getKey());
+            assertEquals(original.getCount(), copy.getCount());
+            assertEquals(original.getSum(), copy.getSum());
+            for (double q : QUANTILES) {
+                assertEquals(original.quantile(q), copy.quantile(q), entry.getKey() + " q" + q);
+            }
+        }
+        assertThrows(IOException.class,
+                () -> DDSketch.readAll(new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}))));
+    }
+}
@@ -0,0 +1,176 @@
+package com.exemple.demo;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SketchAggregator contre des instances embarquées (HttpServer du JDK) qui servent /sketches :
+ * percentiles de la flotte, pairs en échec ou périmés, précision différente.
+ */
+class SketchAggregatorTest {
+
+    private static final String METER = "bonjour.response.time";
+    private static final long PULL_INTERVAL_MS = 100;
+
+    private final List<Instance> instances = new ArrayList<>();
+    private SketchAggregator aggregator;
+
+    /**
+     * Instance de la flotte : snapshot de ses sketches, ou un statut d'erreur
+     */
+    private static final class Instance {
+        final HttpServer server;
+        volatile byte[] body;
+        volatile int status = 200;
+
+        Instance(DDSketch sketch) throws IOException {
+            body = snapshot(sketch);
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/sketches", exchange -> {
+                byte[] response = body;
+                if (status != 200) {
+                    exchange.sendResponseHeaders(status, -1);
+                } else {
+                    exchange.sendResponseHeaders(200, response.length);
+                    exchange.getResponseBody().write(response);
+                }
+                exchange.close();
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+    }
+
+    private static byte[] snapshot(DDSketch sketch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            DDSketch.writeAll(Map.of(METER, sketch), new DataOutputStream(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static DDSketch sketch(double accuracy, int from, int to) {
+        DDSketch sketch = new DDSketch(accuracy, 2048);
+        for (int value = from; value <= to; value++) {
+            sketch.accept(value);
+        }
+        return sketch;
+    }
+
+    private Instance instance(DDSketch sketch) throws IOException {
+        Instance instance = new Instance(sketch);
+        instances.add(instance);
+        return instance;
+    }
+
+    private void startAggregator(String... peers) {
+        aggregator = new SketchAggregator();
+        ReflectionTestUtils.setField(aggregator, "peerUrls", List.of(peers));
+        ReflectionTestUtils.setField(aggregator, "pullIntervalMs", PULL_INTERVAL_MS);
+        ReflectionTestUtils.setField(aggregator, "timeoutMs", 1000L);
+        ReflectionTestUtils.setField(aggregator, "relativeAccuracy", 0.01);
+        ReflectionTestUtils.setField(aggregator, "maxBins", 2048);
+        aggregator.start();
+    }
+
+    @AfterEach
+    void stop() {
+        if (aggregator != null) {
+            aggregator.shutdown();
+        }
+        instances.forEach(instance -> instance.server.stop(0));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private Map<String, Object> peer(String url) {
+        return aggregator.getPeers().stream()
+                .filter(peer -> url.equals(peer.get("url")))
+                .findFirst().orElseThrow();
+    }
+
+    private long fleetCount() {
+        DDSketch fleet = aggregator.fleet().get(METER);
+        return fleet != null ? fleet.getCount() : 0;
+    }
+
+    @Test
+    void fleetPercentileComesFromMergedSketches() throws Exception {
+        // Instance rapide (1..1000 ms) et instance lente (5000..6000 ms, 10 fois moins de requêtes)
+        Instance fast = instance(sketch(0.01, 1, 1000));
+        Instance slow = instance(sketch(0.01, 5000, 5100));
+        startAggregator(fast.url(), slow.url() + "/");
+
+        await(() -> fleetCount() == 1101);
+        DDSketch union = sketch(0.01, 1, 1000);
+        union.merge(sketch(0.01, 5000, 5100));
+        DDSketch fleet = aggregator.fleet().get(METER);
+
+        assertEquals(union.quantile(0.99), fleet.quantile(0.99));
+        // Vrai p99 de l'union : rang 0.99 * 1100 = 1089, soit 5088 ; bien au-delà de la moyenne des p99
+        assertEquals(5088, fleet.quantile(0.99), 5088 * 0.01);
+        assertEquals("up", peer(slow.url()).get("status"));
+    }
+
+    @Test
+    void failingAndStalePeersAreExcluded() throws Exception {
+        Instance a = instance(sketch(0.01, 1, 100));
+        Instance b = instance(sketch(0.01, 101, 300));
+        String down;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            down = "http://localhost:" + socket.getLocalPort();
+        }
+        startAggregator(a.url(), b.url(), down);
+
+        await(() -> fleetCount() == 300 && (Long) peer(down).get("failures") > 0);
+        assertEquals("unknown", peer(down).get("status"));
+
+        // b en erreur : encore compté tant que son snapshot a moins de 3 intervalles, puis exclu
+        b.status = 500;
+        await(() -> "degraded".equals(peer(b.url()).get("status")));
+        await(() -> fleetCount() == 100);
+        assertEquals("stale", peer(b.url()).get("status"));
+        assertEquals("java.io.IOException: HTTP 500", peer(b.url()).get("error"));
+        assertEquals(100, aggregator.fleet().get(METER).getMax());
+    }
+
+    @Test
+    void sketchWithAnotherAccuracyIsRejected() throws Exception {
+        Instance a = instance(sketch(0.01, 1, 100));
+        Instance coarse = instance(sketch(0.05, 1000, 2000));
+        startAggregator(a.url(), coarse.url());
+
+        await(() -> fleetCount() == 100 && peer(coarse.url()).containsKey("error"));
+        assertEquals("unknown", peer(coarse.url()).get("status"));
+        assertTrue(((String) peer(coarse.url()).get("error")).contains("Relative accuracy 0.05"));
+        assertEquals(100, aggregator.fleet().get(METER).getMax());
+    }
+}
@@ -0,0 +1,92 @@
+package com.exemple.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrégations de ColumnarSpanStore sur un volume de spans proche de la rétention par défaut.
+ *
+ * Spans synthétiques sur 20 minutes, comme ceux de /user/{id} : get-user-request, validate-user et
+ * database-query (tags user.id parmi 1000 utilisateurs et query, presque unique : le dictionnaire
+ * des valeurs déborde), plus bonjour-eql-request.
+ *
+ * - countByOperation : nombre et percentiles par opération, tous les spans
+ * - p95ByUser : p95 de database-query par user.id sur les 10 dernières minutes
+ * - errorsWithTag : spans en erreur d'un utilisateur (filtre sur un tag)
+ * - append : ajout d'un span (sur le thread de la requête, via finishTrace)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpanStoreBenchmark {
+
+    private static final String[] OPERATIONS = {"get-user-request", "validate-user", "database-query", "bonjour-eql-request"};
+
+    @Param({"2000000"})
+    public int spans;
+
+    private ColumnarSpanStore store;
+    private long appendCount;
+
+    @Setup
+    public void setUp() {
+        store = new ColumnarSpanStore(spans, 100_000);
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        long window = Duration.ofMinutes(20).toMillis();
+        for (int i = 0; i < spans; i++) {
+            String operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            String user = "user" + random.nextInt(1000);
+            String tags = switch (operation) {
+                case "get-user-request" -> "user.id=" + user;
+                case "validate-user" -> "validation=success";
+                case "database-query" -> "user.id=" + user + ", query=SELECT * FROM users WHERE id=" + user + "-" + i;
+                default -> "result=success";
+            };
+            String status = random.nextInt(100) < 2 ? "ERROR" : "FINISHED";
+            store.append(now - window + window * i / spans, 20 + random.nextInt(200), operation, status, tags);
+        }
+    }
+
+    @Benchmark
+    public SpanQuery.Result countByOperation() {
+        return store.query(new SpanQuery().groupBy(SpanQuery.GROUP_BY_OPERATION));
+    }
+
+    @Benchmark
+    public SpanQuery.Result p95ByUser() {
+        return store.query(new SpanQuery()
+                .operation("database-query")
+                .since(Duration.ofMinutes(10))
+                .groupBy("user.id")
+                .percentiles(95));
+    }
+
+    @Benchmark
+    public SpanQuery.Result errorsWithTag() {
+        return store.query(new SpanQuery().status("ERROR").tag("user.id", "user42"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void append() {
+        store.append(System.currentTimeMillis(), 50, "database-query", "FINISHED",
+                "user.id=user" + (appendCount++ % 1000) + ", query=SELECT * FROM users WHERE id=user42");
+    }
+}
@@ -0,0 +1,89 @@
+package com.exemple.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête du traçage maison (Trace + SimpleTraceCollector).
+ *
+ * - baseline : réponse du contrôleur sans traçage
+ * - newTrace : construction d'une Trace (2 UUID aléatoires, LocalDateTime)
+ * - traceLifecycle : construction, tags, finish() et toString() (la ligne écrite dans traces.log)
+ * - startFinishTrace : startTrace + finishTrace du collecteur (console, fichier traces.log, liste des traces, écouteurs)
+ *
+ * System.out est redirigé vers un flux nul : le formatage des messages console est mesuré, pas le terminal.
+ * traces.log est écrit dans le répertoire courant (run-benchmarks.sh lance les benchmarks dans un répertoire temporaire).
+ * La liste des traces (CopyOnWriteArrayList) est vidée à chaque itération, sinon chaque ajout copie toute la liste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TraceBenchmark {
+
+    private static final String RESPONSE = "Bonjour EQL, Voici Spring!";
+
+    private SimpleTraceCollector traceCollector;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        traceCollector = new SimpleTraceCollector();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTraces() {
+        traceCollector.clearTraces();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public String baseline() {
+        return RESPONSE;
+    }
+
+    @Benchmark
+    public Trace newTrace() {
+        return new Trace("bonjour-eql");
+    }
+
+    @Benchmark
+    public String traceLifecycle() {
+        Trace trace = new Trace("bonjour-eql");
+        trace.addTag("http.method", "GET");
+        trace.addTag("http.url", "/bonjour-eql");
+        trace.finish();
+        return trace.toString();
+    }
+
+    @Benchmark
+    public Trace startFinishTrace() {
+        Trace trace = traceCollector.startTrace("bonjour-eql");
+        trace.addTag("http.method", "GET");
+        trace.addTag("http.url", "/bonjour-eql");
+        traceCollector.finishTrace(trace);
+        return trace;
+    }
+}
@@ -1,21 +1,32 @@
 package com.exemple.demo;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class BonjourEQLController {
 
+    private static final Logger logger = LoggerFactory.getLogger(BonjourEQLController.class);
+
     @Autowired
     private TracingService tracingService;
 
     @Autowired
     private SimpleTraceCollector traceCollector;
 
+    @Autowired
+    private TinyLfuCache<String, String> userCache;
+
+    @Autowired
+    private DataStreamService dataStreamService;
+
     @GetMapping("/bonjour-eql")
     public String direBonjourEQL() {
         return tracingService.trace("bonjour-eql-request", () -> {
@@ -29,34 +40,52 @@ public class BonjourEQLController {
         Trace mainTrace = tracingService.startTrace("get-user-request");
         try {
             mainTrace.addTag("user.id", id);
+            logger.info("Récupération de l'utilisateur {}", id);
             
             // Simulate user validation
-            Trace validationTrace = traceCollector.startChildTrace("validate-user", mainTrace.getTraceId(), mainTrace.getSpanId());
+            Trace validationTrace = tracingService.startChildTrace("validate-user", mainTrace);
             tracingService.simulateWork(20, 50);
             validationTrace.addTag("validation", "success");
-            traceCollector.finishTrace(validationTrace);
+            tracingService.finishTrace(validationTrace);
             
-            // Fake work simulation on database query
-            Trace dbTrace = traceCollector.startChildTrace("database-query", mainTrace.getTraceId(), mainTrace.getSpanId());
+            // Cache devant la base : span database-query seulement en cas de miss
+            String user = userCache.getIfPresent(id);
+            mainTrace.addTag("cache", user != null ? "hit" : "miss");
+            return user != null ? user : userCache.get(id, key -> loadUser(key, mainTrace));
+        } finally {
+            tracingService.finishTrace(mainTrace);
+        }
+    }
+
+    private String loadUser(String id, Trace parent) {
+        // Fake work simulation on database query
+        Trace dbTrace = tracingService.startChildTrace("database-query", parent);
+        try {
             tracingService.simulateWork(30, 100);
+            dbTrace.addTag("user.id", id);
             dbTrace.addTag("query", "SELECT * FROM users WHERE id=" + id);
-            traceCollector.finishTrace(dbTrace);
-            
             return "Utilisateur: " + id;
+        } catch (RuntimeException e) {
+            // Span en erreur : compté sur l'arête get-user-request -> database-query
+            traceCollector.addError(dbTrace, e.getMessage());
+            throw e;
         } finally {
-            tracingService.finishTrace(mainTrace);
+            tracingService.finishTrace(dbTrace);
         }
     }
 
     @PostMapping("/data")
-    public String postData(@RequestBody String data) {
+    public String postData(HttpServletRequest request) throws IOException {
+        // Corps lu en flux, sans String intermédiaire
+        long length = dataStreamService.countChars(request.getInputStream(),
+                request.getContentLengthLong(), request.getCharacterEncoding());
       // Fake work simulation on data processing
         return tracingService.trace("process-data", () -> {
             Trace currentTrace = tracingService.startTrace("data-processing");
             try {
-                currentTrace.addTag("data.size", String.valueOf(data.length()));
+                currentTrace.addTag("data.size", String.valueOf(length));
                 tracingService.simulateWork(30, 150);
-                return "Données traitées: " + data.length() + " caractères";
+                return "Données traitées: " + length + " caractères";
             } finally {
                 tracingService.finishTrace(currentTrace);
             }
@@ -74,6 +103,7 @@ public class BonjourEQLController {
             }
             return "Pas d'erreur cette fois!";
         } catch (Exception e) {
+            logger.error("Erreur simulée: {}", e.getMessage());
             traceCollector.addError(trace, e.getMessage());
             throw e;
         } finally {
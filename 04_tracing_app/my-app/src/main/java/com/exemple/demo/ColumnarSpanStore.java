@@ -0,0 +1,608 @@
+package com.exemple.demo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Stockage en colonnes des spans terminés, pour des agrégations rapides sans getAllTraces().
+ *
+ * Points clés :
+ * - Chunks de taille fixe (4096 spans) : un tableau primitif par champ (début, durée, statut,
+ *   opération) et les tags à plat (clés, valeurs) avec un tableau d'offsets par span
+ * - Opérations, clés et valeurs de tags encodées par dictionnaire (int) : un filtre compare des
+ *   entiers, les chaînes ne sont décodées que pour le résultat. Dictionnaires bornés
+ *   (max-dictionary-size), au-delà les nouvelles valeurs deviennent "(autres)". Une valeur absente
+ *   des dictionnaires ne correspond à aucun span, même dictionnaire plein
+ * - Rétention : max-spans, les chunks les plus anciens sont supprimés. Chaque entrée de dictionnaire
+ *   compte ses références : celles qui ne sont plus utilisées par aucun chunk sont libérées
+ *   (tags à forte cardinalité comme user.id ou une requête SQL par id)
+ * - Requêtes : un chunk est sauté si son intervalle de dates ne recoupe pas le filtre,
+ *   les chunks sont parcourus en parallèle (fork-join) puis les agrégats fusionnés
+ * - Percentiles par histogramme (DurationHistogram), erreur relative inférieure à 6,25 %
+ * - Un seul écrivain à la fois (verrou court, sur le thread de la requête) ; les lectures
+ *   ne prennent pas de verrou, la taille volatile d'un chunk publie ses lignes
+ */
+@Service
+@ConditionalOnProperty(name = "tracing.columnar.enabled", havingValue = "true", matchIfMissing = true)
+public class ColumnarSpanStore implements TraceListener {
+
+    static final int CHUNK_SIZE = 4096;
+
+    private static final String OVERFLOW_LABEL = "(autres)";
+    private static final String MISSING_LABEL = "-";
+    private static final String[] STATUSES = {"FINISHED", "ERROR", "STARTED"};
+
+    // Codes spéciaux des dictionnaires
+    private static final int OVERFLOW = -1;
+    private static final int MISSING = -2;
+
+    private enum GroupMode { NONE, OPERATION, STATUS, TAG }
+
+    @Autowired(required = false)
+    private SimpleTraceCollector traceCollector;
+
+    private final int maxChunks;
+    private final Dictionary operations;
+    private final Dictionary tagKeys;
+    private final Dictionary tagValues;
+
+    // Chunks du plus ancien au plus récent, le dernier reçoit les nouveaux spans
+    private volatile Chunk[] chunks = {new Chunk()};
+
+    public ColumnarSpanStore(@Value("${tracing.columnar.max-spans:2000000}") int maxSpans,
+                             @Value("${tracing.columnar.max-dictionary-size:100000}") int maxDictionarySize) {
+        this.maxChunks = Math.max(1, (maxSpans + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.operations = new Dictionary(maxDictionarySize);
+        this.tagKeys = new Dictionary(maxDictionarySize);
+        this.tagValues = new Dictionary(maxDictionarySize);
+    }
+
+    @PostConstruct
+    void start() {
+        if (traceCollector != null) {
+            traceCollector.addListener(this);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (traceCollector != null) {
+            traceCollector.removeListener(this);
+        }
+    }
+
+    @Override
+    public void onTraceFinished(Trace trace) {
+        long start = trace.getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        append(start, trace.getDurationMs(), trace.getOperationName(), trace.getStatus(), trace.getTags());
+    }
+
+    /**
+     * @param tags au format de Trace : "k1=v1, k2=v2"
+     */
+    public void append(long startEpochMillis, long durationMs, String operation, String status, String tags) {
+        List<String> parsedTags = parseTags(tags);
+        synchronized (this) {
+            Chunk[] current = chunks;
+            Chunk chunk = current[current.length - 1];
+            if (chunk.size == CHUNK_SIZE) {
+                chunk = new Chunk();
+                int kept = Math.min(current.length, maxChunks - 1);
+                for (int i = 0; i < current.length - kept; i++) {
+                    release(current[i]);
+                }
+                Chunk[] next = Arrays.copyOfRange(current, current.length - kept, current.length + 1);
+                next[kept] = chunk;
+                chunks = next;
+            }
+            int row = chunk.size;
+            chunk.start[row] = startEpochMillis;
+            chunk.duration[row] = (int) Math.min(durationMs, Integer.MAX_VALUE);
+            chunk.status[row] = encodeStatus(status);
+            chunk.operation[row] = operations.encode(operation);
+            for (int i = 0; i < parsedTags.size(); i += 2) {
+                chunk.addTag(tagKeys.encode(parsedTags.get(i)), tagValues.encode(parsedTags.get(i + 1)));
+            }
+            chunk.tagOffsets[row + 1] = chunk.tagCount;
+            chunk.minStart = Math.min(chunk.minStart, startEpochMillis);
+            chunk.maxStart = Math.max(chunk.maxStart, startEpochMillis);
+            // Publication de la ligne aux lecteurs
+            chunk.size = row + 1;
+        }
+    }
+
+    /**
+     * Références d'un chunk supprimé rendues aux dictionnaires (sous le verrou de l'écrivain).
+     * Les identifiants libérés par la suppression précédente deviennent réutilisables : une requête
+     * encore en cours sur un ancien instantané des chunks ne décode pas un identifiant réattribué.
+     */
+    private void release(Chunk chunk) {
+        operations.recycle();
+        tagKeys.recycle();
+        tagValues.recycle();
+        for (int row = 0, size = chunk.size; row < size; row++) {
+            operations.release(chunk.operation[row]);
+        }
+        for (int t = 0; t < chunk.tagCount; t++) {
+            tagKeys.release(chunk.tagKeys[t]);
+            tagValues.release(chunk.tagValues[t]);
+        }
+    }
+
+    public SpanQuery.Result query(SpanQuery query) {
+        long begin = System.nanoTime();
+        Chunk[] snapshot = chunks;
+
+        Plan plan = new Plan();
+        plan.from = query.getSince() != null ? System.currentTimeMillis() - query.getSince().toMillis() : Long.MIN_VALUE;
+        if (query.getOperation() != null) {
+            plan.operation = operations.lookup(query.getOperation());
+        }
+        if (query.getStatus() != null) {
+            plan.status = encodeStatus(query.getStatus());
+        }
+        if (query.getTagKey() != null) {
+            plan.tagKey = tagKeys.lookup(query.getTagKey());
+            plan.tagValue = tagValues.lookup(query.getTagValue());
+        }
+        String groupBy = query.getGroupBy();
+        if (groupBy == null || groupBy.isEmpty()) {
+            plan.groupMode = GroupMode.NONE;
+        } else if (SpanQuery.GROUP_BY_OPERATION.equals(groupBy)) {
+            plan.groupMode = GroupMode.OPERATION;
+        } else if (SpanQuery.GROUP_BY_STATUS.equals(groupBy)) {
+            plan.groupMode = GroupMode.STATUS;
+        } else {
+            plan.groupMode = GroupMode.TAG;
+            plan.groupTagKey = tagKeys.lookup(groupBy);
+        }
+
+        // Valeur absente des dictionnaires : aucun span ne peut correspondre
+        Scan scan = plan.operation == MISSING || plan.tagKey == MISSING || plan.tagValue == MISSING
+                ? new Scan()
+                : ForkJoinPool.commonPool().invoke(new ScanTask(snapshot, 0, snapshot.length, plan, leafSize(snapshot.length)));
+
+        List<SpanQuery.Group> groups = new ArrayList<>();
+        long matched = 0;
+        List<Aggregate> aggregates = scan.groups.values();
+        aggregates.sort(Comparator.comparingLong((Aggregate a) -> a.count).reversed());
+        for (Aggregate aggregate : aggregates) {
+            matched += aggregate.count;
+            if (groups.size() < query.getLimit()) {
+                groups.add(aggregate.toGroup(groupLabel(plan.groupMode, aggregate.group), query.getPercentiles()));
+            }
+        }
+        long elapsedMicros = (System.nanoTime() - begin) / 1000;
+        return new SpanQuery.Result(scan.scanned, matched, aggregates.size(), elapsedMicros, groups);
+    }
+
+    public Map<String, Object> getStats() {
+        Chunk[] snapshot = chunks;
+        long spans = 0;
+        for (Chunk chunk : snapshot) {
+            spans += chunk.size;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("spans", spans);
+        stats.put("chunks", snapshot.length);
+        stats.put("maxChunks", maxChunks);
+        stats.put("operations", operations.size());
+        stats.put("tagKeys", tagKeys.size());
+        stats.put("tagValues", tagValues.size());
+        return stats;
+    }
+
+    // Environ 4 tâches par thread du pool, pour équilibrer sans multiplier les agrégats intermédiaires
+    private static int leafSize(int chunkCount) {
+        int tasks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(1, (chunkCount + tasks - 1) / tasks);
+    }
+
+    private String groupLabel(GroupMode mode, int id) {
+        return switch (mode) {
+            case NONE -> "*";
+            case OPERATION -> operations.decode(id);
+            case STATUS -> id >= 0 ? STATUSES[id] : MISSING_LABEL;
+            case TAG -> tagValues.decode(id);
+        };
+    }
+
+    private static byte encodeStatus(String status) {
+        for (byte i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return i;
+            }
+        }
+        return (byte) MISSING;
+    }
+
+    /**
+     * "k1=v1, k2=v2" -> [k1, v1, k2, v2]. Un morceau sans '=' appartient à la valeur précédente
+     * (une valeur peut contenir ", ").
+     */
+    static List<String> parseTags(String tags) {
+        List<String> parsed = new ArrayList<>();
+        if (tags == null || tags.isEmpty()) {
+            return parsed;
+        }
+        int from = 0;
+        while (from <= tags.length()) {
+            int end = tags.indexOf(", ", from);
+            if (end < 0) {
+                end = tags.length();
+            }
+            String part = tags.substring(from, end);
+            from = end + 2;
+            int separator = part.indexOf('=');
+            if (separator > 0) {
+                parsed.add(part.substring(0, separator));
+                parsed.add(part.substring(separator + 1));
+            } else if (!parsed.isEmpty()) {
+                int last = parsed.size() - 1;
+                parsed.set(last, parsed.get(last) + ", " + part);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Spans d'un chunk en colonnes. Remplies par un seul écrivain, size publiée en dernier.
+     */
+    private static final class Chunk {
+        final long[] start = new long[CHUNK_SIZE];
+        final int[] duration = new int[CHUNK_SIZE];
+        final byte[] status = new byte[CHUNK_SIZE];
+        final int[] operation = new int[CHUNK_SIZE];
+        // Tags du span i : indices tagOffsets[i] à tagOffsets[i + 1] de tagKeys / tagValues
+        final int[] tagOffsets = new int[CHUNK_SIZE + 1];
+        int[] tagKeys = new int[CHUNK_SIZE];
+        int[] tagValues = new int[CHUNK_SIZE];
+        int tagCount;
+        long minStart = Long.MAX_VALUE;
+        long maxStart = Long.MIN_VALUE;
+        volatile int size;
+
+        void addTag(int key, int value) {
+            if (tagCount == tagKeys.length) {
+                tagKeys = Arrays.copyOf(tagKeys, tagCount * 2);
+                tagValues = Arrays.copyOf(tagValues, tagCount * 2);
+            }
+            tagKeys[tagCount] = key;
+            tagValues[tagCount] = value;
+            tagCount++;
+        }
+
+        int tagValue(int row, int key) {
+            for (int t = tagOffsets[row], end = tagOffsets[row + 1]; t < end; t++) {
+                if (tagKeys[t] == key) {
+                    return tagValues[t];
+                }
+            }
+            return MISSING;
+        }
+    }
+
+    /**
+     * Chaîne <-> entier. encode(), release() et recycle() sont appelés sous le verrou de l'écrivain,
+     * lookup() et decode() sans verrou.
+     *
+     * Un compteur de références par identifiant (une par ligne ou tag qui l'utilise) : à zéro,
+     * la valeur quitte le dictionnaire et son identifiant est mis en quarantaine jusqu'au prochain
+     * recycle(), puis réutilisé.
+     */
+    private static final class Dictionary {
+        private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private final int maxSize;
+        private volatile String[] values = new String[64];
+        private int[] references = new int[64];
+        // Identifiants jamais attribués au-delà de next
+        private int next;
+        private final IntStack free = new IntStack();
+        private final IntStack quarantined = new IntStack();
+
+        Dictionary(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        int encode(String value) {
+            Integer existing = ids.get(value);
+            if (existing != null) {
+                references[existing]++;
+                return existing;
+            }
+            int id;
+            if (!free.isEmpty()) {
+                id = free.pop();
+            } else if (next == maxSize) {
+                return OVERFLOW;
+            } else {
+                id = next++;
+            }
+            String[] current = values;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, id * 2);
+                references = Arrays.copyOf(references, id * 2);
+            }
+            current[id] = value;
+            values = current;
+            references[id] = 1;
+            ids.put(value, id);
+            return id;
+        }
+
+        void release(int id) {
+            if (id >= 0 && --references[id] == 0) {
+                ids.remove(values[id], id);
+                quarantined.push(id);
+            }
+        }
+
+        void recycle() {
+            String[] current = values;
+            while (!quarantined.isEmpty()) {
+                int id = quarantined.pop();
+                current[id] = null;
+                free.push(id);
+            }
+        }
+
+        int lookup(String value) {
+            if (value == null) {
+                return MISSING;
+            }
+            Integer id = ids.get(value);
+            // Valeur inconnue ou tombée dans "(autres)" : aucune correspondance
+            return id != null ? id : MISSING;
+        }
+
+        String decode(int id) {
+            if (id == OVERFLOW) {
+                return OVERFLOW_LABEL;
+            }
+            if (id == MISSING) {
+                return MISSING_LABEL;
+            }
+            return values[id];
+        }
+
+        int size() {
+            return ids.size();
+        }
+    }
+
+    /**
+     * Pile d'entiers sans boxing
+     */
+    private static final class IntStack {
+        private int[] items = new int[16];
+        private int size;
+
+        void push(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int pop() {
+            return items[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * Requête traduite en codes de dictionnaire
+     */
+    private static final class Plan {
+        long from;
+        int operation = Integer.MIN_VALUE;
+        int status = Integer.MIN_VALUE;
+        int tagKey = Integer.MIN_VALUE;
+        int tagValue;
+        GroupMode groupMode;
+        int groupTagKey;
+    }
+
+    private static final class Aggregate {
+        final int group;
+        long count;
+        long sum;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        final DurationHistogram histogram = new DurationHistogram();
+
+        Aggregate(int group) {
+            this.group = group;
+        }
+
+        void add(int durationMs) {
+            count++;
+            sum += durationMs;
+            min = Math.min(min, durationMs);
+            max = Math.max(max, durationMs);
+            histogram.record(durationMs);
+        }
+
+        void merge(Aggregate other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            histogram.merge(other.histogram);
+        }
+
+        SpanQuery.Group toGroup(String key, double[] percentiles) {
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (double percentile : percentiles) {
+                String name = "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+                // Milieu d'intervalle ramené dans [min, max]
+                values.put(name, Math.max(min, Math.min(max, histogram.valueAt(percentile, count))));
+            }
+            return new SpanQuery.Group(key, count, sum, min, max, values);
+        }
+    }
+
+    /**
+     * Agrégats par groupe d'une partie des chunks
+     */
+    private static final class Scan {
+        final GroupTable groups = new GroupTable();
+        long scanned;
+
+        void merge(Scan other) {
+            scanned += other.scanned;
+            for (Aggregate aggregate : other.groups.values()) {
+                groups.get(aggregate.group).merge(aggregate);
+            }
+        }
+    }
+
+    /**
+     * Table de hachage int -> Aggregate à adressage ouvert : pas de boxing par span parcouru
+     */
+    private static final class GroupTable {
+        private int[] keys = new int[16];
+        private Aggregate[] aggregates = new Aggregate[16];
+        private int size;
+
+        Aggregate get(int group) {
+            int mask = keys.length - 1;
+            int slot = mix(group) & mask;
+            while (aggregates[slot] != null) {
+                if (keys[slot] == group) {
+                    return aggregates[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            Aggregate aggregate = new Aggregate(group);
+            keys[slot] = group;
+            aggregates[slot] = aggregate;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return aggregate;
+        }
+
+        List<Aggregate> values() {
+            List<Aggregate> values = new ArrayList<>(size);
+            for (Aggregate aggregate : aggregates) {
+                if (aggregate != null) {
+                    values.add(aggregate);
+                }
+            }
+            return values;
+        }
+
+        private void resize() {
+            Aggregate[] old = aggregates;
+            keys = new int[old.length * 2];
+            aggregates = new Aggregate[old.length * 2];
+            int mask = keys.length - 1;
+            for (Aggregate aggregate : old) {
+                if (aggregate != null) {
+                    int slot = mix(aggregate.group) & mask;
+                    while (aggregates[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = aggregate.group;
+                    aggregates[slot] = aggregate;
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Scan> {
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+        private final Plan plan;
+        private final int leafSize;
+
+        ScanTask(Chunk[] chunks, int from, int to, Plan plan, int leafSize) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.plan = plan;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Scan compute() {
+            if (to - from <= leafSize) {
+                Scan scan = new Scan();
+                for (int i = from; i < to; i++) {
+                    scanChunk(chunks[i], scan);
+                }
+                return scan;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(chunks, from, middle, plan, leafSize);
+            left.fork();
+            Scan right = new ScanTask(chunks, middle, to, plan, leafSize).compute();
+            Scan result = left.join();
+            result.merge(right);
+            return result;
+        }
+
+        private void scanChunk(Chunk chunk, Scan scan) {
+            // Lecture de size d'abord : les lignes en dessous sont complètes
+            int size = chunk.size;
+            if (size == 0 || chunk.maxStart < plan.from) {
+                return;
+            }
+            scan.scanned += size;
+            long[] start = chunk.start;
+            int[] duration = chunk.duration;
+            byte[] status = chunk.status;
+            int[] operation = chunk.operation;
+            boolean filterOperation = plan.operation != Integer.MIN_VALUE;
+            boolean filterStatus = plan.status != Integer.MIN_VALUE;
+            boolean filterTag = plan.tagKey != Integer.MIN_VALUE;
+
+            int lastGroup = Integer.MIN_VALUE;
+            Aggregate lastAggregate = null;
+            for (int row = 0; row < size; row++) {
+                if (start[row] < plan.from
+                        || (filterOperation && operation[row] != plan.operation)
+                        || (filterStatus && status[row] != plan.status)
+                        || (filterTag && chunk.tagValue(row, plan.tagKey) != plan.tagValue)) {
+                    continue;
+                }
+                int group = switch (plan.groupMode) {
+                    case NONE -> 0;
+                    case OPERATION -> operation[row];
+                    case STATUS -> status[row];
+                    case TAG -> chunk.tagValue(row, plan.groupTagKey);
+                };
+                if (group != lastGroup || lastAggregate == null) {
+                    lastAggregate = scan.groups.get(group);
+                    lastGroup = group;
+                }
+                lastAggregate.add(duration[row]);
+            }
+        }
+    }
+}
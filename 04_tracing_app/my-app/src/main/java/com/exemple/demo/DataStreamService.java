@@ -0,0 +1,146 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lecture en flux du corps de POST /data : mémoire constante quelle que soit la taille du payload.
+ *
+ * - Octets lus par blocs dans un tampon réutilisé par thread worker, décodés au fil de l'eau dans
+ *   un CharBuffer réutilisé : les caractères sont comptés sans jamais construire la String du corps
+ * - Rejet en 413 dès l'en-tête Content-Length s'il dépasse demo.data.max-size, sinon dès que le flux
+ *   le dépasse (corps chunked)
+ * - Métriques : data.payload.size (octets), data.throughput (octets/s pendant la lecture),
+ *   data.rejected
+ *
+ * Tampons sur le tas et pas directs : l'InputStream du servlet ne lit que dans un byte[],
+ * un tampon direct ajouterait une copie.
+ */
+@Service
+public class DataStreamService {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int BUFFER_CHARS = 16 * 1024;
+
+    private static final class Buffers {
+        final byte[] bytes = new byte[BUFFER_BYTES];
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        final CharBuffer charBuffer = CharBuffer.allocate(BUFFER_CHARS);
+        final CharsetDecoder utf8 = newDecoder(StandardCharsets.UTF_8);
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final long maxBytes;
+    private final DistributionSummary payloadSize;
+    private final DistributionSummary throughput;
+    private final Counter rejected;
+
+    public DataStreamService(MeterRegistry meterRegistry,
+                             @Value("${demo.data.max-size:10MB}") DataSize maxSize) {
+        this.maxBytes = maxSize.toBytes();
+        this.payloadSize = DistributionSummary.builder("data.payload.size")
+                .description("Taille des corps reçus sur /data")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .maximumExpectedValue((double) maxBytes)
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("data.throughput")
+                .description("Débit de lecture des corps reçus sur /data")
+                .baseUnit("bytes.per.second")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("data.rejected")
+                .description("Corps refusés en 413, au-delà de demo.data.max-size")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return le nombre de caractères du corps, décodé avec le charset de la requête (UTF-8 par défaut)
+     */
+    public long countChars(InputStream body, long contentLength, String encoding) throws IOException {
+        if (contentLength > maxBytes) {
+            throw tooLarge(contentLength);
+        }
+
+        Buffers buffers = BUFFERS.get();
+        ByteBuffer in = buffers.byteBuffer;
+        CharBuffer out = buffers.charBuffer;
+        CharsetDecoder decoder = encoding == null || StandardCharsets.UTF_8.name().equalsIgnoreCase(encoding)
+                ? buffers.utf8 : newDecoder(Charset.forName(encoding));
+        decoder.reset();
+        in.clear();
+
+        long start = System.nanoTime();
+        long bytes = 0;
+        long chars = 0;
+        int read;
+        while ((read = body.read(buffers.bytes, in.position(), in.remaining())) != -1) {
+            bytes += read;
+            if (bytes > maxBytes) {
+                throw tooLarge(bytes);
+            }
+            in.position(in.position() + read);
+            in.flip();
+            chars += decode(decoder, in, out, false);
+            // Octets d'un caractère incomplet gardés en tête du tampon pour la lecture suivante
+            in.compact();
+        }
+        in.flip();
+        chars += decode(decoder, in, out, true);
+        out.clear();
+        while (decoder.flush(out) == CoderResult.OVERFLOW) {
+            chars += out.position();
+            out.clear();
+        }
+        chars += out.position();
+        out.clear();
+
+        long elapsed = System.nanoTime() - start;
+        payloadSize.record(bytes);
+        if (bytes > 0 && elapsed > 0) {
+            throughput.record(bytes * 1_000_000_000d / elapsed);
+        }
+        return chars;
+    }
+
+    private static long decode(CharsetDecoder decoder, ByteBuffer in, CharBuffer out, boolean endOfInput) {
+        long chars = 0;
+        CoderResult result;
+        do {
+            out.clear();
+            result = decoder.decode(in, out, endOfInput);
+            chars += out.position();
+        } while (result.isOverflow());
+        return chars;
+    }
+
+    private ResponseStatusException tooLarge(long bytes) {
+        rejected.increment();
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Corps de " + (bytes > maxBytes ? "plus de " : "") + maxBytes + " octets maximum");
+    }
+
+    // Mêmes remplacements que new String(bytes, charset) pour les séquences invalides
+    private static CharsetDecoder newDecoder(Charset charset) {
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+}
@@ -0,0 +1,65 @@
+package com.exemple.demo;
+
+/**
+ * Histogramme log-linéaire de durées en millisecondes, de taille fixe (264 compteurs).
+ *
+ * Exact jusqu'à 64 ms, puis 8 intervalles par puissance de 2 : un percentile est rendu au milieu
+ * de son intervalle, soit une erreur relative inférieure à 6,25 %. Deux histogrammes s'additionnent
+ * compteur par compteur, ce qui permet de les calculer en parallèle puis de les fusionner.
+ */
+final class DurationHistogram {
+
+    private static final int LINEAR_BITS = 6;
+    private static final int LINEAR = 1 << LINEAR_BITS;
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int SIZE = LINEAR + (Integer.SIZE - 1 - LINEAR_BITS) * SUB;
+
+    private final long[] counts = new long[SIZE];
+
+    void record(int durationMs) {
+        counts[index(Math.max(durationMs, 0))]++;
+    }
+
+    void merge(DurationHistogram other) {
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * @param percentile entre 0 et 100
+     * @param total nombre de valeurs enregistrées
+     */
+    long valueAt(double percentile, long total) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < SIZE; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < LINEAR ? i : lowerBound(i) + width(i) / 2;
+            }
+        }
+        return 0;
+    }
+
+    private static int index(int value) {
+        if (value < LINEAR) {
+            return value;
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int sub = (value >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return LINEAR + (exponent - LINEAR_BITS) * SUB + sub;
+    }
+
+    private static long lowerBound(int index) {
+        int exponent = (index - LINEAR) / SUB + LINEAR_BITS;
+        int sub = (index - LINEAR) % SUB;
+        return (long) (SUB + sub) << (exponent - SUB_BITS);
+    }
+
+    private static long width(int index) {
+        int exponent = (index - LINEAR) / SUB + LINEAR_BITS;
+        return 1L << (exponent - SUB_BITS);
+    }
+}
@@ -0,0 +1,162 @@
+package com.exemple.demo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversion des Trace en ExportTraceServiceRequest OTLP (protobuf).
+ *
+ * Correspondances :
+ * - traceId / spanId (hex courts) complétés à gauche par des zéros sur 16 / 8 octets
+ * - parentSpanId -> parent_span_id, tags "k=v, k=v" -> attributs du span
+ * - status ERROR -> Status.code ERROR avec le message d'erreur, sinon UNSET (OK est réservé
+ *   à une décision explicite de l'application)
+ * - événements du span (logs attachés) -> Span.Event
+ */
+public final class OtlpTraceEncoder {
+
+    // Champs protobuf de opentelemetry/proto/trace/v1/trace.proto
+    private static final int REQUEST_RESOURCE_SPANS = 1;
+    private static final int RESOURCE_SPANS_RESOURCE = 1;
+    private static final int RESOURCE_SPANS_SCOPE_SPANS = 2;
+    private static final int RESOURCE_ATTRIBUTES = 1;
+    private static final int SCOPE_SPANS_SCOPE = 1;
+    private static final int SCOPE_SPANS_SPANS = 2;
+    private static final int SCOPE_NAME = 1;
+    private static final int SCOPE_VERSION = 2;
+    private static final int SPAN_TRACE_ID = 1;
+    private static final int SPAN_SPAN_ID = 2;
+    private static final int SPAN_PARENT_SPAN_ID = 4;
+    private static final int SPAN_NAME = 5;
+    private static final int SPAN_KIND = 6;
+    private static final int SPAN_START_TIME = 7;
+    private static final int SPAN_END_TIME = 8;
+    private static final int SPAN_ATTRIBUTES = 9;
+    private static final int SPAN_EVENTS = 11;
+    private static final int SPAN_STATUS = 15;
+    private static final int EVENT_TIME = 1;
+    private static final int EVENT_NAME = 2;
+    private static final int EVENT_ATTRIBUTES = 3;
+    private static final int STATUS_MESSAGE = 2;
+    private static final int STATUS_CODE = 3;
+    private static final int KEY_VALUE_KEY = 1;
+    private static final int KEY_VALUE_VALUE = 2;
+    private static final int ANY_VALUE_STRING = 1;
+
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int STATUS_CODE_UNSET = 0;
+    private static final int STATUS_CODE_ERROR = 2;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private OtlpTraceEncoder() {
+    }
+
+    public static byte[] encode(List<Trace> traces, Map<String, String> resourceAttributes) {
+        ProtobufWriter resource = new ProtobufWriter();
+        resourceAttributes.forEach((key, value) -> resource.writeMessage(RESOURCE_ATTRIBUTES, keyValue(key, value)));
+
+        ProtobufWriter scope = new ProtobufWriter(64)
+                .writeString(SCOPE_NAME, "com.exemple.demo.SimpleTraceCollector")
+                .writeString(SCOPE_VERSION, "1.0.0");
+
+        ProtobufWriter scopeSpans = new ProtobufWriter(traces.size() * 128);
+        scopeSpans.writeMessage(SCOPE_SPANS_SCOPE, scope);
+        for (Trace trace : traces) {
+            scopeSpans.writeMessage(SCOPE_SPANS_SPANS, span(trace));
+        }
+
+        ProtobufWriter resourceSpans = new ProtobufWriter(scopeSpans.size() + resource.size() + 16)
+                .writeMessage(RESOURCE_SPANS_RESOURCE, resource)
+                .writeMessage(RESOURCE_SPANS_SCOPE_SPANS, scopeSpans);
+
+        return new ProtobufWriter(resourceSpans.size() + 8)
+                .writeMessage(REQUEST_RESOURCE_SPANS, resourceSpans)
+                .toByteArray();
+    }
+
+    private static ProtobufWriter span(Trace trace) {
+        ProtobufWriter span = new ProtobufWriter()
+                .writeBytes(SPAN_TRACE_ID, hexToBytes(trace.getTraceId(), 16))
+                .writeBytes(SPAN_SPAN_ID, hexToBytes(trace.getSpanId(), 8));
+        if (trace.getParentSpanId() != null) {
+            span.writeBytes(SPAN_PARENT_SPAN_ID, hexToBytes(trace.getParentSpanId(), 8));
+        }
+        span.writeString(SPAN_NAME, trace.getOperationName())
+                .writeEnum(SPAN_KIND, trace.getParentSpanId() == null ? SPAN_KIND_SERVER : SPAN_KIND_INTERNAL)
+                .writeFixed64(SPAN_START_TIME, toEpochNanos(trace.getStartTime()))
+                .writeFixed64(SPAN_END_TIME, toEpochNanos(trace.getEndTime() != null ? trace.getEndTime() : trace.getStartTime()));
+
+        String error = null;
+        String tags = trace.getTags();
+        if (tags != null && !tags.isEmpty()) {
+            for (String tag : tags.split(", ")) {
+                int separator = tag.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String key = tag.substring(0, separator);
+                String value = tag.substring(separator + 1);
+                if ("error".equals(key)) {
+                    error = value;
+                }
+                span.writeMessage(SPAN_ATTRIBUTES, keyValue(key, value));
+            }
+        }
+
+        for (SpanEvent event : trace.getEvents()) {
+            ProtobufWriter otlpEvent = new ProtobufWriter()
+                    .writeFixed64(EVENT_TIME, toEpochNanos(event.getTimestamp()))
+                    .writeString(EVENT_NAME, "log")
+                    .writeMessage(EVENT_ATTRIBUTES, keyValue("log.severity", event.getLevel()))
+                    .writeMessage(EVENT_ATTRIBUTES, keyValue("log.logger", event.getLogger()))
+                    .writeMessage(EVENT_ATTRIBUTES, keyValue("log.message", event.getMessage()));
+            span.writeMessage(SPAN_EVENTS, otlpEvent);
+        }
+
+        ProtobufWriter status = new ProtobufWriter(32);
+        if ("ERROR".equals(trace.getStatus())) {
+            status.writeString(STATUS_MESSAGE, error).writeEnum(STATUS_CODE, STATUS_CODE_ERROR);
+        } else {
+            status.writeEnum(STATUS_CODE, STATUS_CODE_UNSET);
+        }
+        return span.writeMessage(SPAN_STATUS, status);
+    }
+
+    private static ProtobufWriter keyValue(String key, String value) {
+        ProtobufWriter anyValue = new ProtobufWriter(value != null ? value.length() + 4 : 4)
+                .writeString(ANY_VALUE_STRING, value);
+        return new ProtobufWriter(key.length() + anyValue.size() + 8)
+                .writeString(KEY_VALUE_KEY, key)
+                .writeMessage(KEY_VALUE_VALUE, anyValue);
+    }
+
+    private static long toEpochNanos(LocalDateTime time) {
+        Instant instant = time.atZone(ZONE).toInstant();
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    /**
+     * Identifiant hexadécimal complété à gauche par des zéros (caractère invalide -> 0)
+     */
+    static byte[] hexToBytes(String hex, int length) {
+        byte[] bytes = new byte[length];
+        int byteIndex = length - 1;
+        boolean low = true;
+        for (int i = hex.length() - 1; i >= 0 && byteIndex >= 0; i--) {
+            int digit = Math.max(0, Character.digit(hex.charAt(i), 16));
+            if (low) {
+                bytes[byteIndex] = (byte) digit;
+            } else {
+                bytes[byteIndex] |= (byte) (digit << 4);
+                byteIndex--;
+            }
+            low = !low;
+        }
+        return bytes;
+    }
+}
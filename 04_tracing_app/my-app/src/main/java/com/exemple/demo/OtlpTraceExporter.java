@@ -0,0 +1,249 @@
+package com.exemple.demo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export des spans de SimpleTraceCollector en OTLP/HTTP protobuf (ex: vers l'otel-collector du module 06, port 4318).
+ *
+ * Points clés :
+ * - Batch par taille (max-batch-size) ou par temps (schedule-delay-ms)
+ * - Payload compressé en gzip
+ * - Retry avec backoff exponentiel et jitter sur erreurs réseau / 429 / 502 / 503 / 504
+ * - Buffer mémoire borné (max-queue-size) : au-delà, les spans sont abandonnés et comptés,
+ *   finishTrace n'est jamais bloqué par l'export
+ */
+@Service
+@ConditionalOnProperty(name = "tracing.otlp.enabled", havingValue = "true")
+public class OtlpTraceExporter implements TraceListener {
+
+    @Autowired
+    private SimpleTraceCollector traceCollector;
+
+    @Value("${tracing.otlp.endpoint:http://localhost:4318/v1/traces}")
+    private String endpoint;
+
+    @Value("${tracing.otlp.service-name:spring-demo-tracing}")
+    private String serviceName;
+
+    @Value("${tracing.otlp.max-queue-size:2048}")
+    private int maxQueueSize;
+
+    @Value("${tracing.otlp.max-batch-size:512}")
+    private int maxBatchSize;
+
+    @Value("${tracing.otlp.schedule-delay-ms:5000}")
+    private long scheduleDelayMs;
+
+    @Value("${tracing.otlp.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${tracing.otlp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${tracing.otlp.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${tracing.otlp.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    private BlockingQueue<Trace> queue;
+    private URI endpointUri;
+    private HttpClient httpClient;
+    private Thread worker;
+    private volatile boolean running;
+    private Map<String, String> resourceAttributes;
+
+    private final AtomicLong exportedSpans = new AtomicLong();
+    private final AtomicLong droppedSpans = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    /**
+     * @throws IllegalArgumentException si tracing.otlp.endpoint n'est pas une URL http(s) valide
+     */
+    @PostConstruct
+    void start() {
+        endpointUri = parseEndpoint(endpoint);
+        queue = new ArrayBlockingQueue<>(maxQueueSize);
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        resourceAttributes = new LinkedHashMap<>();
+        resourceAttributes.put("service.name", serviceName);
+        resourceAttributes.put("service.version", "1.0.0");
+        resourceAttributes.put("telemetry.sdk.name", "simple-trace-collector");
+
+        running = true;
+        worker = new Thread(this::exportLoop, "otlp-trace-exporter");
+        worker.setDaemon(true);
+        worker.start();
+        traceCollector.addListener(this);
+    }
+
+    @Override
+    public void onTraceFinished(Trace trace) {
+        // Jamais bloquant : si le buffer est plein, le span est abandonné
+        if (!queue.offer(trace)) {
+            droppedSpans.incrementAndGet();
+        }
+    }
+
+    private void exportLoop() {
+        List<Trace> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+                if (!batch.isEmpty()) {
+                    exportWithRetry(batch, running ? maxAttempts : 1);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Un batch en échec ne doit pas arrêter le seul thread d'export
+                failBatch(batch, e.getClass().getSimpleName() + ": " + e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Attend le premier span puis complète le batch jusqu'à max-batch-size ou schedule-delay-ms
+     */
+    private void collectBatch(List<Trace> batch) throws InterruptedException {
+        Trace first = queue.poll(scheduleDelayMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(scheduleDelayMs);
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                return;
+            }
+            Trace next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void exportWithRetry(List<Trace> batch, int attempts) throws InterruptedException {
+        byte[] payload;
+        try {
+            payload = gzip(OtlpTraceEncoder.encode(batch, resourceAttributes));
+        } catch (IOException e) {
+            failBatch(batch, "encodage: " + e.getMessage());
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(endpointUri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/x-protobuf")
+                .header("Content-Encoding", "gzip")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+
+        long backoffMs = initialBackoffMs;
+        String lastError = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                int status = response.statusCode();
+                if (status >= 200 && status < 300) {
+                    exportedSpans.addAndGet(batch.size());
+                    return;
+                }
+                lastError = "HTTP " + status;
+                if (!isRetryable(status)) {
+                    break;
+                }
+            } catch (IOException e) {
+                lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+            if (attempt < attempts) {
+                // Backoff exponentiel avec "full jitter"
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs + 1));
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+        failBatch(batch, lastError);
+    }
+
+    private static URI parseEndpoint(String endpoint) {
+        URI uri;
+        try {
+            uri = URI.create(endpoint);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid tracing.otlp.endpoint: " + endpoint, e);
+        }
+        if (!("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) || uri.getHost() == null) {
+            throw new IllegalArgumentException("tracing.otlp.endpoint must be an http(s) URL: " + endpoint);
+        }
+        return uri;
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    private void failBatch(List<Trace> batch, String error) {
+        failedBatches.incrementAndGet();
+        droppedSpans.addAndGet(batch.size());
+        System.err.println("Export OTLP abandonné (" + batch.size() + " spans): " + error);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("endpoint", endpoint);
+        stats.put("queued", queue.size());
+        stats.put("exportedSpans", exportedSpans.get());
+        stats.put("droppedSpans", droppedSpans.get());
+        stats.put("failedBatches", failedBatches.get());
+        return stats;
+    }
+
+    /**
+     * Vide le buffer (une seule tentative par batch) avant l'arrêt
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        traceCollector.removeListener(this);
+        running = false;
+        worker.join(timeoutMs * 2);
+    }
+}
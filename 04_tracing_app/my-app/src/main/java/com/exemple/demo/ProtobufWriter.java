@@ -0,0 +1,103 @@
+package com.exemple.demo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodeur protobuf minimal (wire format) pour produire des messages OTLP
+ * sans dépendre de protobuf-java ni des classes générées opentelemetry-proto.
+ */
+public class ProtobufWriter {
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    public ProtobufWriter() {
+        this(256);
+    }
+
+    public ProtobufWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public ProtobufWriter writeString(int field, String value) {
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        return writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ProtobufWriter writeBytes(int field, byte[] value) {
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        writeVarint(value.length);
+        writeRaw(value, 0, value.length);
+        return this;
+    }
+
+    public ProtobufWriter writeMessage(int field, ProtobufWriter message) {
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        writeVarint(message.size);
+        writeRaw(message.buffer, 0, message.size);
+        return this;
+    }
+
+    public ProtobufWriter writeEnum(int field, int value) {
+        if (value != 0) {
+            writeTag(field, WIRE_VARINT);
+            writeVarint(value);
+        }
+        return this;
+    }
+
+    public ProtobufWriter writeInt64(int field, long value) {
+        writeTag(field, WIRE_VARINT);
+        writeVarint(value);
+        return this;
+    }
+
+    public ProtobufWriter writeFixed64(int field, long value) {
+        writeTag(field, WIRE_FIXED64);
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (value >>> (8 * i));
+        }
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -10,9 +10,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Collecteur de traces simple qui stocke les traces en mémoire et les écrit dans un fichier
+ *
+ * Sous pression, TelemetryGovernor abaisse le niveau de télémétrie : traces racines échantillonnées
+ * (les enfants suivent la décision de leur parent), logs console et écriture du fichier suspendus.
  */
 @Service
 public class SimpleTraceCollector {
@@ -20,14 +25,53 @@ public class SimpleTraceCollector {
     private final List<Trace> traces = new CopyOnWriteArrayList<>();
     private final ConcurrentHashMap<String, Trace> activeTraces = new ConcurrentHashMap<>();
     private final String traceFile = "traces.log";
+    private final List<TraceListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile TelemetryLevel telemetryLevel = TelemetryLevel.NORMAL;
+    private volatile double sampleRate = 1.0;
+    private final AtomicLong unsampledTraces = new AtomicLong();
+    private final AtomicLong skippedFileWrites = new AtomicLong();
+
+    /**
+     * @param sampleRate part des traces racines gardées, entre 0 et 1
+     */
+    public void applyTelemetryLevel(TelemetryLevel level, double sampleRate) {
+        this.telemetryLevel = level;
+        this.sampleRate = sampleRate;
+    }
+
+    public void addListener(TraceListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TraceListener listener) {
+        listeners.remove(listener);
+    }
 
     public Trace startTrace(String operationName) {
         Trace trace = new Trace(operationName);
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            trace.setSampled(false);
+            unsampledTraces.incrementAndGet();
+            return trace;
+        }
         activeTraces.put(trace.getSpanId(), trace);
         logToConsole("🟢 TRACE STARTED: " + trace.getOperationName() + " [" + trace.getTraceId() + ":" + trace.getSpanId() + "]");
         return trace;
     }
 
+    /**
+     * Enfant d'une trace non échantillonnée : non échantillonné non plus
+     */
+    public Trace startChildTrace(String operationName, Trace parent) {
+        if (!parent.isSampled()) {
+            Trace trace = new Trace(operationName, parent.getTraceId(), parent.getSpanId());
+            trace.setSampled(false);
+            return trace;
+        }
+        return startChildTrace(operationName, parent.getTraceId(), parent.getSpanId());
+    }
+
     public Trace startChildTrace(String operationName, String parentTraceId, String parentSpanId) {
         Trace trace = new Trace(operationName, parentTraceId, parentSpanId);
         activeTraces.put(trace.getSpanId(), trace);
@@ -37,6 +81,9 @@ public class SimpleTraceCollector {
 
     public void finishTrace(Trace trace) {
         trace.finish();
+        if (!trace.isSampled()) {
+            return;
+        }
         activeTraces.remove(trace.getSpanId());
         traces.add(trace);
         
@@ -51,10 +98,21 @@ public class SimpleTraceCollector {
         
         // Écrire dans le fichier
         writeToFile(trace);
+
+        for (TraceListener listener : listeners) {
+            try {
+                listener.onTraceFinished(trace);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur dans un écouteur de traces: " + e.getMessage());
+            }
+        }
     }
 
     public void addError(Trace trace, String error) {
         trace.setError(error);
+        if (!trace.isSampled()) {
+            return;
+        }
         logToConsole("🚨 TRACE ERROR: " + trace.getOperationName() + " [" + trace.getTraceId() + ":" + trace.getSpanId() + "] " + error);
     }
 
@@ -68,6 +126,10 @@ public class SimpleTraceCollector {
                 .toList();
     }
 
+    public Trace getActiveTrace(String spanId) {
+        return activeTraces.get(spanId);
+    }
+
     public int getActiveTracesCount() {
         return activeTraces.size();
     }
@@ -76,12 +138,27 @@ public class SimpleTraceCollector {
         return traces.size();
     }
 
+    public long getUnsampledTracesCount() {
+        return unsampledTraces.get();
+    }
+
+    public long getSkippedFileWritesCount() {
+        return skippedFileWrites.get();
+    }
+
     private void logToConsole(String message) {
+        if (!telemetryLevel.isConsoleLogging()) {
+            return;
+        }
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss.SSS"));
         System.out.println("[" + timestamp + "] " + message);
     }
 
     private void writeToFile(Trace trace) {
+        if (!telemetryLevel.isFileExport()) {
+            skippedFileWrites.incrementAndGet();
+            return;
+        }
         try (FileWriter writer = new FileWriter(traceFile, true)) {
             writer.write(trace.toString() + "\n");
         } catch (IOException e) {
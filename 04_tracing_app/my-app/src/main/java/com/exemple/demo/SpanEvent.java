@@ -0,0 +1,26 @@
+package com.exemple.demo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement de log attaché à un span (voir SpanEventAppender)
+ */
+public class SpanEvent {
+    private final LocalDateTime timestamp;
+    private final String level;
+    private final String logger;
+    private final String message;
+
+    public SpanEvent(LocalDateTime timestamp, String level, String logger, String message) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.logger = logger;
+        this.message = message;
+    }
+
+    // Getters
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getLevel() { return level; }
+    public String getLogger() { return logger; }
+    public String getMessage() { return message; }
+}
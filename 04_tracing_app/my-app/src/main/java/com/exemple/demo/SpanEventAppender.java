@@ -0,0 +1,38 @@
+package com.exemple.demo;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Appender logback qui attache chaque log au span présent dans son MDC (spanId),
+ * chaque span ne gardant que ses N derniers événements (buffer borné dans Trace)
+ */
+public class SpanEventAppender extends AppenderBase<ILoggingEvent> {
+
+    private final SimpleTraceCollector traceCollector;
+
+    public SpanEventAppender(SimpleTraceCollector traceCollector) {
+        this.traceCollector = traceCollector;
+        setName("SPAN_EVENTS");
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        String spanId = mdc != null ? mdc.get(TracingService.MDC_SPAN_ID) : null;
+        if (spanId == null) {
+            return;
+        }
+        Trace trace = traceCollector.getActiveTrace(spanId);
+        if (trace == null) {
+            return;
+        }
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimeStamp()), ZoneId.systemDefault());
+        trace.addEvent(new SpanEvent(timestamp, event.getLevel().toString(), event.getLoggerName(), event.getFormattedMessage()));
+    }
+}
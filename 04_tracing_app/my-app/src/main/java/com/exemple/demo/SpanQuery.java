@@ -0,0 +1,141 @@
+package com.exemple.demo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête d'agrégation sur ColumnarSpanStore : filtres, regroupement et percentiles des durées.
+ *
+ * Exemple : p95 de database-query par user.id sur les 10 dernières minutes
+ * <pre>
+ *   new SpanQuery().operation("database-query").since(Duration.ofMinutes(10)).groupBy("user.id")
+ * </pre>
+ */
+public class SpanQuery {
+
+    /** Regroupement par nom d'opération */
+    public static final String GROUP_BY_OPERATION = "operation";
+    /** Regroupement par statut (FINISHED, ERROR...) */
+    public static final String GROUP_BY_STATUS = "status";
+
+    private String operation;
+    private String status;
+    private String tagKey;
+    private String tagValue;
+    private Duration since;
+    private String groupBy;
+    private double[] percentiles = {50, 95, 99};
+    private int limit = 20;
+
+    public SpanQuery operation(String operation) {
+        this.operation = operation;
+        return this;
+    }
+
+    public SpanQuery status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Garde les spans qui portent le tag key=value
+     */
+    public SpanQuery tag(String key, String value) {
+        this.tagKey = key;
+        this.tagValue = value;
+        return this;
+    }
+
+    /**
+     * Garde les spans commencés depuis cette durée
+     */
+    public SpanQuery since(Duration since) {
+        this.since = since;
+        return this;
+    }
+
+    /**
+     * "operation", "status" ou une clé de tag (les spans sans ce tag forment le groupe "-")
+     */
+    public SpanQuery groupBy(String groupBy) {
+        this.groupBy = groupBy;
+        return this;
+    }
+
+    public SpanQuery percentiles(double... percentiles) {
+        this.percentiles = percentiles;
+        return this;
+    }
+
+    /**
+     * Nombre maximum de groupes rendus, les plus nombreux d'abord
+     */
+    public SpanQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    // Getters
+    public String getOperation() { return operation; }
+    public String getStatus() { return status; }
+    public String getTagKey() { return tagKey; }
+    public String getTagValue() { return tagValue; }
+    public Duration getSince() { return since; }
+    public String getGroupBy() { return groupBy; }
+    public double[] getPercentiles() { return percentiles; }
+    public int getLimit() { return limit; }
+
+    /**
+     * Résultat : un groupe unique "*" sans regroupement
+     */
+    public static class Result {
+        private final long scannedSpans;
+        private final long matchedSpans;
+        private final int groupCount;
+        private final long elapsedMicros;
+        private final List<Group> groups;
+
+        Result(long scannedSpans, long matchedSpans, int groupCount, long elapsedMicros, List<Group> groups) {
+            this.scannedSpans = scannedSpans;
+            this.matchedSpans = matchedSpans;
+            this.groupCount = groupCount;
+            this.elapsedMicros = elapsedMicros;
+            this.groups = groups;
+        }
+
+        // Getters
+        public long getScannedSpans() { return scannedSpans; }
+        public long getMatchedSpans() { return matchedSpans; }
+        public int getGroupCount() { return groupCount; }
+        public long getElapsedMicros() { return elapsedMicros; }
+        public List<Group> getGroups() { return groups; }
+    }
+
+    public static class Group {
+        private final String key;
+        private final long count;
+        private final long sumMs;
+        private final long minMs;
+        private final long maxMs;
+        private final Map<String, Long> percentilesMs;
+
+        Group(String key, long count, long sumMs, long minMs, long maxMs, Map<String, Long> percentilesMs) {
+            this.key = key;
+            this.count = count;
+            this.sumMs = sumMs;
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+            this.percentilesMs = percentilesMs;
+        }
+
+        // Getters
+        public String getKey() { return key; }
+        public long getCount() { return count; }
+        public long getSumMs() { return sumMs; }
+        public long getMinMs() { return minMs; }
+        public long getMaxMs() { return maxMs; }
+        public double getAvgMs() { return count == 0 ? 0 : (double) sumMs / count; }
+        public Map<String, Long> getPercentilesMs() { return percentilesMs; }
+    }
+}
@@ -0,0 +1,325 @@
+package com.exemple.demo;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Service;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Dégradation de la télémétrie sous pression : nos propres traces et logs ne doivent pas aggraver
+ * une JVM déjà saturée.
+ *
+ * Points clés :
+ * - Toutes les check-interval-ms : part du temps passé en GC, occupation du heap après le dernier GC
+ *   et CPU du process (OperatingSystemMXBean)
+ * - Heap après GC reçu par notification à chaque collection, jeune ou complète
+ *   (GarbageCollectionNotificationInfo) : getCollectionUsage() du vieux pool de G1 n'est mis à jour
+ *   que par un GC complet ou mixte. Sans GC depuis heap-after-gc-max-age-ms, la mesure est ignorée
+ *   (pas d'allocation, donc pas de pression mémoire)
+ * - Un signal au-dessus de son seuil reduced-* ou minimal-* pendant degrade-after mesures
+ *   fait passer directement au niveau correspondant (TelemetryLevel)
+ * - Hystérésis : on ne remonte que d'un niveau à la fois, après recover-after mesures sous
+ *   recovery-ratio fois les seuils du niveau courant
+ * - Niveau appliqué à SimpleTraceCollector (échantillonnage, console, traces.log) et aux loggers
+ *   configurés (WARN puis ERROR, niveau d'origine restauré au retour à NORMAL)
+ * - Niveau publié en métrique (telemetry.degradation.level : 0, 1, 2) et en log WARN à chaque changement
+ */
+@Service
+@ConditionalOnProperty(name = "tracing.governor.enabled", havingValue = "true", matchIfMissing = true)
+public class TelemetryGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryGovernor.class);
+
+    @Autowired
+    private SimpleTraceCollector traceCollector;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tracing.governor.check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${tracing.governor.reduced-gc-time-ratio:0.05}")
+    private double reducedGcTimeRatio;
+
+    @Value("${tracing.governor.minimal-gc-time-ratio:0.15}")
+    private double minimalGcTimeRatio;
+
+    @Value("${tracing.governor.reduced-heap-after-gc-ratio:0.70}")
+    private double reducedHeapRatio;
+
+    @Value("${tracing.governor.minimal-heap-after-gc-ratio:0.85}")
+    private double minimalHeapRatio;
+
+    @Value("${tracing.governor.reduced-cpu-ratio:0.80}")
+    private double reducedCpuRatio;
+
+    @Value("${tracing.governor.minimal-cpu-ratio:0.95}")
+    private double minimalCpuRatio;
+
+    @Value("${tracing.governor.heap-after-gc-max-age-ms:60000}")
+    private long heapAfterGcMaxAgeMs;
+
+    @Value("${tracing.governor.degrade-after:2}")
+    private int degradeAfter;
+
+    @Value("${tracing.governor.recover-after:10}")
+    private int recoverAfter;
+
+    @Value("${tracing.governor.recovery-ratio:0.8}")
+    private double recoveryRatio;
+
+    @Value("${tracing.governor.reduced-sample-rate:0.25}")
+    private double reducedSampleRate;
+
+    @Value("${tracing.governor.minimal-sample-rate:0.05}")
+    private double minimalSampleRate;
+
+    @Value("${tracing.governor.loggers:com.exemple.demo}")
+    private List<String> loggerNames;
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final Set<String> heapPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+    private final NotificationListener gcListener = (notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            onGarbageCollection(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+        }
+    };
+    private final OperatingSystemMXBean os =
+            ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean bean ? bean : null;
+
+    // Niveau configuré des loggers avant dégradation (null : hérité)
+    private final Map<String, LogLevel> originalLogLevels = new HashMap<>();
+
+    private volatile TelemetryLevel level = TelemetryLevel.NORMAL;
+    private volatile double gcTimeRatio;
+    private volatile double heapAfterGcRatio;
+    private volatile double cpuRatio;
+    // Dernière notification de GC, lue par le thread du governor
+    private volatile double lastGcHeapRatio;
+    private volatile long lastGcNanos;
+    private long lastGcTimeMs;
+    private long lastCheckNanos;
+    private int degradeCount;
+    private int recoverCount;
+    private final AtomicLong transitions = new AtomicLong();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        for (String name : loggerNames) {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(name);
+            originalLogLevels.put(name, configuration != null ? configuration.getConfiguredLevel() : null);
+        }
+        // Les changements de niveau restent visibles quand les loggers parents sont relevés
+        LoggerConfiguration own = loggingSystem.getLoggerConfiguration(TelemetryGovernor.class.getName());
+        if (own == null || own.getConfiguredLevel() == null) {
+            loggingSystem.setLogLevel(TelemetryGovernor.class.getName(), LogLevel.INFO);
+        }
+        Gauge.builder("telemetry.degradation.level", () -> level.ordinal())
+                .description("Niveau de dégradation de la télémétrie (0 NORMAL, 1 REDUCED, 2 MINIMAL)")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.governor.gc.time.ratio", () -> gcTimeRatio)
+                .description("Part du temps passé en GC sur le dernier intervalle")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.governor.heap.after.gc.ratio", () -> heapAfterGcRatio)
+                .description("Occupation du heap après le dernier GC")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.governor.cpu.ratio", () -> cpuRatio)
+                .description("CPU du process sur l'ensemble des coeurs")
+                .register(meterRegistry);
+
+        lastGcNanos = System.nanoTime();
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+            }
+        }
+
+        lastGcTimeMs = totalGcTimeMs();
+        lastCheckNanos = System.nanoTime();
+        running = true;
+        worker = new Thread(this::checkLoop, "telemetry-governor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(checkIntervalMs);
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException e) {
+                    // Jamais enregistré
+                }
+            }
+        }
+        apply(TelemetryLevel.NORMAL);
+    }
+
+    private void checkLoop() {
+        while (running) {
+            try {
+                Thread.sleep(checkIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                check();
+            } catch (RuntimeException e) {
+                logger.error("Mesure de la pression JVM impossible", e);
+            }
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long gcTimeMs = totalGcTimeMs();
+        long elapsedMs = Math.max(1, (now - lastCheckNanos) / 1_000_000);
+        gcTimeRatio = Math.min(1.0, (gcTimeMs - lastGcTimeMs) / (double) elapsedMs);
+        heapAfterGcRatio = heapAfterGcRatio();
+        cpuRatio = os != null ? Math.max(0, os.getProcessCpuLoad()) : 0;
+        lastGcTimeMs = gcTimeMs;
+        lastCheckNanos = now;
+
+        TelemetryLevel pressure = levelFor(1.0);
+        if (pressure.compareTo(level) > 0) {
+            recoverCount = 0;
+            if (++degradeCount >= degradeAfter) {
+                degradeCount = 0;
+                apply(pressure);
+            }
+            return;
+        }
+        degradeCount = 0;
+        if (level != TelemetryLevel.NORMAL && levelFor(recoveryRatio).compareTo(level) < 0) {
+            if (++recoverCount >= recoverAfter) {
+                recoverCount = 0;
+                apply(TelemetryLevel.values()[level.ordinal() - 1]);
+            }
+        } else {
+            recoverCount = 0;
+        }
+    }
+
+    /**
+     * @param factor 1 pour dégrader, recovery-ratio pour remonter (seuils abaissés)
+     */
+    private TelemetryLevel levelFor(double factor) {
+        if (gcTimeRatio >= minimalGcTimeRatio * factor || heapAfterGcRatio >= minimalHeapRatio * factor
+                || cpuRatio >= minimalCpuRatio * factor) {
+            return TelemetryLevel.MINIMAL;
+        }
+        if (gcTimeRatio >= reducedGcTimeRatio * factor || heapAfterGcRatio >= reducedHeapRatio * factor
+                || cpuRatio >= reducedCpuRatio * factor) {
+            return TelemetryLevel.REDUCED;
+        }
+        return TelemetryLevel.NORMAL;
+    }
+
+    private synchronized void apply(TelemetryLevel newLevel) {
+        TelemetryLevel previous = level;
+        if (newLevel == previous) {
+            return;
+        }
+        level = newLevel;
+        transitions.incrementAndGet();
+        traceCollector.applyTelemetryLevel(newLevel, switch (newLevel) {
+            case NORMAL -> 1.0;
+            case REDUCED -> reducedSampleRate;
+            case MINIMAL -> minimalSampleRate;
+        });
+        for (String name : loggerNames) {
+            loggingSystem.setLogLevel(name, switch (newLevel) {
+                case NORMAL -> originalLogLevels.get(name);
+                case REDUCED -> LogLevel.WARN;
+                case MINIMAL -> LogLevel.ERROR;
+            });
+        }
+        logger.warn("Télémétrie {} -> {} (GC {} %, heap après GC {} %, CPU {} %)", previous, newLevel,
+                percent(gcTimeRatio), percent(heapAfterGcRatio), percent(cpuRatio));
+    }
+
+    private long totalGcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Heap occupé juste après le dernier GC, quel qu'il soit, rapporté au heap maximum
+    private void onGarbageCollection(GarbageCollectionNotificationInfo info) {
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPoolNames.contains(pool.getKey())) {
+                used += pool.getValue().getUsed();
+            }
+        }
+        long max = Runtime.getRuntime().maxMemory();
+        lastGcHeapRatio = max > 0 ? (double) used / max : 0;
+        lastGcNanos = System.nanoTime();
+    }
+
+    private double heapAfterGcRatio() {
+        return System.nanoTime() - lastGcNanos < TimeUnit.MILLISECONDS.toNanos(heapAfterGcMaxAgeMs) ? lastGcHeapRatio : 0;
+    }
+
+    private static double percent(double ratio) {
+        return Math.round(ratio * 1000) / 10.0;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("level", level);
+        stats.put("gcTimeRatio", Math.round(gcTimeRatio * 1000) / 1000.0);
+        stats.put("heapAfterGcRatio", Math.round(heapAfterGcRatio * 1000) / 1000.0);
+        stats.put("cpuRatio", Math.round(cpuRatio * 1000) / 1000.0);
+        stats.put("transitions", transitions.get());
+        stats.put("unsampledTraces", traceCollector.getUnsampledTracesCount());
+        stats.put("skippedFileWrites", traceCollector.getSkippedFileWritesCount());
+        return stats;
+    }
+}
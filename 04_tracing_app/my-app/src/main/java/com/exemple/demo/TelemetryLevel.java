@@ -0,0 +1,27 @@
+package com.exemple.demo;
+
+/**
+ * Niveaux de dégradation de la télémétrie, fixés par TelemetryGovernor.
+ *
+ * - NORMAL : tous les spans, logs console des spans, écriture dans traces.log
+ * - REDUCED : spans échantillonnés, plus de logs console des spans, logs applicatifs en WARN
+ * - MINIMAL : échantillonnage minimal, écriture dans traces.log suspendue, logs applicatifs en ERROR
+ */
+public enum TelemetryLevel {
+
+    NORMAL(true, true),
+    REDUCED(false, true),
+    MINIMAL(false, false);
+
+    private final boolean consoleLogging;
+    private final boolean fileExport;
+
+    TelemetryLevel(boolean consoleLogging, boolean fileExport) {
+        this.consoleLogging = consoleLogging;
+        this.fileExport = fileExport;
+    }
+
+    // Getters
+    public boolean isConsoleLogging() { return consoleLogging; }
+    public boolean isFileExport() { return fileExport; }
+}
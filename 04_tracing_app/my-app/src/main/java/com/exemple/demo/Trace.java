@@ -2,6 +2,9 @@ package com.exemple.demo;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -18,6 +21,17 @@ public class Trace {
     private String status;
     private String tags;
 
+    // N derniers logs du span (buffer borné, seulement si les span events sont activés)
+    private ArrayDeque<SpanEvent> events;
+    private int maxEvents;
+
+    // traceId et spanId du MDC remplacés par ce span (span parent ou null), restaurés à sa fin (voir TracingService)
+    private String previousMdcTraceId;
+    private String previousMdcSpanId;
+
+    // Span non échantillonné : ni stocké, ni écrit, ni transmis aux écouteurs (voir TelemetryGovernor)
+    private boolean sampled = true;
+
     public Trace(String operationName) {
         this.traceId = UUID.randomUUID().toString().substring(0, 8);
         this.spanId = UUID.randomUUID().toString().substring(0, 8);
@@ -33,10 +47,15 @@ public class Trace {
         this.parentSpanId = parentSpanId;
     }
 
+    /**
+     * Un span en erreur (setError) garde le statut ERROR
+     */
     public void finish() {
         this.endTime = LocalDateTime.now();
         this.durationMs = java.time.Duration.between(startTime, endTime).toMillis();
-        this.status = "FINISHED";
+        if ("STARTED".equals(status)) {
+            this.status = "FINISHED";
+        }
     }
 
     public void addTag(String key, String value) {
@@ -52,6 +71,41 @@ public class Trace {
         addTag("error", error);
     }
 
+    /**
+     * Garde au plus maxEvents événements, les plus anciens sont supprimés
+     */
+    void enableEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+        this.events = new ArrayDeque<>(Math.min(maxEvents, 16));
+    }
+
+    void addEvent(SpanEvent event) {
+        if (events == null) {
+            return;
+        }
+        synchronized (events) {
+            if (events.size() == maxEvents) {
+                events.pollFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    void setPreviousMdc(String traceId, String spanId) {
+        this.previousMdcTraceId = traceId;
+        this.previousMdcSpanId = spanId;
+    }
+
+    String previousMdcTraceId() { return previousMdcTraceId; }
+
+    String previousMdcSpanId() { return previousMdcSpanId; }
+
+    void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    boolean isSampled() { return sampled; }
+
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
@@ -76,4 +130,13 @@ public class Trace {
     public long getDurationMs() { return durationMs; }
     public String getStatus() { return status; }
     public String getTags() { return tags; }
+
+    public List<SpanEvent> getEvents() {
+        if (events == null) {
+            return List.of();
+        }
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
 }
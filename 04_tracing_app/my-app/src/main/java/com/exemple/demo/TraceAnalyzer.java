@@ -0,0 +1,270 @@
+package com.exemple.demo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Analyse incrémentale des traces : arbre, temps propre, chemin critique et graphe des dépendances.
+ *
+ * Points clés :
+ * - Les spans sont regroupés par traceId à mesure qu'ils se terminent ; quand la racine se termine,
+ *   l'arbre est construit une seule fois (TraceTree) puis oublié
+ * - Par opération racine : durée moyenne, temps critique et temps propre moyens de chaque opération
+ *   de l'arbre. La part du temps critique dit quel enfant domine la latence de la racine
+ * - Graphe opération parente -> opération enfant : appels, erreurs et histogramme des durées par arête
+ * - Mémoire bornée : traces en attente (max-pending-traces, expirées après max-pending-age-ms,
+ *   ex : enfant terminé après sa racine) et nombre d'arêtes (max-edges)
+ */
+@Service
+@ConditionalOnProperty(name = "tracing.analysis.enabled", havingValue = "true", matchIfMissing = true)
+public class TraceAnalyzer implements TraceListener {
+
+    @Autowired
+    private SimpleTraceCollector traceCollector;
+
+    @Value("${tracing.analysis.max-pending-traces:10000}")
+    private int maxPendingTraces;
+
+    @Value("${tracing.analysis.max-pending-age-ms:60000}")
+    private long maxPendingAgeMs;
+
+    @Value("${tracing.analysis.max-edges:1000}")
+    private int maxEdges;
+
+    private final ConcurrentHashMap<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RootStats> roots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EdgeStats> edges = new ConcurrentHashMap<>();
+
+    private final AtomicLong analyzedTraces = new AtomicLong();
+    private final AtomicLong incompleteTraces = new AtomicLong();
+    private final AtomicLong droppedSpans = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        traceCollector.addListener(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        traceCollector.removeListener(this);
+    }
+
+    @Override
+    public void onTraceFinished(Trace span) {
+        if (span.getParentSpanId() == null) {
+            PendingTrace trace = pending.remove(span.getTraceId());
+            List<Trace> spans = trace != null ? trace.spans() : new ArrayList<>(1);
+            spans.add(span);
+            record(TraceTree.build(spans));
+            return;
+        }
+        if (pending.size() >= maxPendingTraces && !pending.containsKey(span.getTraceId())) {
+            expirePending();
+            if (pending.size() >= maxPendingTraces) {
+                droppedSpans.incrementAndGet();
+                return;
+            }
+        }
+        pending.computeIfAbsent(span.getTraceId(), id -> new PendingTrace()).add(span);
+    }
+
+    /**
+     * Analyse d'une trace encore en mémoire dans SimpleTraceCollector
+     *
+     * @return null si la trace est inconnue
+     */
+    public TraceTree analyze(String traceId) {
+        return TraceTree.build(traceCollector.getTracesByTraceId(traceId));
+    }
+
+    private void record(TraceTree tree) {
+        analyzedTraces.incrementAndGet();
+        roots.computeIfAbsent(tree.getRootOperation(), operation -> new RootStats()).record(tree);
+        recordEdges(tree.root());
+    }
+
+    private void recordEdges(TraceTree.Node parent) {
+        for (TraceTree.Node child : parent.children()) {
+            String key = parent.getOperation() + " -> " + child.getOperation();
+            EdgeStats edge = edges.get(key);
+            if (edge == null) {
+                edge = edges.size() < maxEdges
+                        ? edges.computeIfAbsent(key, k -> new EdgeStats(parent.getOperation(), child.getOperation()))
+                        : null;
+            }
+            if (edge != null) {
+                edge.record(child);
+            }
+            recordEdges(child);
+        }
+    }
+
+    private void expirePending() {
+        long now = System.nanoTime();
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxPendingAgeMs);
+        pending.entrySet().removeIf(entry -> {
+            boolean expired = now - entry.getValue().createdNanos > maxAgeNanos;
+            if (expired) {
+                incompleteTraces.incrementAndGet();
+            }
+            return expired;
+        });
+    }
+
+    public Map<String, Object> getSummary() {
+        expirePending();
+
+        List<Map<String, Object>> rootList = new ArrayList<>();
+        roots.forEach((operation, stats) -> {
+            Map<String, Object> root = stats.toMap(operation);
+            if (root != null) {
+                rootList.add(root);
+            }
+        });
+        rootList.sort(Comparator.comparingLong((Map<String, Object> root) -> (Long) root.get("count")).reversed());
+
+        List<Map<String, Object>> edgeList = new ArrayList<>();
+        edges.values().forEach(edge -> {
+            Map<String, Object> map = edge.toMap();
+            if (map != null) {
+                edgeList.add(map);
+            }
+        });
+        edgeList.sort(Comparator.comparingLong((Map<String, Object> edge) -> (Long) edge.get("calls")).reversed());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("analyzedTraces", analyzedTraces.get());
+        summary.put("pendingTraces", pending.size());
+        summary.put("incompleteTraces", incompleteTraces.get());
+        summary.put("droppedSpans", droppedSpans.get());
+        summary.put("roots", rootList);
+        summary.put("edges", edgeList);
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    private static final class PendingTrace {
+        final long createdNanos = System.nanoTime();
+        private final List<Trace> spans = new ArrayList<>();
+
+        synchronized void add(Trace span) {
+            spans.add(span);
+        }
+
+        synchronized List<Trace> spans() {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    /**
+     * Traces d'une même opération racine
+     */
+    private static final class RootStats {
+        private long count;
+        private long durationMicros;
+        private final DurationHistogram histogram = new DurationHistogram();
+        // Par opération de l'arbre : temps critique et temps propre cumulés
+        private final Map<String, long[]> operations = new HashMap<>();
+
+        synchronized void record(TraceTree tree) {
+            count++;
+            long duration = tree.root().durationMicros();
+            durationMicros += duration;
+            histogram.record((int) Math.min(duration / 1000, Integer.MAX_VALUE));
+            tree.criticalMicrosByOperation().forEach((operation, critical) ->
+                    operations.computeIfAbsent(operation, o -> new long[2])[0] += critical);
+            for (TraceTree.Node node : tree.getNodes()) {
+                operations.computeIfAbsent(node.getOperation(), o -> new long[2])[1] += node.selfMicros();
+            }
+        }
+
+        /**
+         * @return null si aucune trace n'est encore enregistrée
+         */
+        synchronized Map<String, Object> toMap(String operation) {
+            if (count == 0) {
+                return null;
+            }
+            List<Map<String, Object>> breakdown = new ArrayList<>();
+            operations.forEach((name, times) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("operation", name);
+                entry.put("avgCriticalPathMs", millis(times[0] / count));
+                entry.put("criticalPathShare", durationMicros == 0 ? 0 : Math.round(times[0] * 1000.0 / durationMicros) / 1000.0);
+                entry.put("avgSelfMs", millis(times[1] / count));
+                breakdown.add(entry);
+            });
+            breakdown.sort(Comparator.comparingDouble((Map<String, Object> entry) -> (Double) entry.get("avgCriticalPathMs")).reversed());
+
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("operation", operation);
+            root.put("count", count);
+            root.put("avgMs", millis(durationMicros / count));
+            root.put("p95Ms", histogram.valueAt(95, count));
+            root.put("criticalPath", breakdown);
+            return root;
+        }
+    }
+
+    /**
+     * Appels d'une opération parente vers une opération enfant
+     */
+    private static final class EdgeStats {
+        private final String parent;
+        private final String child;
+        private long calls;
+        private long errors;
+        private long durationMicros;
+        private final DurationHistogram histogram = new DurationHistogram();
+
+        EdgeStats(String parent, String child) {
+            this.parent = parent;
+            this.child = child;
+        }
+
+        synchronized void record(TraceTree.Node node) {
+            calls++;
+            if (node.isError()) {
+                errors++;
+            }
+            durationMicros += node.durationMicros();
+            histogram.record((int) Math.min(node.durationMicros() / 1000, Integer.MAX_VALUE));
+        }
+
+        /**
+         * @return null si aucun appel n'est encore enregistré
+         */
+        synchronized Map<String, Object> toMap() {
+            if (calls == 0) {
+                return null;
+            }
+            Map<String, Object> edge = new LinkedHashMap<>();
+            edge.put("parent", parent);
+            edge.put("child", child);
+            edge.put("calls", calls);
+            edge.put("errors", errors);
+            edge.put("avgMs", millis(durationMicros / calls));
+            edge.put("p50Ms", histogram.valueAt(50, calls));
+            edge.put("p95Ms", histogram.valueAt(95, calls));
+            edge.put("p99Ms", histogram.valueAt(99, calls));
+            return edge;
+        }
+    }
+}
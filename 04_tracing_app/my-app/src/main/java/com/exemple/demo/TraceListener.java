@@ -0,0 +1,10 @@
+package com.exemple.demo;
+
+/**
+ * Écouteur notifié à chaque trace terminée (export, flux temps réel...).
+ * Appelé sur le thread de la requête : l'implémentation doit rester non bloquante.
+ */
+public interface TraceListener {
+
+    void onTraceFinished(Trace trace);
+}
@@ -0,0 +1,186 @@
+package com.exemple.demo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flux Server-Sent Events des spans terminés, pour le visualiseur de traces (/traces/stream).
+ *
+ * Points clés :
+ * - Événement "spans" : les spans terminés depuis le dernier envoi, par lots (max-batch-size)
+ * - Événement "stats" toutes les stats-interval-ms : compteurs actuels et deltas depuis le dernier
+ *   (nouveaux spans, spans abandonnés pour cet abonné)
+ * - Buffer borné par abonné (buffer-size) : s'il est plein, le span le plus ancien est abandonné,
+ *   finishTrace n'attend jamais un navigateur lent
+ * - Un thread d'envoi par abonné : une écriture bloquée sur un client lent ne retarde que lui
+ * - Nombre d'abonnés limité (max-subscribers), au-delà 503 : regarder les traces pendant un
+ *   incident ne doit pas charger l'application observée
+ */
+@Service
+@ConditionalOnProperty(name = "tracing.stream.enabled", havingValue = "true", matchIfMissing = true)
+public class TraceStreamService implements TraceListener {
+
+    @Autowired
+    private SimpleTraceCollector traceCollector;
+
+    @Value("${tracing.stream.max-subscribers:5}")
+    private int maxSubscribers;
+
+    @Value("${tracing.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${tracing.stream.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${tracing.stream.stats-interval-ms:2000}")
+    private long statsIntervalMs;
+
+    // Durée max d'une connexion, EventSource se reconnecte ensuite tout seul
+    @Value("${tracing.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong finishedSpans = new AtomicLong();
+    private final AtomicLong droppedSpans = new AtomicLong();
+    private final AtomicLong rejectedSubscribers = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        traceCollector.addListener(this);
+    }
+
+    @Override
+    public void onTraceFinished(Trace trace) {
+        finishedSpans.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(trace);
+        }
+    }
+
+    public synchronized SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            rejectedSubscribers.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Trop d'abonnés au flux de traces (max " + maxSubscribers + ")");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.thread.start();
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("droppedSpans", droppedSpans.get());
+        stats.put("rejectedSubscribers", rejectedSubscribers.get());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        traceCollector.removeListener(this);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Trace> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicLong dropped = new AtomicLong();
+        final Thread thread;
+        volatile boolean open = true;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.thread = new Thread(this::sendLoop, "trace-stream-" + Integer.toHexString(hashCode()));
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Jamais bloquant : buffer plein, le plus ancien span est remplacé
+         */
+        void offer(Trace trace) {
+            while (!queue.offer(trace)) {
+                if (queue.poll() != null) {
+                    dropped.incrementAndGet();
+                    droppedSpans.incrementAndGet();
+                }
+            }
+        }
+
+        void close() {
+            if (open) {
+                open = false;
+                subscribers.remove(this);
+                thread.interrupt();
+            }
+        }
+
+        private void sendLoop() {
+            List<Trace> batch = new ArrayList<>(maxBatchSize);
+            long lastFinished = finishedSpans.get();
+            long lastDropped = 0;
+            long nextStats = System.nanoTime();
+            try {
+                while (open) {
+                    long now = System.nanoTime();
+                    if (now - nextStats >= 0) {
+                        long finished = finishedSpans.get();
+                        long droppedTotal = dropped.get();
+                        Map<String, Object> stats = new LinkedHashMap<>();
+                        stats.put("activeCount", traceCollector.getActiveTracesCount());
+                        stats.put("totalCount", traceCollector.getTotalTracesCount());
+                        stats.put("newSpans", finished - lastFinished);
+                        stats.put("droppedSpans", droppedTotal - lastDropped);
+                        emitter.send(SseEmitter.event().name("stats").data(stats, MediaType.APPLICATION_JSON));
+                        lastFinished = finished;
+                        lastDropped = droppedTotal;
+                        nextStats = now + TimeUnit.MILLISECONDS.toNanos(statsIntervalMs);
+                        continue;
+                    }
+                    Trace first = queue.poll(nextStats - now, TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    emitter.send(SseEmitter.event().name("spans").data(batch, MediaType.APPLICATION_JSON));
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client parti ou emitter déjà terminé
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+    }
+}
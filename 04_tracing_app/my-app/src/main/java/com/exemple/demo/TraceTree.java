@@ -0,0 +1,166 @@
+package com.exemple.demo;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre des spans d'une trace, avec temps propre et chemin critique de chaque span.
+ *
+ * - Temps propre : durée du span moins l'union des intervalles de ses enfants
+ * - Chemin critique : en partant de la fin de la racine, on descend dans l'enfant qui termine
+ *   le plus tard, puis dans celui qui termine avant son début, etc. Le reste du temps est
+ *   attribué au parent. La somme des temps critiques vaut la durée de la racine : ils disent
+ *   quel enfant fait attendre la requête, des enfants en parallèle ne comptent qu'une fois
+ */
+public class TraceTree {
+
+    private final Node root;
+    private final List<Node> nodes;
+
+    private TraceTree(Node root, List<Node> nodes) {
+        this.root = root;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return null si aucun span n'est terminé
+     */
+    public static TraceTree build(List<Trace> spans) {
+        Map<String, Node> bySpanId = new LinkedHashMap<>();
+        for (Trace span : spans) {
+            if (span.getEndTime() != null) {
+                bySpanId.put(span.getSpanId(), new Node(span));
+            }
+        }
+        if (bySpanId.isEmpty()) {
+            return null;
+        }
+
+        // Racine : sans parent connu, la plus ancienne si plusieurs
+        Node root = null;
+        for (Node node : bySpanId.values()) {
+            Node parent = node.span.getParentSpanId() != null ? bySpanId.get(node.span.getParentSpanId()) : null;
+            if (parent != null) {
+                parent.children.add(node);
+            } else if (root == null || node.span.getStartTime().isBefore(root.span.getStartTime())) {
+                root = node;
+            }
+        }
+
+        List<Node> nodes = new ArrayList<>(bySpanId.size());
+        LocalDateTime origin = root.span.getStartTime();
+        root.layout(origin, 0, nodes);
+        root.computeCriticalPath(root.endMicros);
+        return new TraceTree(root, nodes);
+    }
+
+    /**
+     * Temps critique cumulé par opération
+     */
+    Map<String, Long> criticalMicrosByOperation() {
+        Map<String, Long> byOperation = new HashMap<>();
+        for (Node node : nodes) {
+            if (node.criticalMicros > 0) {
+                byOperation.merge(node.getOperation(), node.criticalMicros, Long::sum);
+            }
+        }
+        return byOperation;
+    }
+
+    Node root() { return root; }
+
+    // Getters
+    public String getRootOperation() { return root.getOperation(); }
+    public List<Node> getNodes() { return nodes; }
+    public String getTraceId() { return root.span.getTraceId(); }
+    public double getDurationMs() { return root.getDurationMs(); }
+
+    /**
+     * Un span de l'arbre, temps en microsecondes depuis le début de la racine
+     */
+    public static class Node {
+        private final Trace span;
+        private final List<Node> children = new ArrayList<>();
+        private int depth;
+        private long startMicros;
+        private long endMicros;
+        private long selfMicros;
+        private long criticalMicros;
+        private boolean onCriticalPath;
+
+        Node(Trace span) {
+            this.span = span;
+        }
+
+        private void layout(LocalDateTime origin, int depth, List<Node> nodes) {
+            this.depth = depth;
+            this.startMicros = Duration.between(origin, span.getStartTime()).toNanos() / 1000;
+            this.endMicros = Duration.between(origin, span.getEndTime()).toNanos() / 1000;
+            nodes.add(this);
+            children.sort(Comparator.comparing((Node child) -> child.span.getStartTime()));
+            for (Node child : children) {
+                child.layout(origin, depth + 1, nodes);
+            }
+            selfMicros = endMicros - startMicros - childrenUnionMicros();
+        }
+
+        // Enfants triés par début : union des intervalles, bornée au parent
+        private long childrenUnionMicros() {
+            long union = 0;
+            long coveredUntil = startMicros;
+            for (Node child : children) {
+                long from = Math.max(child.startMicros, coveredUntil);
+                long to = Math.min(child.endMicros, endMicros);
+                if (to > from) {
+                    union += to - from;
+                    coveredUntil = to;
+                }
+            }
+            return union;
+        }
+
+        private void computeCriticalPath(long limitMicros) {
+            onCriticalPath = true;
+            long cursor = Math.min(endMicros, limitMicros);
+            List<Node> byEnd = new ArrayList<>(children);
+            byEnd.sort(Comparator.comparingLong((Node child) -> child.endMicros).reversed());
+            for (Node child : byEnd) {
+                if (cursor <= startMicros) {
+                    break;
+                }
+                if (child.startMicros >= cursor) {
+                    continue;
+                }
+                long childEnd = Math.min(child.endMicros, cursor);
+                // Entre la fin de l'enfant et le curseur, c'est le parent qui travaille
+                criticalMicros += cursor - childEnd;
+                child.computeCriticalPath(childEnd);
+                cursor = Math.max(child.startMicros, startMicros);
+            }
+            criticalMicros += Math.max(0, cursor - startMicros);
+        }
+
+        // Getters
+        public String getSpanId() { return span.getSpanId(); }
+        public String getParentSpanId() { return span.getParentSpanId(); }
+        public String getOperation() { return span.getOperationName(); }
+        public String getStatus() { return span.getStatus(); }
+        public int getDepth() { return depth; }
+        public double getStartOffsetMs() { return startMicros / 1000.0; }
+        public double getDurationMs() { return (endMicros - startMicros) / 1000.0; }
+        public double getSelfMs() { return selfMicros / 1000.0; }
+        public double getCriticalPathMs() { return criticalMicros / 1000.0; }
+        public boolean isOnCriticalPath() { return onCriticalPath; }
+
+        long selfMicros() { return selfMicros; }
+        long durationMicros() { return endMicros - startMicros; }
+        List<Node> children() { return children; }
+        boolean isError() { return "ERROR".equals(span.getStatus()); }
+    }
+}
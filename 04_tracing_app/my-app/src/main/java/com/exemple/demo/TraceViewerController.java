@@ -1,12 +1,21 @@
 package com.exemple.demo;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur pour visualiser les traces
@@ -17,12 +26,28 @@ public class TraceViewerController {
     @Autowired
     private SimpleTraceCollector traceCollector;
 
+    @Autowired
+    private ObjectProvider<OtlpTraceExporter> otlpExporter;
+
+    @Autowired
+    private ObjectProvider<TraceStreamService> traceStream;
+
+    @Autowired
+    private ObjectProvider<ColumnarSpanStore> spanStore;
+
+    @Autowired
+    private ObjectProvider<TraceAnalyzer> traceAnalyzer;
+
+    @Autowired
+    private ObjectProvider<TelemetryGovernor> telemetryGovernor;
+
     @GetMapping("/traces")
     public String viewTraces(Model model) {
         List<Trace> traces = traceCollector.getAllTraces();
         model.addAttribute("traces", traces);
         model.addAttribute("activeCount", traceCollector.getActiveTracesCount());
         model.addAttribute("totalCount", traceCollector.getTotalTracesCount());
+        model.addAttribute("streamEnabled", traceStream.getIfAvailable() != null);
         return "traces";
     }
 
@@ -46,4 +71,123 @@ public class TraceViewerController {
                 traceCollector.getActiveTracesCount(), 
                 traceCollector.getTotalTracesCount());
     }
+
+    @GetMapping("/traces/export/stats")
+    @ResponseBody
+    public Map<String, Object> getExportStats() {
+        OtlpTraceExporter exporter = otlpExporter.getIfAvailable();
+        return exporter != null ? exporter.getStats() : Map.of("enabled", false);
+    }
+
+    /**
+     * Spans terminés et statistiques en temps réel (Server-Sent Events), utilisé par la page /traces
+     */
+    @GetMapping(path = "/traces/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamTraces() {
+        TraceStreamService stream = traceStream.getIfAvailable();
+        if (stream == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Flux de traces désactivé (tracing.stream.enabled)");
+        }
+        return stream.subscribe();
+    }
+
+    @GetMapping("/traces/stream/stats")
+    @ResponseBody
+    public Map<String, Object> getStreamStats() {
+        TraceStreamService stream = traceStream.getIfAvailable();
+        return stream != null ? stream.getStats() : Map.of("enabled", false);
+    }
+
+    /**
+     * Niveau de télémétrie courant et mesures de pression JVM
+     */
+    @GetMapping("/traces/governor")
+    @ResponseBody
+    public Map<String, Object> getGovernorStats() {
+        TelemetryGovernor governor = telemetryGovernor.getIfAvailable();
+        return governor != null ? governor.getStats() : Map.of("enabled", false);
+    }
+
+    /**
+     * Agrégation sur les spans retenus, ex : p95 de database-query par user.id sur 10 minutes
+     * /traces/query?operation=database-query&since=10m&groupBy=user.id
+     *
+     * @param tag filtre "clé=valeur"
+     * @param groupBy "operation", "status" ou une clé de tag
+     * @param percentiles ex : "50,95,99"
+     */
+    @GetMapping("/traces/query")
+    @ResponseBody
+    public SpanQuery.Result queryTraces(@RequestParam(required = false) String operation,
+                                        @RequestParam(required = false) String status,
+                                        @RequestParam(required = false) String tag,
+                                        @RequestParam(required = false) String since,
+                                        @RequestParam(required = false) String groupBy,
+                                        @RequestParam(defaultValue = "50,95,99") double[] percentiles,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        ColumnarSpanStore store = spanStore.getIfAvailable();
+        if (store == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stockage en colonnes désactivé (tracing.columnar.enabled)");
+        }
+        SpanQuery query = new SpanQuery()
+                .operation(operation)
+                .status(status)
+                .groupBy(groupBy)
+                .percentiles(percentiles)
+                .limit(limit);
+        if (tag != null) {
+            int separator = tag.indexOf('=');
+            if (separator <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "tag attendu au format clé=valeur");
+            }
+            query.tag(tag.substring(0, separator), tag.substring(separator + 1));
+        }
+        if (since != null) {
+            try {
+                query.since(DurationStyle.detectAndParse(since));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since invalide (ex : 10m, 30s, PT1H)");
+            }
+        }
+        return store.query(query);
+    }
+
+    @GetMapping("/traces/query/stats")
+    @ResponseBody
+    public Map<String, Object> getQueryStats() {
+        ColumnarSpanStore store = spanStore.getIfAvailable();
+        return store != null ? store.getStats() : Map.of("enabled", false);
+    }
+
+    /**
+     * Par opération racine, part du chemin critique de chaque opération, et graphe des appels
+     * parent -> enfant (appels, erreurs, percentiles)
+     */
+    @GetMapping("/traces/analysis")
+    @ResponseBody
+    public Map<String, Object> getAnalysis() {
+        return requireAnalyzer().getSummary();
+    }
+
+    /**
+     * Arbre d'une trace en mémoire : temps propre et chemin critique de chaque span
+     */
+    @GetMapping("/traces/analysis/{traceId}")
+    @ResponseBody
+    public TraceTree getTraceAnalysis(@PathVariable String traceId) {
+        TraceTree tree = requireAnalyzer().analyze(traceId);
+        if (tree == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Trace inconnue: " + traceId);
+        }
+        return tree;
+    }
+
+    private TraceAnalyzer requireAnalyzer() {
+        TraceAnalyzer analyzer = traceAnalyzer.getIfAvailable();
+        if (analyzer == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Analyse des traces désactivée (tracing.analysis.enabled)");
+        }
+        return analyzer;
+    }
 }
@@ -1,19 +1,51 @@
 package com.exemple.demo;
 
+import ch.qos.logback.classic.LoggerContext;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * Service pour faciliter l'utilisation du tracing dans l'application
+ * Service pour faciliter l'utilisation du tracing dans l'application.
+ *
+ * Corrélation logs/traces : pendant la durée d'un span, le MDC contient traceId et spanId
+ * (même clés que le pattern logback du module 06). Seules ces deux clés sont posées au début du span
+ * et leurs valeurs précédentes (span parent) gardées sur le Trace puis remises à la fin : pas de copie
+ * de la map MDC, les autres clés (correlationId...) ne sont pas touchées.
  */
 @Service
 public class TracingService {
 
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_SPAN_ID = "spanId";
+
     @Autowired
     private SimpleTraceCollector traceCollector;
 
+    // Option : attacher les N derniers logs d'un span comme événements du span
+    @Value("${tracing.span-events.enabled:false}")
+    private boolean spanEventsEnabled;
+
+    @Value("${tracing.span-events.max-per-span:10}")
+    private int maxEventsPerSpan;
+
+    @PostConstruct
+    void registerSpanEventAppender() {
+        if (!spanEventsEnabled || !(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        SpanEventAppender appender = new SpanEventAppender(traceCollector);
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+    }
+
     public Trace trace(String operationName, Runnable operation) {
-        Trace trace = traceCollector.startTrace(operationName);
+        Trace trace = startTrace(operationName);
         try {
             operation.run();
             return trace;
@@ -21,12 +53,12 @@ public class TracingService {
             traceCollector.addError(trace, e.getMessage());
             throw e;
         } finally {
-            traceCollector.finishTrace(trace);
+            finishTrace(trace);
         }
     }
 
     public <T> T trace(String operationName, java.util.function.Supplier<T> operation) {
-        Trace trace = traceCollector.startTrace(operationName);
+        Trace trace = startTrace(operationName);
         try {
             T result = operation.get();
             trace.addTag("result", "success");
@@ -35,16 +67,24 @@ public class TracingService {
             traceCollector.addError(trace, e.getMessage());
             throw e;
         } finally {
-            traceCollector.finishTrace(trace);
+            finishTrace(trace);
         }
     }
 
     public Trace startTrace(String operationName) {
-        return traceCollector.startTrace(operationName);
+        return bindToMdc(traceCollector.startTrace(operationName));
+    }
+
+    public Trace startChildTrace(String operationName, Trace parent) {
+        return bindToMdc(traceCollector.startChildTrace(operationName, parent));
     }
 
     public void finishTrace(Trace trace) {
-        traceCollector.finishTrace(trace);
+        try {
+            traceCollector.finishTrace(trace);
+        } finally {
+            restoreMdc(trace);
+        }
     }
 
     public void addTraceTag(Trace trace, String key, String value) {
@@ -59,4 +99,27 @@ public class TracingService {
             Thread.currentThread().interrupt();
         }
     }
+
+    private Trace bindToMdc(Trace trace) {
+        trace.setPreviousMdc(MDC.get(MDC_TRACE_ID), MDC.get(MDC_SPAN_ID));
+        if (spanEventsEnabled) {
+            trace.enableEvents(maxEventsPerSpan);
+        }
+        MDC.put(MDC_TRACE_ID, trace.getTraceId());
+        MDC.put(MDC_SPAN_ID, trace.getSpanId());
+        return trace;
+    }
+
+    private void restoreMdc(Trace trace) {
+        restoreMdc(MDC_TRACE_ID, trace.previousMdcTraceId());
+        restoreMdc(MDC_SPAN_ID, trace.previousMdcSpanId());
+    }
+
+    private static void restoreMdc(String key, String previous) {
+        if (previous == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, previous);
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache de lecture devant la base utilisateurs simulée de GET /user/{id}.
+ *
+ * Pas d'écriture sur les utilisateurs, donc pas de hook d'invalidation : le TTL borne la durée
+ * pendant laquelle une valeur périmée peut être servie. Métriques : cache.gets, cache.evictions,
+ * cache.load.duration, cache.size avec le tag cache=users (GET /actuator/metrics/cache.gets).
+ */
+@Configuration
+public class UserCacheConfiguration {
+
+    @Bean
+    public TinyLfuCache<String, String> userCache(MeterRegistry meterRegistry,
+                                                  @Value("${demo.cache.users.max-size:10000}") int maxSize,
+                                                  @Value("${demo.cache.users.ttl:5m}") Duration ttl) {
+        return new TinyLfuCache<String, String>(maxSize, ttl).registerMetrics(meterRegistry, "users");
+    }
+}
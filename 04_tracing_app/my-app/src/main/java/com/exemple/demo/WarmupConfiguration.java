@@ -0,0 +1,62 @@
+package com.exemple.demo;
+
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chemins chauds de l'application exercés par WarmupRunner : TracingService.trace et les spans
+ * enfants des endpoints, puis ce qui suit la fin d'un span (traces.log, événements de logs,
+ * stockage en colonnes, export OTLP si activé, cache de /user/{id}) et la réponse JSON de l'actuator.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfiguration {
+
+    private static final String DATA = "x".repeat(1024);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Bean
+    public WarmupTask warmupBonjour(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET", () -> "/bonjour-eql", null);
+    }
+
+    @Bean
+    public WarmupTask warmupUser(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET",
+                () -> "/user/" + ThreadLocalRandom.current().nextInt(1, 1000), null);
+    }
+
+    @Bean
+    public WarmupTask warmupData(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "POST", () -> "/data", DATA);
+    }
+
+    /**
+     * Liveness plutôt que /actuator/health : le groupe health inclut la readiness, en 503
+     * tant que le warm-up la tient à REFUSING_TRAFFIC
+     */
+    @Bean
+    public WarmupTask warmupHealth(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET", () -> "/actuator/health/liveness", null);
+    }
+
+    /**
+     * Requêtes de warm-up (en-tête X-Warmup) hors de http.server.requests
+     */
+    @Bean
+    public ObservationPredicate warmupObservationPredicate() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext request
+                && request.getCarrier().getHeader(HttpWarmupTask.HEADER) != null);
+    }
+}
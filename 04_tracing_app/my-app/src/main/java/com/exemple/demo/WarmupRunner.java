@@ -0,0 +1,189 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warm-up JIT au démarrage : les chemins chauds (beans WarmupTask) sont exécutés en boucle
+ * avant que l'application n'accepte le trafic, pour que les premières requêtes réelles ne
+ * passent pas par l'interpréteur.
+ *
+ * - Readiness à REFUSING_TRAFFIC pendant le warm-up : l'écouteur d'ApplicationReadyEvent bloque,
+ *   Spring Boot ne passe à ACCEPTING_TRAFFIC qu'ensuite (/actuator/health/readiness)
+ * - Par tours : batch-size exécutions de chaque tâche, sur concurrency threads
+ * - Arrêt quand la compilation se stabilise (CompilationMXBean : temps de compilation JIT du tour
+ *   inférieur à stable-compilation-ratio de sa durée, stable-rounds tours de suite, après
+ *   min-iterations), ou au budget max-iterations, ou après max-duration
+ * - Métrique application.warmup.time (tag outcome : stable, budget, timeout, failed)
+ *
+ * Les requêtes de warm-up passent par les vrais endpoints. Exclues de http.server.requests (en-tête
+ * X-Warmup), elles produisent des traces (traces.log, analyse, stockage en colonnes, export OTLP),
+ * comptent dans data.* et remplissent le cache de /user/{id}.
+ */
+@Component
+@ConditionalOnProperty(name = "demo.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final Map<String, WarmupTask> tasks;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${demo.warmup.concurrency:16}")
+    private int concurrency;
+
+    @Value("${demo.warmup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${demo.warmup.min-iterations:300}")
+    private int minIterations;
+
+    @Value("${demo.warmup.max-iterations:1000}")
+    private int maxIterations;
+
+    @Value("${demo.warmup.stable-compilation-ratio:0.05}")
+    private double stableCompilationRatio;
+
+    @Value("${demo.warmup.stable-rounds:2}")
+    private int stableRounds;
+
+    @Value("${demo.warmup.max-duration:30s}")
+    private Duration maxDuration;
+
+    private final AtomicLong durationNanos = new AtomicLong();
+    private final AtomicInteger iterations = new AtomicInteger();
+
+    public WarmupRunner(Map<String, WarmupTask> tasks, MeterRegistry meterRegistry) {
+        this.tasks = tasks;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+        if (tasks.isEmpty()) {
+            return;
+        }
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean compilationMonitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        logger.info("Warm-up JIT : {} tâches {}, {} à {} itérations, {}", tasks.size(), tasks.keySet(),
+                minIterations, maxIterations,
+                compilationMonitored ? "arrêt à la stabilisation de la compilation" : "compilation non mesurable, budget seul");
+
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        long compilationStart = compilationMonitored ? compilation.getTotalCompilationTime() : 0;
+        long lastCompilation = compilationStart;
+        int stable = 0;
+        int failures = 0;
+        String outcome = "budget";
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (iterations.get() < maxIterations) {
+                long roundStart = System.nanoTime();
+                int roundFailures = runRound(executor, deadline);
+                failures += roundFailures;
+                iterations.addAndGet(batchSize);
+                if (System.nanoTime() - deadline > 0) {
+                    outcome = "timeout";
+                    break;
+                }
+                if (roundFailures == batchSize * tasks.size()) {
+                    outcome = "failed";
+                    break;
+                }
+
+                if (compilationMonitored) {
+                    long total = compilation.getTotalCompilationTime();
+                    long roundCompilation = total - lastCompilation;
+                    long roundMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+                    lastCompilation = total;
+                    logger.debug("Warm-up : {} itérations, {} ms de compilation JIT sur un tour de {} ms",
+                            iterations.get(), roundCompilation, roundMs);
+                    stable = roundCompilation < stableCompilationRatio * roundMs ? stable + 1 : 0;
+                    if (stable >= stableRounds && iterations.get() >= minIterations) {
+                        outcome = "stable";
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "failed";
+        } finally {
+            executor.shutdownNow();
+        }
+
+        durationNanos.set(System.nanoTime() - start);
+        TimeGauge.builder("application.warmup.time", durationNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .description("Durée du warm-up JIT avant d'accepter le trafic")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        Gauge.builder("application.warmup.iterations", iterations, AtomicInteger::get)
+                .description("Exécutions de chaque tâche de warm-up")
+                .register(meterRegistry);
+        logger.info("Warm-up JIT terminé ({}) : {} itérations par tâche en {} ms, {} ms de compilation JIT, {} échecs",
+                outcome, iterations.get(), TimeUnit.NANOSECONDS.toMillis(durationNanos.get()),
+                compilationMonitored ? lastCompilation - compilationStart : -1, failures);
+    }
+
+    /**
+     * @return le nombre d'exécutions en échec
+     */
+    private int runRound(ExecutorService executor, long deadline) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(batchSize * tasks.size());
+        for (int i = 0; i < batchSize; i++) {
+            for (WarmupTask task : tasks.values()) {
+                futures.add(executor.submit(() -> {
+                    task.run();
+                    return null;
+                }));
+            }
+        }
+        int failures = 0;
+        Exception lastError = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                future.cancel(true);
+                failures++;
+                lastError = e;
+            }
+        }
+        if (lastError != null) {
+            logger.warn("Warm-up : {} exécutions en échec sur le tour, dernière erreur : {}", failures, lastError.toString());
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,11 @@
+package com.exemple.demo;
+
+/**
+ * Chemin chaud exécuté en boucle par WarmupRunner avant d'accepter le trafic.
+ * Tout bean de ce type est pris en compte, son nom de bean sert dans les logs.
+ */
+@FunctionalInterface
+public interface WarmupTask {
+
+    void run() throws Exception;
+}
@@ -0,0 +1,83 @@
+package com.exemple.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ColumnarSpanStore : statut des spans reçus du collecteur, dictionnaires (valeurs inconnues
+ * et libération à la suppression des chunks).
+ */
+class ColumnarSpanStoreTest {
+
+    private static long matched(ColumnarSpanStore store, String userId) {
+        return store.query(new SpanQuery().tag("user.id", userId)).getMatchedSpans();
+    }
+
+    private static long tagValues(ColumnarSpanStore store) {
+        return ((Number) store.getStats().get("tagValues")).longValue();
+    }
+
+    @Test
+    void unknownValueOnFullDictionaryMatchesNothing() {
+        ColumnarSpanStore store = new ColumnarSpanStore(10_000, 10);
+        for (int i = 0; i < 100; i++) {
+            store.append(i, 5, "database-query", "FINISHED", "user.id=u" + i);
+        }
+
+        assertEquals(10, tagValues(store));
+        assertEquals(1, matched(store, "u3"));
+        // u50 est tombé dans "(autres)", u999 n'a jamais été vu : aucun ne doit correspondre aux lignes débordées
+        assertEquals(0, matched(store, "u50"));
+        assertEquals(0, matched(store, "u999"));
+    }
+
+    @Test
+    void evictedChunksReleaseTheirDictionaryEntries() {
+        // Un seul chunk retenu : le suivant remplace le premier
+        ColumnarSpanStore store = new ColumnarSpanStore(ColumnarSpanStore.CHUNK_SIZE, 100_000);
+        for (int i = 0; i < ColumnarSpanStore.CHUNK_SIZE; i++) {
+            store.append(i, 5, "database-query", "FINISHED", "user.id=u" + i);
+        }
+        assertEquals(ColumnarSpanStore.CHUNK_SIZE, tagValues(store));
+
+        store.append(0, 5, "database-query", "FINISHED", "user.id=new");
+        assertEquals(1, tagValues(store));
+        assertEquals(0, matched(store, "u5"));
+        assertEquals(1, matched(store, "new"));
+
+        // Identifiants libérés réutilisés après la suppression suivante, sans croissance du dictionnaire
+        for (int round = 0; round < 3; round++) {
+            for (int i = 1; i < ColumnarSpanStore.CHUNK_SIZE; i++) {
+                store.append(i, 5, "database-query", "FINISHED", "user.id=r" + round + "-" + i);
+            }
+            store.append(0, 5, "database-query", "FINISHED", "user.id=last" + round);
+            assertEquals(1, tagValues(store));
+            assertEquals(1, matched(store, "last" + round));
+            assertEquals(0, matched(store, "r" + round + "-7"));
+        }
+    }
+
+    @Test
+    void failedSpansFromTracingServiceAreQueryableAsErrors() {
+        SimpleTraceCollector collector = new SimpleTraceCollector();
+        // Ni console ni traces.log pendant les tests
+        collector.applyTelemetryLevel(TelemetryLevel.MINIMAL, 1.0);
+        ColumnarSpanStore store = new ColumnarSpanStore(10_000, 100);
+        collector.addListener(store);
+        TracingService tracingService = new TracingService();
+        ReflectionTestUtils.setField(tracingService, "traceCollector", collector);
+
+        tracingService.trace("bonjour-eql-request", () -> { });
+        assertThrows(IllegalStateException.class, () -> tracingService.trace("database-query", (Runnable) () -> {
+            throw new IllegalStateException("timeout");
+        }));
+
+        SpanQuery.Result errors = store.query(new SpanQuery().status("ERROR").groupBy(SpanQuery.GROUP_BY_OPERATION));
+        assertEquals(1, errors.getMatchedSpans());
+        assertEquals("database-query", errors.getGroups().get(0).getKey());
+        assertEquals(1, store.query(new SpanQuery().status("FINISHED")).getMatchedSpans());
+    }
+}
@@ -0,0 +1,320 @@
+package com.exemple.demo;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OtlpTraceExporter contre un récepteur OTLP/HTTP embarqué (HttpServer du JDK) :
+ * batching, gzip, retry avec backoff et compteurs d'abandon.
+ */
+class OtlpTraceExporterTest {
+
+    private HttpServer receiver;
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    // Statuts renvoyés aux requêtes successives, 200 une fois la file vide
+    private final BlockingQueue<Integer> statuses = new LinkedBlockingQueue<>();
+    private volatile CountDownLatch blockReceiver;
+    private final CountDownLatch firstRequest = new CountDownLatch(1);
+    private OtlpTraceExporter exporter;
+    private final SimpleTraceCollector collector = new SimpleTraceCollector();
+
+    private record Request(String contentType, String contentEncoding, byte[] body) {
+
+        long spanCount() {
+            String payload = new String(body, StandardCharsets.ISO_8859_1);
+            return payload.split("op-", -1).length - 1;
+        }
+    }
+
+    @BeforeEach
+    void startReceiver() throws IOException {
+        // Ni console ni traces.log pendant les tests
+        collector.applyTelemetryLevel(TelemetryLevel.MINIMAL, 1.0);
+        receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        receiver.createContext("/v1/traces", exchange -> {
+            byte[] body;
+            try (InputStream in = new GZIPInputStream(exchange.getRequestBody())) {
+                body = in.readAllBytes();
+            }
+            requests.add(new Request(exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestHeaders().getFirst("Content-Encoding"), body));
+            firstRequest.countDown();
+            CountDownLatch block = blockReceiver;
+            if (block != null) {
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Integer status = statuses.poll();
+            exchange.sendResponseHeaders(status != null ? status : 200, -1);
+            exchange.close();
+        });
+        receiver.start();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (exporter != null) {
+            exporter.shutdown();
+        }
+        receiver.stop(0);
+    }
+
+    private OtlpTraceExporter exporter(String endpoint, int maxQueueSize, int maxBatchSize, int maxAttempts) {
+        OtlpTraceExporter otlp = new OtlpTraceExporter();
+        ReflectionTestUtils.setField(otlp, "traceCollector", collector);
+        ReflectionTestUtils.setField(otlp, "endpoint", endpoint);
+        ReflectionTestUtils.setField(otlp, "serviceName", "test");
+        ReflectionTestUtils.setField(otlp, "maxQueueSize", maxQueueSize);
+        ReflectionTestUtils.setField(otlp, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(otlp, "scheduleDelayMs", 200L);
+        ReflectionTestUtils.setField(otlp, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(otlp, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(otlp, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(otlp, "maxBackoffMs", 40L);
+        return otlp;
+    }
+
+    private OtlpTraceExporter startExporter(int maxQueueSize, int maxBatchSize, int maxAttempts) {
+        exporter = exporter("http://localhost:" + receiver.getAddress().getPort() + "/v1/traces",
+                maxQueueSize, maxBatchSize, maxAttempts);
+        exporter.start();
+        return exporter;
+    }
+
+    private static Trace finishedTrace(String operationName) {
+        Trace trace = new Trace(operationName);
+        trace.finish();
+        return trace;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private long stat(String name) {
+        return ((Number) exporter.getStats().get(name)).longValue();
+    }
+
+    @Test
+    void sendsGzippedProtobufBatchesOfAtMostMaxBatchSize() throws InterruptedException {
+        startExporter(100, 3, 1);
+        for (int i = 0; i < 7; i++) {
+            exporter.onTraceFinished(finishedTrace("op-" + i));
+        }
+
+        await(() -> stat("exportedSpans") == 7);
+        assertTrue(requests.size() >= 3);
+        long spans = 0;
+        for (Request request : requests) {
+            assertEquals("application/x-protobuf", request.contentType());
+            assertEquals("gzip", request.contentEncoding());
+            assertTrue(request.spanCount() >= 1 && request.spanCount() <= 3);
+            spans += request.spanCount();
+        }
+        assertEquals(7, spans);
+        assertEquals(0, stat("droppedSpans"));
+    }
+
+    @Test
+    void retriesRetryableStatusWithBackoff() throws InterruptedException {
+        statuses.add(503);
+        statuses.add(429);
+        startExporter(100, 10, 5);
+        exporter.onTraceFinished(finishedTrace("op-retried"));
+
+        await(() -> stat("exportedSpans") == 1);
+        assertEquals(3, requests.size());
+        assertEquals(0, stat("failedBatches"));
+        assertEquals(0, stat("droppedSpans"));
+    }
+
+    @Test
+    void dropsBatchAfterMaxAttempts() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            statuses.add(503);
+        }
+        startExporter(100, 10, 3);
+        exporter.onTraceFinished(finishedTrace("op-a"));
+        exporter.onTraceFinished(finishedTrace("op-b"));
+
+        await(() -> stat("failedBatches") == 1);
+        assertEquals(3, requests.size());
+        assertEquals(2, stat("droppedSpans"));
+        assertEquals(0, stat("exportedSpans"));
+    }
+
+    @Test
+    void doesNotRetryClientErrors() throws InterruptedException {
+        statuses.add(400);
+        startExporter(100, 10, 5);
+        exporter.onTraceFinished(finishedTrace("op-rejected"));
+
+        await(() -> stat("failedBatches") == 1);
+        assertEquals(1, requests.size());
+        assertEquals(1, stat("droppedSpans"));
+    }
+
+    @Test
+    void dropsSpansWhenQueueIsFull() throws InterruptedException {
+        blockReceiver = new CountDownLatch(1);
+        startExporter(2, 1, 1);
+        exporter.onTraceFinished(finishedTrace("op-in-flight"));
+        assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+
+        // Le thread d'export est bloqué sur la requête en cours : 2 spans en file, 3 abandonnés
+        for (int i = 0; i < 5; i++) {
+            exporter.onTraceFinished(finishedTrace("op-" + i));
+        }
+        assertEquals(3, stat("droppedSpans"));
+        blockReceiver.countDown();
+
+        await(() -> stat("exportedSpans") == 3);
+        assertEquals(3, stat("droppedSpans"));
+    }
+
+    @Test
+    void keepsExportingAfterABatchFailsToEncode() throws InterruptedException {
+        startExporter(100, 1, 1);
+        // Trace sans traceId : l'encodage lève une RuntimeException
+        exporter.onTraceFinished(new Trace("op-broken", null, null));
+        exporter.onTraceFinished(finishedTrace("op-ok"));
+
+        await(() -> stat("exportedSpans") == 1);
+        assertEquals(1, stat("failedBatches"));
+        assertEquals(1, stat("droppedSpans"));
+    }
+
+    @Test
+    void rejectsInvalidEndpointAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> exporter("localhost:4318/v1/traces", 10, 10, 1).start());
+        assertThrows(IllegalArgumentException.class, () -> exporter("http://bad host/v1/traces", 10, 10, 1).start());
+        assertThrows(IllegalArgumentException.class, () -> exporter("ftp://localhost/v1/traces", 10, 10, 1).start());
+    }
+
+    @Test
+    void encodesNonErrorSpansWithUnsetStatus() {
+        Trace trace = finishedTrace("op-unset");
+        byte[] payload = OtlpTraceEncoder.encode(List.of(trace), Map.of());
+        // Status vide (code UNSET omis) : tag 15, longueur 0
+        String encoded = new String(payload, StandardCharsets.ISO_8859_1);
+        assertTrue(encoded.endsWith(new String(new byte[]{(byte) 0x7A, 0}, StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    void exportsFailedChildSpanWithIdsAttributesAndErrorStatus() throws InterruptedException {
+        startExporter(100, 10, 1);
+        Trace parent = collector.startTrace("get-user-request");
+        Trace child = collector.startChildTrace("database-query", parent);
+        child.addTag("user.id", "42");
+        collector.addError(child, "timeout");
+        collector.finishTrace(child);
+        collector.finishTrace(parent);
+
+        await(() -> stat("exportedSpans") == 2);
+        List<Map<Integer, List<Object>>> spans = new ArrayList<>();
+        for (Request request : requests) {
+            for (Object resourceSpans : fields(request.body()).get(1)) {
+                for (Object scopeSpans : fields((byte[]) resourceSpans).get(2)) {
+                    for (Object span : fields((byte[]) scopeSpans).get(2)) {
+                        spans.add(fields((byte[]) span));
+                    }
+                }
+            }
+        }
+        assertEquals(2, spans.size());
+        Map<Integer, List<Object>> span = spans.stream()
+                .filter(s -> "database-query".equals(string(s, 5)))
+                .findFirst().orElseThrow();
+
+        assertEquals(String.format("%32s", parent.getTraceId()).replace(' ', '0'), hex(span, 1));
+        assertEquals(String.format("%16s", child.getSpanId()).replace(' ', '0'), hex(span, 2));
+        assertEquals(String.format("%16s", parent.getSpanId()).replace(' ', '0'), hex(span, 4));
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (Object keyValue : span.get(9)) {
+            Map<Integer, List<Object>> kv = fields((byte[]) keyValue);
+            attributes.put(string(kv, 1), string(fields((byte[]) kv.get(2).get(0)), 1));
+        }
+        assertEquals(Map.of("user.id", "42", "error", "timeout"), attributes);
+
+        // Status : code ERROR (2) et message
+        Map<Integer, List<Object>> status = fields((byte[]) span.get(15).get(0));
+        assertEquals(2L, status.get(3).get(0));
+        assertEquals("timeout", string(status, 2));
+    }
+
+    /**
+     * Champs d'un message protobuf : varint et fixed64 en Long, length-delimited en byte[]
+     */
+    private static Map<Integer, List<Object>> fields(byte[] message) {
+        Map<Integer, List<Object>> fields = new HashMap<>();
+        ByteBuffer in = ByteBuffer.wrap(message).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        while (in.hasRemaining()) {
+            long tag = varint(in);
+            Object value = switch ((int) (tag & 7)) {
+                case 0 -> varint(in);
+                case 1 -> in.getLong();
+                case 2 -> {
+                    byte[] bytes = new byte[(int) varint(in)];
+                    in.get(bytes);
+                    yield bytes;
+                }
+                default -> throw new IllegalStateException("wire type " + (tag & 7));
+            };
+            fields.computeIfAbsent((int) (tag >>> 3), f -> new ArrayList<>()).add(value);
+        }
+        return fields;
+    }
+
+    private static long varint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String string(Map<Integer, List<Object>> fields, int field) {
+        return new String((byte[]) fields.get(field).get(0), StandardCharsets.UTF_8);
+    }
+
+    private static String hex(Map<Integer, List<Object>> fields, int field) {
+        return HexFormat.of().formatHex((byte[]) fields.get(field).get(0));
+    }
+}
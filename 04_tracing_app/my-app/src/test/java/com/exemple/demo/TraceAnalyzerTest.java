@@ -0,0 +1,54 @@
+package com.exemple.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * TraceAnalyzer : erreurs des spans enfants comptées sur les arêtes du graphe des dépendances.
+ */
+class TraceAnalyzerTest {
+
+    @Test
+    void failedDatabaseQueryIsCountedOnItsEdge() {
+        SimpleTraceCollector collector = new SimpleTraceCollector();
+        // Ni console ni traces.log pendant les tests
+        collector.applyTelemetryLevel(TelemetryLevel.MINIMAL, 1.0);
+        TraceAnalyzer analyzer = new TraceAnalyzer();
+        ReflectionTestUtils.setField(analyzer, "traceCollector", collector);
+        ReflectionTestUtils.setField(analyzer, "maxPendingTraces", 100);
+        ReflectionTestUtils.setField(analyzer, "maxPendingAgeMs", 60_000L);
+        ReflectionTestUtils.setField(analyzer, "maxEdges", 100);
+        analyzer.start();
+
+        getUser(collector, null);
+        getUser(collector, "timeout");
+
+        Map<String, Object> edge = edge(analyzer, "get-user-request", "database-query");
+        assertEquals(2L, edge.get("calls"));
+        assertEquals(1L, edge.get("errors"));
+        assertEquals(0L, edge(analyzer, "get-user-request", "validate-user").get("errors"));
+    }
+
+    private static void getUser(SimpleTraceCollector collector, String dbError) {
+        Trace request = collector.startTrace("get-user-request");
+        collector.finishTrace(collector.startChildTrace("validate-user", request));
+        Trace query = collector.startChildTrace("database-query", request);
+        if (dbError != null) {
+            collector.addError(query, dbError);
+        }
+        collector.finishTrace(query);
+        collector.finishTrace(request);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> edge(TraceAnalyzer analyzer, String parent, String child) {
+        return ((List<Map<String, Object>>) analyzer.getSummary().get("edges")).stream()
+                .filter(edge -> parent.equals(edge.get("parent")) && child.equals(edge.get("child")))
+                .findFirst().orElseThrow();
+    }
+}
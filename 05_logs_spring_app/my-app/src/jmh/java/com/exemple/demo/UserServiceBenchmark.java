@@ -0,0 +1,138 @@
+package com.exemple.demo;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the logging done by UserService on its read path.
+ *
+ * Key points demonstrated:
+ * - baseline: the same lookup without MDC nor logs
+ * - getUserById / getUserByIdMissing: cache hit (the database is only read once per id),
+ *   MDC scope, sampled and rate limited guards, "not found" INFO line
+ * - mdcScope: MdcScope open/close alone (correlation ID + operation)
+ * - infoLog: one parameterized INFO line through the file pattern
+ *
+ * Logback is configured like the file appender of application.yml (same pattern, MDC block included)
+ * but writes to a null stream: formatting and appender locking are measured, not the disk.
+ * The level parameter compares the production level (INFO) with the development profile (DEBUG).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserServiceBenchmark {
+
+    private static final String FILE_PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p 1234 --- [%t] "
+            + "[%X{correlationId:-},%X{traceId:-},%X{spanId:-}] %-40.40logger{39} : %m%n%ex";
+    private static final int USERS = 16;
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(UserServiceBenchmark.class);
+
+    @Param({"INFO", "DEBUG"})
+    public String level;
+
+    private UserService userService;
+    private final Map<String, User> users = new HashMap<>();
+    private String[] userIds;
+
+    @Setup
+    public void setUp() {
+        configureLogback(Level.toLevel(level));
+        userService = new UserService(new TinyLfuCache<>(1_000, Duration.ofMinutes(10)));
+        while (users.size() < USERS) {
+            int i = users.size();
+            try {
+                User user = userService.createUser("user" + i, "user" + i + "@exemple.com");
+                users.put(user.getId(), user);
+            } catch (RuntimeException e) {
+                // Simulated system error (10%): retry
+            }
+        }
+        userIds = users.keySet().toArray(new String[0]);
+    }
+
+    private static void configureLogback(Level level) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(FILE_PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        context.getLogger("com.exemple.demo").setLevel(level);
+    }
+
+    /**
+     * Round-robin over the users, one cursor per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextId(String[] userIds) {
+            return userIds[next++ & (USERS - 1)];
+        }
+    }
+
+    @Benchmark
+    public User baseline(Cursor cursor) {
+        return users.get(cursor.nextId(userIds));
+    }
+
+    @Benchmark
+    public User getUserById(Cursor cursor) {
+        return userService.getUserById(cursor.nextId(userIds));
+    }
+
+    @Benchmark
+    public User getUserByIdMissing() {
+        return userService.getUserById("unknown-user");
+    }
+
+    @Benchmark
+    public void mdcScope() {
+        try (MdcScope mdc = MdcScope.open("getUserById")) {
+            mdc.put("userId", "benchmark");
+        }
+    }
+
+    @Benchmark
+    public void infoLog(Cursor cursor) {
+        logger.info("event=user_accessed userId={} timestamp={}", cursor.nextId(userIds), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,60 @@
+package com.exemple.demo;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cheap correlation ID generation for log context.
+ *
+ * Key points:
+ * - Time-ordered 128-bit IDs (48 bits of epoch millis + 80 random bits, UUIDv7-like)
+ * - Random bits come from ThreadLocalRandom, never from SecureRandom (no entropy blocking)
+ * - An ID already present in the MDC (correlationId or traceId) is reused
+ */
+public final class CorrelationId {
+
+    public static final String MDC_KEY = "correlationId";
+    public static final String TRACE_ID_KEY = "traceId";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private CorrelationId() {
+    }
+
+    /**
+     * Returns the correlation ID of the current context, or a new one if there is none
+     */
+    public static String current() {
+        String existing = MDC.get(MDC_KEY);
+        if (existing != null && !existing.isEmpty()) {
+            return existing;
+        }
+        String traceId = MDC.get(TRACE_ID_KEY);
+        if (traceId != null && !traceId.isEmpty()) {
+            return traceId;
+        }
+        return next();
+    }
+
+    /**
+     * Generates a new time-ordered ID as 32 lowercase hex characters
+     */
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = (System.currentTimeMillis() << 16) | (random.nextInt() & 0xFFFFL);
+        long low = random.nextLong();
+
+        char[] chars = new char[32];
+        writeHex(chars, 0, high);
+        writeHex(chars, 16, low);
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
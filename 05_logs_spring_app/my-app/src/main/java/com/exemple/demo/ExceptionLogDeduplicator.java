@@ -0,0 +1,114 @@
+package com.exemple.demo;
+
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exception log deduplication: an error storm must not also become a GC and I/O storm.
+ *
+ * Key points:
+ * - Each stack trace is fingerprinted (exception types + frames, causes included)
+ * - The first occurrence is logged with its full stack trace and a short reference (stack=xxxxxxxx)
+ * - Repeats only log the message, the reference and the occurrence count
+ * - The full stack trace is printed again after REPRINT_INTERVAL, so it survives log rotation
+ */
+public final class ExceptionLogDeduplicator {
+
+    private static final int MAX_FINGERPRINTS = 1024;
+    private static final long REPRINT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    private static final Map<Long, Entry> SEEN = new ConcurrentHashMap<>();
+
+    private ExceptionLogDeduplicator() {
+    }
+
+    /**
+     * Logs at ERROR level, printing the stack trace only if it has not been printed recently
+     */
+    public static void error(Logger logger, Throwable throwable, String format, Object... args) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+
+        long fingerprint = fingerprint(throwable);
+        Entry entry = SEEN.get(fingerprint);
+        if (entry == null) {
+            if (SEEN.size() >= MAX_FINGERPRINTS) {
+                // Too many distinct stacks to track: fall back to plain logging
+                logger.atError().setCause(throwable).log(format, args);
+                return;
+            }
+            entry = SEEN.computeIfAbsent(fingerprint, Entry::new);
+        }
+
+        long count = entry.record();
+        Object[] refArgs = Arrays.copyOf(args, args.length + 2);
+        refArgs[args.length] = entry.reference;
+        refArgs[args.length + 1] = count;
+
+        if (entry.shouldPrintStack()) {
+            logger.atError().setCause(throwable).log(format + " [stack={}, occurrence #{}]", refArgs);
+        } else {
+            logger.error(format + " [stack={} already logged, occurrence #{}]", refArgs);
+        }
+    }
+
+    /**
+     * Number of times the given stack has been logged (0 if never seen)
+     */
+    public static long count(Throwable throwable) {
+        Entry entry = SEEN.get(fingerprint(throwable));
+        return entry != null ? entry.count.sum() : 0;
+    }
+
+    static long fingerprint(Throwable throwable) {
+        long hash = 1125899906842597L;
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            hash = 31 * hash + current.getClass().getName().hashCode();
+            for (StackTraceElement frame : current.getStackTrace()) {
+                hash = 31 * hash + frame.getClassName().hashCode();
+                hash = 31 * hash + frame.getMethodName().hashCode();
+                hash = 31 * hash + frame.getLineNumber();
+            }
+            current = current.getCause() != current ? current.getCause() : null;
+        }
+        return hash;
+    }
+
+    private static final class Entry {
+        private final String reference;
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong lastPrintedNanos = new AtomicLong();
+        private volatile boolean printed;
+
+        private Entry(long fingerprint) {
+            this.reference = String.format("%08x", (int) (fingerprint ^ (fingerprint >>> 32)));
+        }
+
+        private long record() {
+            count.increment();
+            return count.sum();
+        }
+
+        private boolean shouldPrintStack() {
+            long now = System.nanoTime();
+            long last = lastPrintedNanos.get();
+            if (printed && now - last < REPRINT_INTERVAL_NANOS) {
+                return false;
+            }
+            if (lastPrintedNanos.compareAndSet(last, now)) {
+                printed = true;
+                return true;
+            }
+            return false;
+        }
+    }
+}
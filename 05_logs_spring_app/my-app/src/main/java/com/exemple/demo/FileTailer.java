@@ -0,0 +1,137 @@
+package com.exemple.demo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Incremental NIO file tailer (not thread-safe, polled by a single thread).
+ *
+ * Key points:
+ * - Only the bytes appended since the last poll are read (offset tracking)
+ * - Rotation is detected through the file key (inode) or a shrinking size:
+ *   the old file is drained to its end before switching to the new one
+ * - A partial last line is kept until its end of line is written
+ */
+public class FileTailer implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] partialLine = new byte[256];
+    private int partialLength;
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long offset;
+
+    public FileTailer(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads everything appended since the last call and passes complete lines to the consumer
+     */
+    public void poll(Consumer<String> lineConsumer) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // Rotation in progress or file not created yet
+            return;
+        }
+
+        boolean rotated = channel != null
+                && (!Objects.equals(fileKey, attributes.fileKey()) || attributes.size() < offset);
+        if (rotated) {
+            // Finish the rotated file (still readable through the open channel) before switching
+            readAvailable(lineConsumer);
+            flushPartialLine(lineConsumer);
+            close();
+        }
+
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            fileKey = attributes.fileKey();
+            offset = 0;
+        }
+        readAvailable(lineConsumer);
+    }
+
+    private void readAvailable(Consumer<String> lineConsumer) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return;
+            }
+            offset += read;
+            buffer.flip();
+            splitLines(lineConsumer);
+        }
+    }
+
+    private void splitLines(Consumer<String> lineConsumer) {
+        byte[] bytes = buffer.array();
+        int start = 0;
+        int end = buffer.limit();
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            int lineEnd = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+            if (partialLength > 0) {
+                appendPartial(bytes, start, lineEnd - start);
+                lineConsumer.accept(new String(partialLine, 0, partialLength, StandardCharsets.UTF_8));
+                partialLength = 0;
+            } else {
+                lineConsumer.accept(new String(bytes, start, lineEnd - start, StandardCharsets.UTF_8));
+            }
+            start = i + 1;
+        }
+        if (start < end) {
+            appendPartial(bytes, start, end - start);
+        }
+    }
+
+    private void appendPartial(byte[] bytes, int from, int length) {
+        if (partialLength + length > partialLine.length) {
+            partialLine = Arrays.copyOf(partialLine, Math.max(partialLine.length * 2, partialLength + length));
+        }
+        System.arraycopy(bytes, from, partialLine, partialLength, length);
+        partialLength += length;
+    }
+
+    private void flushPartialLine(Consumer<String> lineConsumer) {
+        if (partialLength > 0) {
+            lineConsumer.accept(new String(partialLine, 0, partialLength, StandardCharsets.UTF_8));
+            partialLength = 0;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.exemple.demo;
+
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Synthetic request to the application itself (localhost, actual server port):
+ * the whole stack is warmed up, Tomcat, filters, controller, JSON serialization.
+ *
+ * Every request carries an X-Warmup header, to tell it apart from real traffic.
+ */
+class HttpWarmupTask implements WarmupTask {
+
+    static final String HEADER = "X-Warmup";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final Environment environment;
+    private final String method;
+    private final Supplier<String> path;
+    private final String body;
+
+    HttpWarmupTask(HttpClient httpClient, Environment environment, String method, Supplier<String> path, String body) {
+        this.httpClient = httpClient;
+        this.environment = environment;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+    }
+
+    /**
+     * @throws IllegalStateException on a non-2xx response, 503 (load shedding) included
+     */
+    @Override
+    public void run() throws Exception {
+        // Port only known once the server is started (0 = random port)
+        String port = environment.getProperty("local.server.port", "8080");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path.get()))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .header(HEADER, "true")
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + request.uri().getPath() + " : HTTP " + response.statusCode());
+        }
+    }
+}
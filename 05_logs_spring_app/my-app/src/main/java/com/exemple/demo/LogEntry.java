@@ -0,0 +1,53 @@
+package com.exemple.demo;
+
+/**
+ * A parsed log line (see LogLineParser)
+ */
+public class LogEntry {
+    private final String timestamp;
+    private final String level;
+    private final String thread;
+    private final String logger;
+    private final String correlationId;
+    private final String traceId;
+    private final String spanId;
+    private final String message;
+    private final String source;
+
+    public LogEntry(String timestamp, String level, String thread, String logger,
+                    String correlationId, String traceId, String spanId,
+                    String message, String source) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.thread = thread;
+        this.logger = logger;
+        this.correlationId = emptyToNull(correlationId);
+        this.traceId = emptyToNull(traceId);
+        this.spanId = emptyToNull(spanId);
+        this.message = message;
+        this.source = source;
+    }
+
+    /**
+     * Same entry with a continuation line (e.g. stack trace) appended to the message
+     */
+    LogEntry withContinuation(String continuation) {
+        return new LogEntry(timestamp, level, thread, logger, correlationId, traceId, spanId,
+                message + "\n" + continuation, source);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // Getters
+    public String getTimestamp() { return timestamp; }
+    public String getLevel() { return level; }
+    public String getThread() { return thread; }
+    public String getLogger() { return logger; }
+    public String getCorrelationId() { return correlationId; }
+    public String getTraceId() { return traceId; }
+    public String getSpanId() { return spanId; }
+    public String getMessage() { return message; }
+    public String getSource() { return source; }
+}
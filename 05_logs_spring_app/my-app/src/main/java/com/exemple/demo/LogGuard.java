@@ -0,0 +1,160 @@
+package com.exemple.demo;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-volume guard for hot paths: one instance per call site.
+ *
+ * Key points:
+ * - Rate limiting: at most N messages per second, the rest are counted and
+ *   reported in a single "suppressed" summary line when the next second starts
+ * - Sampling: only a fraction of the calls are logged (for repetitive INFO/DEBUG lines)
+ * - The logger level is checked first, so a disabled level costs nothing
+ * - Guards are registered by name so they can be inspected and tuned at runtime
+ *   through the "logguard" Actuator endpoint
+ */
+public final class LogGuard {
+
+    /** Value of permitsPerSecond meaning "no rate limit" */
+    public static final int UNLIMITED = 0;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final Map<String, LogGuard> REGISTRY = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Logger logger;
+    private volatile int permitsPerSecond;
+    private volatile double sampleRate;
+
+    private final AtomicLong currentWindow = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger permitsUsed = new AtomicInteger();
+    private final LongAdder suppressedInWindow = new LongAdder();
+
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private LogGuard(String name, Logger logger, int permitsPerSecond, double sampleRate) {
+        this.name = name;
+        this.logger = logger;
+        configure(permitsPerSecond, sampleRate);
+    }
+
+    /**
+     * Creates (or returns the already registered) guard for a call site
+     */
+    public static LogGuard of(String name, Logger logger, int permitsPerSecond, double sampleRate) {
+        return REGISTRY.computeIfAbsent(name, n -> new LogGuard(n, logger, permitsPerSecond, sampleRate));
+    }
+
+    /**
+     * Guard that lets at most permitsPerSecond messages through per second
+     */
+    public static LogGuard rateLimited(String name, Logger logger, int permitsPerSecond) {
+        return of(name, logger, permitsPerSecond, 1.0);
+    }
+
+    /**
+     * Guard that logs only a fraction (0..1) of the calls
+     */
+    public static LogGuard sampled(String name, Logger logger, double sampleRate) {
+        return of(name, logger, UNLIMITED, sampleRate);
+    }
+
+    public static Collection<LogGuard> all() {
+        return Collections.unmodifiableCollection(REGISTRY.values());
+    }
+
+    public static LogGuard get(String name) {
+        return REGISTRY.get(name);
+    }
+
+    public void configure(int permitsPerSecond, double sampleRate) {
+        if (permitsPerSecond < 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be >= 0");
+        }
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.sampleRate = sampleRate;
+    }
+
+    public void trace(String format, Object... args) {
+        log(Level.TRACE, format, args);
+    }
+
+    public void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args);
+    }
+
+    public void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
+    public void warn(String format, Object... args) {
+        log(Level.WARN, format, args);
+    }
+
+    private void log(Level level, String format, Object... args) {
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+        if (!tryAcquire(level)) {
+            return;
+        }
+        emitted.increment();
+        logger.atLevel(level).log(format, args);
+    }
+
+    private boolean tryAcquire(Level level) {
+        double rate = sampleRate;
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            sampledOut.increment();
+            return false;
+        }
+
+        int permits = permitsPerSecond;
+        if (permits == UNLIMITED) {
+            return true;
+        }
+
+        long window = System.nanoTime() / NANOS_PER_SECOND;
+        long previous = currentWindow.get();
+        if (window != previous && currentWindow.compareAndSet(previous, window)) {
+            // First call of a new second: reset the budget and report what was dropped
+            permitsUsed.set(0);
+            long suppressed = suppressedInWindow.sumThenReset();
+            if (suppressed > 0) {
+                logger.atLevel(level).log("⏸️ {} similar messages suppressed by log guard '{}' (limit {}/s)",
+                        suppressed, name, permits);
+            }
+        }
+
+        if (permitsUsed.incrementAndGet() <= permits) {
+            return true;
+        }
+        suppressedInWindow.increment();
+        rateLimited.increment();
+        return false;
+    }
+
+    // Getters (exposed by the logguard endpoint)
+    public String getName() { return name; }
+    public String getLoggerName() { return logger.getName(); }
+    public int getPermitsPerSecond() { return permitsPerSecond; }
+    public double getSampleRate() { return sampleRate; }
+    public long getEmitted() { return emitted.sum(); }
+    public long getRateLimited() { return rateLimited.sum(); }
+    public long getSampledOut() { return sampledOut.sum(); }
+}
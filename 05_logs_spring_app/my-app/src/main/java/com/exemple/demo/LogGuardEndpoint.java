@@ -0,0 +1,64 @@
+package com.exemple.demo;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint to inspect and tune the log guards at runtime (no restart needed).
+ *
+ * - GET  /actuator/logguard          : statistics of every guard
+ * - POST /actuator/logguard/{name}   : {"permitsPerSecond": 10, "sampleRate": 0.1}
+ *
+ * Logger levels themselves are changed with the standard /actuator/loggers endpoint.
+ */
+@Component
+@Endpoint(id = "logguard")
+public class LogGuardEndpoint {
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> guards() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (LogGuard guard : LogGuard.all()) {
+            result.put(guard.getName(), describe(guard));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> guard(@Selector String name) {
+        LogGuard guard = LogGuard.get(name);
+        return guard != null ? describe(guard) : null;
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Selector String name,
+                                         @Nullable Integer permitsPerSecond,
+                                         @Nullable Double sampleRate) {
+        LogGuard guard = LogGuard.get(name);
+        if (guard == null) {
+            return null;
+        }
+        guard.configure(permitsPerSecond != null ? permitsPerSecond : guard.getPermitsPerSecond(),
+                sampleRate != null ? sampleRate : guard.getSampleRate());
+        return describe(guard);
+    }
+
+    private Map<String, Object> describe(LogGuard guard) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("logger", guard.getLoggerName());
+        stats.put("permitsPerSecond", guard.getPermitsPerSecond());
+        stats.put("sampleRate", guard.getSampleRate());
+        stats.put("emitted", guard.getEmitted());
+        stats.put("rateLimited", guard.getRateLimited());
+        stats.put("sampledOut", guard.getSampledOut());
+        return stats;
+    }
+}
@@ -0,0 +1,193 @@
+package com.exemple.demo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact in-memory inverted index over the most recent log entries.
+ *
+ * Key points:
+ * - Entries live in a fixed-size ring buffer addressed by a sequence number
+ * - Postings are primitive long arrays of sequence numbers (no boxing), per
+ *   correlation ID, per trace ID and per level
+ * - When an entry is evicted, keys whose postings end with it are dropped,
+ *   so memory stays bounded by the ring capacity
+ */
+public class LogIndex {
+
+    private static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+
+    private final LogEntry[] ring;
+    private final Map<String, Postings> byCorrelationId = new HashMap<>();
+    private final Map<String, Postings> byTraceId = new HashMap<>();
+    private final Postings[] byLevel = new Postings[LEVELS.length];
+    private long nextSeq;
+
+    public LogIndex(int capacity) {
+        this.ring = new LogEntry[capacity];
+        for (int i = 0; i < byLevel.length; i++) {
+            byLevel[i] = new Postings();
+        }
+    }
+
+    public synchronized void add(LogEntry entry) {
+        long seq = nextSeq++;
+        int slot = (int) (seq % ring.length);
+        LogEntry evicted = ring[slot];
+        if (evicted != null) {
+            evict(evicted, seq - ring.length);
+        }
+        ring[slot] = entry;
+
+        index(byCorrelationId, entry.getCorrelationId(), seq);
+        index(byTraceId, entry.getTraceId(), seq);
+        int level = levelIndex(entry.getLevel());
+        if (level >= 0) {
+            byLevel[level].add(seq);
+        }
+    }
+
+    /**
+     * Most recent entries for a trace ID, newest first
+     */
+    public synchronized List<LogEntry> findByTraceId(String traceId, int limit) {
+        return collect(byTraceId.get(traceId), null, limit);
+    }
+
+    /**
+     * Most recent entries matching a correlation ID, else a trace ID, else only a level
+     * (the level is applied as a filter when an ID is given), newest first
+     */
+    public synchronized List<LogEntry> find(String correlationId, String traceId, String level, int limit) {
+        Postings postings = null;
+        if (correlationId != null) {
+            postings = byCorrelationId.get(correlationId);
+        } else if (traceId != null) {
+            postings = byTraceId.get(traceId);
+        } else if (level != null) {
+            int index = levelIndex(level);
+            postings = index >= 0 ? byLevel[index] : null;
+            level = null;
+        } else {
+            return latest(limit);
+        }
+        return collect(postings, level, limit);
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(nextSeq, ring.length);
+    }
+
+    public synchronized int distinctCorrelationIds() {
+        return byCorrelationId.size();
+    }
+
+    public synchronized int distinctTraceIds() {
+        return byTraceId.size();
+    }
+
+    private List<LogEntry> latest(int limit) {
+        List<LogEntry> result = new ArrayList<>(Math.min(limit, size()));
+        for (long seq = nextSeq - 1; seq >= oldestSeq() && result.size() < limit; seq--) {
+            result.add(ring[(int) (seq % ring.length)]);
+        }
+        return result;
+    }
+
+    private List<LogEntry> collect(Postings postings, String levelFilter, int limit) {
+        if (postings == null) {
+            return List.of();
+        }
+        long oldest = oldestSeq();
+        List<LogEntry> result = new ArrayList<>(Math.min(limit, postings.size()));
+        for (int i = postings.tail - 1; i >= postings.head && result.size() < limit; i--) {
+            long seq = postings.seqs[i];
+            if (seq < oldest) {
+                break;
+            }
+            LogEntry entry = ring[(int) (seq % ring.length)];
+            if (levelFilter == null || levelFilter.equalsIgnoreCase(entry.getLevel())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private void evict(LogEntry entry, long seq) {
+        unindex(byCorrelationId, entry.getCorrelationId(), seq);
+        unindex(byTraceId, entry.getTraceId(), seq);
+        int level = levelIndex(entry.getLevel());
+        if (level >= 0) {
+            byLevel[level].removeFirstIf(seq);
+        }
+    }
+
+    private long oldestSeq() {
+        return Math.max(0, nextSeq - ring.length);
+    }
+
+    private static void index(Map<String, Postings> map, String key, long seq) {
+        if (key != null) {
+            map.computeIfAbsent(key, k -> new Postings()).add(seq);
+        }
+    }
+
+    private static void unindex(Map<String, Postings> map, String key, long seq) {
+        if (key == null) {
+            return;
+        }
+        Postings postings = map.get(key);
+        if (postings == null) {
+            return;
+        }
+        postings.removeFirstIf(seq);
+        if (postings.size() == 0) {
+            map.remove(key);
+        }
+    }
+
+    private static int levelIndex(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equalsIgnoreCase(level)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Growable array of ascending sequence numbers, removed from the head as entries are evicted
+     */
+    private static final class Postings {
+        private long[] seqs = new long[4];
+        private int head;
+        private int tail;
+
+        private void add(long seq) {
+            if (tail == seqs.length) {
+                if (head > seqs.length / 2) {
+                    // Reclaim the evicted prefix instead of growing
+                    System.arraycopy(seqs, head, seqs, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                } else {
+                    seqs = Arrays.copyOf(seqs, seqs.length * 2);
+                }
+            }
+            seqs[tail++] = seq;
+        }
+
+        private void removeFirstIf(long seq) {
+            if (head < tail && seqs[head] == seq) {
+                head++;
+            }
+        }
+
+        private int size() {
+            return tail - head;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.exemple.demo;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Log ingestion pipeline, no external log stack needed.
+ *
+ * Key points demonstrated:
+ * - Incremental tailing of the log files and of the 04 traces.log (see FileTailer)
+ * - Parsing into fields: timestamp, level, logger, correlationId, traceId/spanId (see LogLineParser)
+ * - In-memory inverted index by correlation ID, trace ID and level (see LogIndex)
+ * - Join of logs and spans for a given trace
+ */
+@Service
+public class LogIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogIngestionService.class);
+
+    // Stack trace lines kept per log event, the rest is dropped
+    private static final int MAX_CONTINUATION_LINES = 20;
+
+    private final List<LogSource> logSources = new ArrayList<>();
+    private final List<FileTailer> traceTailers = new ArrayList<>();
+    private final LogIndex index;
+    private final Map<String, List<SpanRecord>> spansByTraceId;
+    private final long pendingIdleNanos;
+
+    public LogIngestionService(@Value("${demo.ingestion.log-files:logs/demo-app.log}") List<String> logFiles,
+                               @Value("${demo.ingestion.trace-files:}") List<String> traceFiles,
+                               @Value("${demo.ingestion.max-entries:100000}") int maxEntries,
+                               @Value("${demo.ingestion.max-traces:10000}") int maxTraces,
+                               @Value("${demo.ingestion.pending-idle-ms:2000}") long pendingIdleMs) {
+        for (String file : logFiles) {
+            if (!file.isBlank()) {
+                logSources.add(new LogSource(new FileTailer(Path.of(file.trim()))));
+            }
+        }
+        for (String file : traceFiles) {
+            if (!file.isBlank()) {
+                traceTailers.add(new FileTailer(Path.of(file.trim())));
+            }
+        }
+        this.index = new LogIndex(maxEntries);
+        this.pendingIdleNanos = pendingIdleMs * 1_000_000;
+        // Oldest traces are dropped first
+        this.spansByTraceId = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<SpanRecord>> eldest) {
+                return size() > maxTraces;
+            }
+        };
+    }
+
+    /**
+     * Reads what has been appended to the files since the previous poll.
+     * A stack trace may be split across two polls: the pending event is indexed when the next
+     * header line arrives, or once the file has been idle for demo.ingestion.pending-idle-ms
+     */
+    @Scheduled(fixedDelayString = "${demo.ingestion.poll-interval-ms:1000}")
+    public void poll() {
+        long now = System.nanoTime();
+        for (LogSource source : logSources) {
+            try {
+                source.tailer.poll(line -> source.accept(line, now));
+                if (now - source.lastLineNanos >= pendingIdleNanos) {
+                    source.flush();
+                }
+            } catch (IOException e) {
+                logger.warn("⚠️ Unable to tail log file {}: {}", source.tailer.getPath(), e.getMessage());
+            }
+        }
+        for (FileTailer tailer : traceTailers) {
+            try {
+                tailer.poll(this::acceptSpanLine);
+            } catch (IOException e) {
+                logger.warn("⚠️ Unable to tail trace file {}: {}", tailer.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    public List<LogEntry> search(String correlationId, String traceId, String level, int limit) {
+        return index.find(correlationId, traceId, level, limit);
+    }
+
+    /**
+     * Spans of a trace and the logs carrying its ID (as traceId or correlationId)
+     */
+    public Map<String, Object> getTrace(String traceId, int limit) {
+        List<SpanRecord> spans;
+        synchronized (spansByTraceId) {
+            spans = new ArrayList<>(spansByTraceId.getOrDefault(traceId, List.of()));
+        }
+        List<LogEntry> logs = new ArrayList<>(index.findByTraceId(traceId, limit));
+        if (logs.size() < limit) {
+            for (LogEntry entry : index.find(traceId, null, null, limit - logs.size())) {
+                if (!traceId.equals(entry.getTraceId())) {
+                    logs.add(entry);
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", traceId);
+        result.put("spans", spans);
+        result.put("logs", logs);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("indexedEntries", index.size());
+        stats.put("distinctCorrelationIds", index.distinctCorrelationIds());
+        stats.put("distinctTraceIds", index.distinctTraceIds());
+        synchronized (spansByTraceId) {
+            stats.put("tracesWithSpans", spansByTraceId.size());
+        }
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        logSources.forEach(source -> offsets.put(source.tailer.getPath().toString(), source.tailer.getOffset()));
+        traceTailers.forEach(tailer -> offsets.put(tailer.getPath().toString(), tailer.getOffset()));
+        stats.put("offsets", offsets);
+        return stats;
+    }
+
+    private void acceptSpanLine(String line) {
+        SpanRecord span = LogLineParser.parseSpan(line);
+        if (span == null) {
+            return;
+        }
+        synchronized (spansByTraceId) {
+            spansByTraceId.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (LogSource source : logSources) {
+            source.flush();
+            source.tailer.close();
+        }
+        for (FileTailer tailer : traceTailers) {
+            tailer.close();
+        }
+    }
+
+    /**
+     * A tailed log file and the event being assembled (header line + stack trace lines)
+     */
+    private final class LogSource {
+        private final FileTailer tailer;
+        private final String name;
+        private LogEntry pending;
+        private int continuationLines;
+        private long lastLineNanos;
+
+        private LogSource(FileTailer tailer) {
+            this.tailer = tailer;
+            this.name = tailer.getPath().getFileName().toString();
+        }
+
+        private void accept(String line, long now) {
+            lastLineNanos = now;
+            LogEntry entry = LogLineParser.parseLog(line, name);
+            if (entry != null) {
+                flush();
+                pending = entry;
+            } else if (pending != null && continuationLines < MAX_CONTINUATION_LINES) {
+                pending = pending.withContinuation(line);
+                continuationLines++;
+            }
+        }
+
+        private void flush() {
+            if (pending != null) {
+                index.add(pending);
+                pending = null;
+                continuationLines = 0;
+            }
+        }
+    }
+}
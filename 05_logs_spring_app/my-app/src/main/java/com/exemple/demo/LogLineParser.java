@@ -0,0 +1,57 @@
+package com.exemple.demo;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the log formats produced by the demo modules:
+ * - 05 file pattern: "2025-01-01 10:00:00.000  INFO 1234 --- [main] [corrId,traceId,spanId] logger : message"
+ *   (the MDC block is optional, older lines do not have it)
+ * - 06 logback pattern: "2025-01-01 10:00:00.000 [main] INFO  [traceId,spanId] logger - message"
+ * - 04 traces.log: "[traceId] spanId | 10:00:00.000 -> 10:00:00.100 | operation (100ms) | FINISHED | tags"
+ */
+public final class LogLineParser {
+
+    private static final Pattern SPRING_FILE_PATTERN = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3})\\s+(TRACE|DEBUG|INFO|WARN|ERROR)\\s+\\S*\\s*---\\s+\\[([^\\]]*)\\]\\s+"
+                    + "(?:\\[([^\\],]*),([^\\],]*),([^\\]]*)\\]\\s+)?(\\S+)\\s*:\\s?(.*)$");
+
+    private static final Pattern OTEL_LOGBACK_PATTERN = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}) \\[([^\\]]*)\\] (TRACE|DEBUG|INFO|WARN|ERROR)\\s+"
+                    + "\\[([^\\],]*),([^\\]]*)\\] (\\S+) - (.*)$");
+
+    private static final Pattern TRACE_FILE_PATTERN = Pattern.compile(
+            "^\\[([^\\]]+)\\] (\\S+) \\| (\\S+) -> (\\S+) \\| (.+?) \\((\\d+)ms\\) \\| (\\S+) \\|\\s?(.*)$");
+
+    private LogLineParser() {
+    }
+
+    /**
+     * Returns null if the line is not the start of a log event (e.g. a stack trace line)
+     */
+    public static LogEntry parseLog(String line, String source) {
+        Matcher m = SPRING_FILE_PATTERN.matcher(line);
+        if (m.matches()) {
+            return new LogEntry(m.group(1), m.group(2), m.group(3), m.group(7),
+                    m.group(4), m.group(5), m.group(6), m.group(8), source);
+        }
+        m = OTEL_LOGBACK_PATTERN.matcher(line);
+        if (m.matches()) {
+            return new LogEntry(m.group(1), m.group(3), m.group(2), m.group(6),
+                    null, m.group(4), m.group(5), m.group(7), source);
+        }
+        return null;
+    }
+
+    /**
+     * Returns null if the line is not a span line
+     */
+    public static SpanRecord parseSpan(String line) {
+        Matcher m = TRACE_FILE_PATTERN.matcher(line);
+        if (!m.matches()) {
+            return null;
+        }
+        return new SpanRecord(m.group(1), m.group(2), m.group(5), m.group(3), m.group(4),
+                Long.parseLong(m.group(6)), m.group(7), m.group(8));
+    }
+}
@@ -0,0 +1,39 @@
+package com.exemple.demo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query endpoints over the ingested logs and spans
+ */
+@RestController
+public class LogQueryController {
+
+    @Autowired
+    private LogIngestionService ingestionService;
+
+    @GetMapping("/logs/search")
+    public List<LogEntry> search(@RequestParam(required = false) String correlationId,
+                                 @RequestParam(required = false) String traceId,
+                                 @RequestParam(required = false) String level,
+                                 @RequestParam(defaultValue = "100") int limit) {
+        return ingestionService.search(correlationId, traceId, level, limit);
+    }
+
+    @GetMapping("/logs/trace/{traceId}")
+    public Map<String, Object> getTrace(@PathVariable String traceId,
+                                        @RequestParam(defaultValue = "500") int limit) {
+        return ingestionService.getTrace(traceId, limit);
+    }
+
+    @GetMapping("/logs/stats")
+    public Map<String, Object> getStats() {
+        return ingestionService.getStats();
+    }
+}
@@ -0,0 +1,72 @@
+package com.exemple.demo;
+
+import org.slf4j.MDC;
+
+import java.util.Arrays;
+
+/**
+ * Try-with-resources MDC scope.
+ *
+ * Unlike MDC.clear(), closing the scope only restores the keys it has set
+ * to their previous values, so context provided by the caller is preserved.
+ *
+ * Usage:
+ * <pre>
+ * try (MdcScope scope = MdcScope.open("createUser")) {
+ *     logger.info("...");
+ * }
+ * </pre>
+ */
+public final class MdcScope implements AutoCloseable {
+
+    public static final String OPERATION_KEY = "operation";
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private String[] previousValues = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private MdcScope() {
+    }
+
+    /**
+     * Opens a scope with a correlation ID (reused if already present) and the operation name
+     */
+    public static MdcScope open(String operation) {
+        MdcScope scope = new MdcScope();
+        scope.put(CorrelationId.MDC_KEY, CorrelationId.current());
+        scope.put(OPERATION_KEY, operation);
+        return scope;
+    }
+
+    /**
+     * Sets a key for the lifetime of this scope, remembering its previous value
+     */
+    public MdcScope put(String key, String value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            previousValues = Arrays.copyOf(previousValues, size * 2);
+        }
+        keys[size] = key;
+        previousValues[size] = MDC.get(key);
+        size++;
+        MDC.put(key, value);
+        return this;
+    }
+
+    /**
+     * Restores the previous values in reverse order of insertion
+     */
+    @Override
+    public void close() {
+        for (int i = size - 1; i >= 0; i--) {
+            if (previousValues[i] == null) {
+                MDC.remove(keys[i]);
+            } else {
+                MDC.put(keys[i], previousValues[i]);
+            }
+        }
+        size = 0;
+    }
+}
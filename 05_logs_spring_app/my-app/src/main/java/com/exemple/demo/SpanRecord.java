@@ -0,0 +1,37 @@
+package com.exemple.demo;
+
+/**
+ * A span read back from a traces.log file written by the 04 tracing module
+ */
+public class SpanRecord {
+    private final String traceId;
+    private final String spanId;
+    private final String operationName;
+    private final String startTime;
+    private final String endTime;
+    private final long durationMs;
+    private final String status;
+    private final String tags;
+
+    public SpanRecord(String traceId, String spanId, String operationName, String startTime,
+                      String endTime, long durationMs, String status, String tags) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.operationName = operationName;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.durationMs = durationMs;
+        this.status = status;
+        this.tags = tags;
+    }
+
+    // Getters
+    public String getTraceId() { return traceId; }
+    public String getSpanId() { return spanId; }
+    public String getOperationName() { return operationName; }
+    public String getStartTime() { return startTime; }
+    public String getEndTime() { return endTime; }
+    public long getDurationMs() { return durationMs; }
+    public String getStatus() { return status; }
+    public String getTags() { return tags; }
+}
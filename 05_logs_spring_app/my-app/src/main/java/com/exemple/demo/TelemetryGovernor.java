@@ -0,0 +1,321 @@
+package com.exemple.demo;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Service;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Log degradation under pressure: our own logs must not make an already saturated JVM worse.
+ * Same measurements and hysteresis as the 04 tracing module's governor, applied to logs.
+ *
+ * Key points:
+ * - Every check-interval-ms: share of time spent in GC, heap occupancy after the last GC
+ *   and process CPU (OperatingSystemMXBean)
+ * - Heap after GC received by notification on every collection, young or full
+ *   (GarbageCollectionNotificationInfo). Without a GC for heap-after-gc-max-age-ms, the value
+ *   is ignored (no allocation, so no memory pressure)
+ * - A signal above its reduced-* or minimal-* threshold for degrade-after checks moves
+ *   straight to the matching level (TelemetryLevel)
+ * - Hysteresis: back up one level at a time, after recover-after checks under
+ *   recovery-ratio times the thresholds of the current level
+ * - Configured loggers raised to WARN then ERROR (original level restored back at NORMAL)
+ * - Every LogGuard tightened: sample rate and permits per second multiplied by
+ *   reduced-log-guard-ratio or minimal-log-guard-ratio. The settings in place when the
+ *   degradation starts are restored back at NORMAL, runtime changes made meanwhile are lost
+ * - Level published as a metric (telemetry.degradation.level: 0, 1, 2) and as a WARN log on every change
+ */
+@Service
+@ConditionalOnProperty(name = "demo.governor.enabled", havingValue = "true", matchIfMissing = true)
+public class TelemetryGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryGovernor.class);
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${demo.governor.check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${demo.governor.reduced-gc-time-ratio:0.05}")
+    private double reducedGcTimeRatio;
+
+    @Value("${demo.governor.minimal-gc-time-ratio:0.15}")
+    private double minimalGcTimeRatio;
+
+    @Value("${demo.governor.reduced-heap-after-gc-ratio:0.70}")
+    private double reducedHeapRatio;
+
+    @Value("${demo.governor.minimal-heap-after-gc-ratio:0.85}")
+    private double minimalHeapRatio;
+
+    @Value("${demo.governor.reduced-cpu-ratio:0.80}")
+    private double reducedCpuRatio;
+
+    @Value("${demo.governor.minimal-cpu-ratio:0.95}")
+    private double minimalCpuRatio;
+
+    @Value("${demo.governor.heap-after-gc-max-age-ms:60000}")
+    private long heapAfterGcMaxAgeMs;
+
+    @Value("${demo.governor.degrade-after:2}")
+    private int degradeAfter;
+
+    @Value("${demo.governor.recover-after:10}")
+    private int recoverAfter;
+
+    @Value("${demo.governor.recovery-ratio:0.8}")
+    private double recoveryRatio;
+
+    @Value("${demo.governor.reduced-log-guard-ratio:0.25}")
+    private double reducedLogGuardRatio;
+
+    @Value("${demo.governor.minimal-log-guard-ratio:0.05}")
+    private double minimalLogGuardRatio;
+
+    @Value("${demo.governor.loggers:com.exemple.demo}")
+    private List<String> loggerNames;
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final Set<String> heapPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+    private final NotificationListener gcListener = (notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            onGarbageCollection(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+        }
+    };
+    private final OperatingSystemMXBean os =
+            ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean bean ? bean : null;
+
+    // Configured logger levels before degradation (null: inherited)
+    private final Map<String, LogLevel> originalLogLevels = new HashMap<>();
+    // Log guard settings before degradation, captured on the way down from NORMAL
+    private final Map<LogGuard, GuardSettings> originalGuards = new HashMap<>();
+
+    private record GuardSettings(int permitsPerSecond, double sampleRate) {
+    }
+
+    private volatile TelemetryLevel level = TelemetryLevel.NORMAL;
+    private volatile double gcTimeRatio;
+    private volatile double heapAfterGcRatio;
+    private volatile double cpuRatio;
+    // Last GC notification, read by the governor thread
+    private volatile double lastGcHeapRatio;
+    private volatile long lastGcNanos;
+    private long lastGcTimeMs;
+    private long lastCheckNanos;
+    private int degradeCount;
+    private int recoverCount;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        for (String name : loggerNames) {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(name);
+            originalLogLevels.put(name, configuration != null ? configuration.getConfiguredLevel() : null);
+        }
+        // Level changes stay visible when the parent loggers are raised
+        LoggerConfiguration own = loggingSystem.getLoggerConfiguration(TelemetryGovernor.class.getName());
+        if (own == null || own.getConfiguredLevel() == null) {
+            loggingSystem.setLogLevel(TelemetryGovernor.class.getName(), LogLevel.INFO);
+        }
+        Gauge.builder("telemetry.degradation.level", () -> level.ordinal())
+                .description("Telemetry degradation level (0 NORMAL, 1 REDUCED, 2 MINIMAL)")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.governor.gc.time.ratio", () -> gcTimeRatio)
+                .description("Share of time spent in GC over the last interval")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.governor.heap.after.gc.ratio", () -> heapAfterGcRatio)
+                .description("Heap occupancy after the last GC")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.governor.cpu.ratio", () -> cpuRatio)
+                .description("Process CPU over all cores")
+                .register(meterRegistry);
+
+        lastGcNanos = System.nanoTime();
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+            }
+        }
+
+        lastGcTimeMs = totalGcTimeMs();
+        lastCheckNanos = System.nanoTime();
+        running = true;
+        worker = new Thread(this::checkLoop, "telemetry-governor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(checkIntervalMs);
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException e) {
+                    // Never registered
+                }
+            }
+        }
+        apply(TelemetryLevel.NORMAL);
+    }
+
+    private void checkLoop() {
+        while (running) {
+            try {
+                Thread.sleep(checkIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                check();
+            } catch (RuntimeException e) {
+                logger.error("Could not measure the JVM pressure", e);
+            }
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long gcTimeMs = totalGcTimeMs();
+        long elapsedMs = Math.max(1, (now - lastCheckNanos) / 1_000_000);
+        gcTimeRatio = Math.min(1.0, (gcTimeMs - lastGcTimeMs) / (double) elapsedMs);
+        heapAfterGcRatio = heapAfterGcRatio();
+        cpuRatio = os != null ? Math.max(0, os.getProcessCpuLoad()) : 0;
+        lastGcTimeMs = gcTimeMs;
+        lastCheckNanos = now;
+
+        TelemetryLevel pressure = levelFor(1.0);
+        if (pressure.compareTo(level) > 0) {
+            recoverCount = 0;
+            if (++degradeCount >= degradeAfter) {
+                degradeCount = 0;
+                apply(pressure);
+            }
+            return;
+        }
+        degradeCount = 0;
+        if (level != TelemetryLevel.NORMAL && levelFor(recoveryRatio).compareTo(level) < 0) {
+            if (++recoverCount >= recoverAfter) {
+                recoverCount = 0;
+                apply(TelemetryLevel.values()[level.ordinal() - 1]);
+            }
+        } else {
+            recoverCount = 0;
+        }
+    }
+
+    /**
+     * @param factor 1 to degrade, recovery-ratio to recover (lowered thresholds)
+     */
+    private TelemetryLevel levelFor(double factor) {
+        if (gcTimeRatio >= minimalGcTimeRatio * factor || heapAfterGcRatio >= minimalHeapRatio * factor
+                || cpuRatio >= minimalCpuRatio * factor) {
+            return TelemetryLevel.MINIMAL;
+        }
+        if (gcTimeRatio >= reducedGcTimeRatio * factor || heapAfterGcRatio >= reducedHeapRatio * factor
+                || cpuRatio >= reducedCpuRatio * factor) {
+            return TelemetryLevel.REDUCED;
+        }
+        return TelemetryLevel.NORMAL;
+    }
+
+    private synchronized void apply(TelemetryLevel newLevel) {
+        TelemetryLevel previous = level;
+        if (newLevel == previous) {
+            return;
+        }
+        level = newLevel;
+        for (String name : loggerNames) {
+            loggingSystem.setLogLevel(name, newLevel == TelemetryLevel.NORMAL
+                    ? originalLogLevels.get(name) : newLevel.getLoggerLevel());
+        }
+        applyToLogGuards(newLevel);
+        logger.warn("Telemetry {} -> {} (GC {} %, heap after GC {} %, CPU {} %)", previous, newLevel,
+                percent(gcTimeRatio), percent(heapAfterGcRatio), percent(cpuRatio));
+    }
+
+    private void applyToLogGuards(TelemetryLevel newLevel) {
+        if (newLevel == TelemetryLevel.NORMAL) {
+            originalGuards.forEach((guard, settings) -> guard.configure(settings.permitsPerSecond(), settings.sampleRate()));
+            originalGuards.clear();
+            return;
+        }
+        double ratio = newLevel == TelemetryLevel.REDUCED ? reducedLogGuardRatio : minimalLogGuardRatio;
+        for (LogGuard guard : LogGuard.all()) {
+            GuardSettings settings = originalGuards.computeIfAbsent(guard,
+                    g -> new GuardSettings(g.getPermitsPerSecond(), g.getSampleRate()));
+            int permits = settings.permitsPerSecond() == LogGuard.UNLIMITED
+                    ? LogGuard.UNLIMITED : Math.max(1, (int) (settings.permitsPerSecond() * ratio));
+            guard.configure(permits, settings.sampleRate() * ratio);
+        }
+    }
+
+    private long totalGcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Heap used right after the last GC, whatever its kind, over the maximum heap
+    private void onGarbageCollection(GarbageCollectionNotificationInfo info) {
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPoolNames.contains(pool.getKey())) {
+                used += pool.getValue().getUsed();
+            }
+        }
+        long max = Runtime.getRuntime().maxMemory();
+        lastGcHeapRatio = max > 0 ? (double) used / max : 0;
+        lastGcNanos = System.nanoTime();
+    }
+
+    private double heapAfterGcRatio() {
+        return System.nanoTime() - lastGcNanos < TimeUnit.MILLISECONDS.toNanos(heapAfterGcMaxAgeMs) ? lastGcHeapRatio : 0;
+    }
+
+    private static double percent(double ratio) {
+        return Math.round(ratio * 1000) / 10.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.exemple.demo;
+
+import org.springframework.boot.logging.LogLevel;
+
+/**
+ * Telemetry degradation levels, set by TelemetryGovernor.
+ *
+ * - NORMAL: configured logger levels and log guards
+ * - REDUCED: application loggers at WARN, log guards tightened (reduced-log-guard-ratio)
+ * - MINIMAL: application loggers at ERROR, log guards tightened further (minimal-log-guard-ratio)
+ */
+public enum TelemetryLevel {
+
+    NORMAL(null),
+    REDUCED(LogLevel.WARN),
+    MINIMAL(LogLevel.ERROR);
+
+    private final LogLevel loggerLevel;
+
+    TelemetryLevel(LogLevel loggerLevel) {
+        this.loggerLevel = loggerLevel;
+    }
+
+    // Getters
+    /** null for NORMAL: the configured level is restored */
+    public LogLevel getLoggerLevel() { return loggerLevel; }
+}
@@ -0,0 +1,27 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read cache in front of the simulated user database.
+ *
+ * Optional values: unknown ids are cached too, so repeated lookups of a missing user
+ * do not hit the database either. Metrics: cache.gets, cache.evictions, cache.load.duration,
+ * cache.size with the tag cache=users (GET /actuator/metrics/cache.gets).
+ */
+@Configuration
+public class UserCacheConfiguration {
+
+    @Bean
+    public TinyLfuCache<String, Optional<User>> userCache(MeterRegistry meterRegistry,
+                                                           @Value("${demo.cache.users.max-size:10000}") int maxSize,
+                                                           @Value("${demo.cache.users.ttl:5m}") Duration ttl) {
+        return new TinyLfuCache<String, Optional<User>>(maxSize, ttl).registerMetrics(meterRegistry, "users");
+    }
+}
@@ -2,11 +2,11 @@ package com.exemple.demo;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -14,29 +14,40 @@ import java.util.UUID;
  * in a realistic business context.
  * 
  * Key points demonstrated:
- * - Using MDC (Mapped Diagnostic Context) for context
+ * - Using MDC (Mapped Diagnostic Context) for context, restored by MdcScope
  * - Performance logs with time measurement
  * - Audit logs for traceability
- * - Business error handling
+ * - Business error handling (stackless validation failures, deduplicated stack traces)
+ * - Read cache: repeated reads skip the database, the outcome is in the MDC (cache=hit|miss)
  */
 @Service
 public class UserService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
+    public static final String CACHE_KEY = "cache";
+    
+    // Log guards for the read hot path: reads must not turn into log volume
+    private static final LogGuard userFoundLog = LogGuard.sampled("user-found", logger, 0.1);
+    private static final LogGuard userAccessedAuditLog = LogGuard.rateLimited("user-accessed-audit", logger, 50);
+    
     // Simulation of an in-memory database
     private final Map<String, User> users = new HashMap<>();
     
+    // Read cache, invalidated by updates and deletes (a new user has a fresh id, never cached)
+    private final TinyLfuCache<String, Optional<User>> userCache;
+    
+    public UserService(TinyLfuCache<String, Optional<User>> userCache) {
+        this.userCache = userCache;
+    }
+    
     /**
      * Creates a new user with complete logging
      */
     public User createUser(String name, String email) {
-        // Generation of a correlation ID to trace the operation
-        String correlationId = UUID.randomUUID().toString();
-        
-        // Adding context to MDC (Mapped Diagnostic Context)
-        MDC.put("correlationId", correlationId);
-        MDC.put("operation", "createUser");
+        // Adding context to MDC (Mapped Diagnostic Context), reusing the caller's correlation ID if any
+        // (closed in finally rather than try-with-resources so the error log below keeps the context)
+        MdcScope mdc = MdcScope.open("createUser");
         
         try {
             long startTime = System.currentTimeMillis();
@@ -46,18 +57,18 @@ public class UserService {
             // Parameter validation
             if (name == null || name.trim().isEmpty()) {
                 logger.warn("⚠️ Attempt to create user with empty name");
-                throw new IllegalArgumentException("Name cannot be empty");
+                throw ValidationException.EMPTY_NAME;
             }
             
             if (email == null || !email.contains("@")) {
                 logger.warn("⚠️ Attempt to create user with invalid email: {}", email);
-                throw new IllegalArgumentException("Invalid email");
+                throw ValidationException.INVALID_EMAIL;
             }
             
             // Email uniqueness verification
             if (users.values().stream().anyMatch(u -> u.getEmail().equals(email))) {
                 logger.warn("⚠️ Attempt to create user with existing email: {}", email);
-                throw new IllegalArgumentException("A user with this email already exists");
+                throw ValidationException.DUPLICATE_EMAIL;
             }
             
             // Simulation d'un traitement
@@ -79,13 +90,17 @@ public class UserService {
             
             return user;
             
+        } catch (ValidationException e) {
+            // Expected failure, already logged at WARN level: no stack trace
+            throw e;
         } catch (Exception e) {
-            logger.error("❌ Error during user creation - name={}, email={}, error={}", 
-                        name, email, e.getMessage(), e);
+            // Stack trace printed once per distinct stack, repeats only log a reference
+            ExceptionLogDeduplicator.error(logger, e, "❌ Error during user creation - name={}, email={}, error={}", 
+                        name, email, e.getMessage());
             throw e;
         } finally {
-            // MDC cleanup
-            MDC.clear();
+            // MDC restore (keeps any context provided by the caller)
+            mdc.close();
         }
     }
     
@@ -93,11 +108,7 @@ public class UserService {
      * Retrieves a user by their ID
      */
     public User getUserById(String userId) {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
-        MDC.put("operation", "getUserById");
-        
-        try {
+        try (MdcScope mdc = MdcScope.open("getUserById")) {
             logger.debug("🔍 User search - userId={}", userId);
             
             if (userId == null || userId.trim().isEmpty()) {
@@ -105,22 +116,24 @@ public class UserService {
                 return null;
             }
             
-            User user = users.get(userId);
+            Optional<User> cached = userCache.getIfPresent(userId);
+            String cacheOutcome = cached != null ? "hit" : "miss";
+            mdc.put(CACHE_KEY, cacheOutcome);
+            User user = (cached != null ? cached : userCache.get(userId, this::loadUser)).orElse(null);
             
             if (user != null) {
-                logger.info("✅ User found - userId={}, name={}", userId, user.getName());
+                // Sampled: repetitive success line
+                userFoundLog.info("✅ User found - userId={}, name={}, cache={}", userId, user.getName(), cacheOutcome);
                 
-                // Audit log for data access
-                logger.info("event=user_accessed userId={} timestamp={}", 
+                // Audit log for data access (rate limited, suppressed messages are counted)
+                userAccessedAuditLog.info("event=user_accessed userId={} timestamp={}", 
                            userId, System.currentTimeMillis());
             } else {
-                logger.info("❌ User not found - userId={}", userId);
+                logger.info("❌ User not found - userId={}, cache={}", userId, cacheOutcome);
             }
             
             return user;
             
-        } finally {
-            MDC.clear();
         }
     }
     
@@ -128,9 +141,7 @@ public class UserService {
      * Updates a user
      */
     public User updateUser(String userId, String newName, String newEmail) {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
-        MDC.put("operation", "updateUser");
+        MdcScope mdc = MdcScope.open("updateUser");
         
         try {
             long startTime = System.currentTimeMillis();
@@ -140,7 +151,7 @@ public class UserService {
             User existingUser = users.get(userId);
             if (existingUser == null) {
                 logger.warn("⚠️ Attempt to update non-existent user - userId={}", userId);
-                throw new IllegalArgumentException("User not found");
+                throw ValidationException.USER_NOT_FOUND;
             }
             
             // Log changes for audit
@@ -153,6 +164,7 @@ public class UserService {
             // Update
             existingUser.setName(newName);
             existingUser.setEmail(newEmail);
+            userCache.invalidate(userId);
             
             long duration = System.currentTimeMillis() - startTime;
             
@@ -164,12 +176,14 @@ public class UserService {
             
             return existingUser;
             
+        } catch (ValidationException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("❌ Error during user update - userId={}, error={}", 
-                        userId, e.getMessage(), e);
+            ExceptionLogDeduplicator.error(logger, e, "❌ Error during user update - userId={}, error={}", 
+                        userId, e.getMessage());
             throw e;
         } finally {
-            MDC.clear();
+            mdc.close();
         }
     }
     
@@ -177,14 +191,11 @@ public class UserService {
      * Deletes a user
      */
     public boolean deleteUser(String userId) {
-        String correlationId = UUID.randomUUID().toString();
-        MDC.put("correlationId", correlationId);
-        MDC.put("operation", "deleteUser");
-        
-        try {
+        try (MdcScope mdc = MdcScope.open("deleteUser")) {
             logger.info("🗑️ Starting user deletion - userId={}", userId);
             
             User removedUser = users.remove(userId);
+            userCache.invalidate(userId);
             
             if (removedUser != null) {
                 logger.info("✅ User deleted successfully - userId={}, name={}", 
@@ -200,11 +211,20 @@ public class UserService {
                 return false;
             }
             
-        } finally {
-            MDC.clear();
         }
     }
     
+    /**
+     * Database read behind the cache
+     */
+    private Optional<User> loadUser(String userId) {
+        long startTime = System.currentTimeMillis();
+        User user = users.get(userId);
+        logger.debug("event=database_query table=users operation=SELECT userId={} found={} duration={}ms",
+                    userId, user != null, System.currentTimeMillis() - startTime);
+        return Optional.ofNullable(user);
+    }
+    
     /**
      * Simulates processing with possibility of error
      */
@@ -0,0 +1,29 @@
+package com.exemple.demo;
+
+/**
+ * Expected business validation failure.
+ *
+ * These failures are part of the normal flow (bad input, duplicate email...), so:
+ * - no stack trace is captured (fillInStackTrace is a no-op)
+ * - the common cases are preallocated and reused, throwing them allocates nothing
+ *
+ * It extends IllegalArgumentException so existing callers keep working.
+ * Shared instances must not be mutated (no initCause / addSuppressed).
+ */
+public class ValidationException extends IllegalArgumentException {
+
+    public static final ValidationException EMPTY_NAME = new ValidationException("Name cannot be empty");
+    public static final ValidationException INVALID_EMAIL = new ValidationException("Invalid email");
+    public static final ValidationException DUPLICATE_EMAIL = new ValidationException("A user with this email already exists");
+    public static final ValidationException USER_NOT_FOUND = new ValidationException("User not found");
+
+    public ValidationException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // No stack capture for expected failures
+        return this;
+    }
+}
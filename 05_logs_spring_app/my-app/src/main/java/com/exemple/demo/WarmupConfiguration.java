@@ -0,0 +1,57 @@
+package com.exemple.demo;
+
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hot paths exercised by WarmupRunner: the UserService read path (MdcScope, read cache,
+ * database query and lookup log lines), the web stack and the Actuator JSON response.
+ *
+ * The user lookups are read-only: the simulated database is a plain HashMap, so the warm-up
+ * must not write to it concurrently. Unknown ids are looked up, which goes through the
+ * cache miss, negative cache hit and "not found" logging paths.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfiguration {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Bean
+    public WarmupTask warmupUserLookup(UserService userService) {
+        return () -> userService.getUserById("warmup-" + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Bean
+    public WarmupTask warmupBonjour(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET", () -> "/bonjour-eql", null);
+    }
+
+    /**
+     * Liveness rather than /actuator/health: the health group includes readiness, which answers
+     * 503 while the warm-up holds REFUSING_TRAFFIC
+     */
+    @Bean
+    public WarmupTask warmupHealth(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET", () -> "/actuator/health/liveness", null);
+    }
+
+    /**
+     * Warm-up requests (X-Warmup header) are left out of http.server.requests
+     */
+    @Bean
+    public ObservationPredicate warmupObservationPredicate() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext request
+                && request.getCarrier().getHeader(HttpWarmupTask.HEADER) != null);
+    }
+}
@@ -0,0 +1,187 @@
+package com.exemple.demo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JIT warm-up at startup: the hot paths (WarmupTask beans) run in a loop before the
+ * application accepts traffic, so the first real requests do not go through the interpreter.
+ *
+ * - Readiness stays REFUSING_TRAFFIC during the warm-up: the ApplicationReadyEvent listener blocks,
+ *   Spring Boot only switches to ACCEPTING_TRAFFIC afterwards (/actuator/health/readiness)
+ * - In rounds: batch-size runs of each task, on concurrency threads
+ * - Stops when compilation settles (CompilationMXBean: JIT compilation time of the round below
+ *   stable-compilation-ratio of its duration, stable-rounds rounds in a row, after
+ *   min-iterations), or at the max-iterations budget, or after max-duration
+ * - Metric application.warmup.time (outcome tag: stable, budget, timeout, failed)
+ *
+ * Warm-up calls go through the real code paths. They are left out of http.server.requests
+ * (X-Warmup header), but show up in the logs and the cache metrics.
+ */
+@Component
+@ConditionalOnProperty(name = "demo.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final Map<String, WarmupTask> tasks;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${demo.warmup.concurrency:16}")
+    private int concurrency;
+
+    @Value("${demo.warmup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${demo.warmup.min-iterations:300}")
+    private int minIterations;
+
+    @Value("${demo.warmup.max-iterations:1000}")
+    private int maxIterations;
+
+    @Value("${demo.warmup.stable-compilation-ratio:0.05}")
+    private double stableCompilationRatio;
+
+    @Value("${demo.warmup.stable-rounds:2}")
+    private int stableRounds;
+
+    @Value("${demo.warmup.max-duration:30s}")
+    private Duration maxDuration;
+
+    private final AtomicLong durationNanos = new AtomicLong();
+    private final AtomicInteger iterations = new AtomicInteger();
+
+    public WarmupRunner(Map<String, WarmupTask> tasks, MeterRegistry meterRegistry) {
+        this.tasks = tasks;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+        if (tasks.isEmpty()) {
+            return;
+        }
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean compilationMonitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        logger.info("JIT warm-up: {} tasks {}, {} to {} iterations, {}", tasks.size(), tasks.keySet(),
+                minIterations, maxIterations,
+                compilationMonitored ? "stopping when compilation settles" : "compilation time not measurable, budget only");
+
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        long compilationStart = compilationMonitored ? compilation.getTotalCompilationTime() : 0;
+        long lastCompilation = compilationStart;
+        int stable = 0;
+        int failures = 0;
+        String outcome = "budget";
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (iterations.get() < maxIterations) {
+                long roundStart = System.nanoTime();
+                int roundFailures = runRound(executor, deadline);
+                failures += roundFailures;
+                iterations.addAndGet(batchSize);
+                if (System.nanoTime() - deadline > 0) {
+                    outcome = "timeout";
+                    break;
+                }
+                if (roundFailures == batchSize * tasks.size()) {
+                    outcome = "failed";
+                    break;
+                }
+
+                if (compilationMonitored) {
+                    long total = compilation.getTotalCompilationTime();
+                    long roundCompilation = total - lastCompilation;
+                    long roundMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+                    lastCompilation = total;
+                    logger.debug("Warm-up: {} iterations, {} ms of JIT compilation in a {} ms round",
+                            iterations.get(), roundCompilation, roundMs);
+                    stable = roundCompilation < stableCompilationRatio * roundMs ? stable + 1 : 0;
+                    if (stable >= stableRounds && iterations.get() >= minIterations) {
+                        outcome = "stable";
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "failed";
+        } finally {
+            executor.shutdownNow();
+        }
+
+        durationNanos.set(System.nanoTime() - start);
+        TimeGauge.builder("application.warmup.time", durationNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .description("Duration of the JIT warm-up before accepting traffic")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        Gauge.builder("application.warmup.iterations", iterations, AtomicInteger::get)
+                .description("Runs of each warm-up task")
+                .register(meterRegistry);
+        logger.info("JIT warm-up done ({}): {} iterations per task in {} ms, {} ms of JIT compilation, {} failures",
+                outcome, iterations.get(), TimeUnit.NANOSECONDS.toMillis(durationNanos.get()),
+                compilationMonitored ? lastCompilation - compilationStart : -1, failures);
+    }
+
+    /**
+     * @return the number of failed runs
+     */
+    private int runRound(ExecutorService executor, long deadline) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(batchSize * tasks.size());
+        for (int i = 0; i < batchSize; i++) {
+            for (WarmupTask task : tasks.values()) {
+                futures.add(executor.submit(() -> {
+                    task.run();
+                    return null;
+                }));
+            }
+        }
+        int failures = 0;
+        Exception lastError = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                future.cancel(true);
+                failures++;
+                lastError = e;
+            }
+        }
+        if (lastError != null) {
+            logger.warn("Warm-up: {} failed runs in the round, last error: {}", failures, lastError.toString());
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,11 @@
+package com.exemple.demo;
+
+/**
+ * Hot path run in a loop by WarmupRunner before the application accepts traffic.
+ * Every bean of this type is picked up, its bean name is used in the logs.
+ */
+@FunctionalInterface
+public interface WarmupTask {
+
+    void run() throws Exception;
+}
@@ -0,0 +1,38 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+/**
+ * Sonde de latence pour bench/agent-overhead.sh (lancée en mode "source file" : java LatencyProbe.java).
+ * Connexion keep-alive, requêtes séquentielles, résultat en microsecondes :
+ * "mean p50 p90 p99 max"
+ */
+public class LatencyProbe {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int warmup = Integer.parseInt(args[1]);
+        int count = Integer.parseInt(args[2]);
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        for (int i = 0; i < warmup; i++) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies[i] = (System.nanoTime() - start) / 1_000;
+        }
+
+        Arrays.sort(latencies);
+        long mean = Arrays.stream(latencies).sum() / count;
+        System.out.printf("%d %d %d %d %d%n", mean,
+                latencies[count / 2], latencies[(int) (count * 0.90)], latencies[(int) (count * 0.99)], latencies[count - 1]);
+    }
+}
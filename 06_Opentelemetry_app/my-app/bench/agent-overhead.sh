@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Mesure du surcoût de l'agent OpenTelemetry par profil, comparé à l'application sans agent
+# et au mode SDK (instrumentation manuelle, même profil production, sans javaagent).
+#
+# Pour chaque mode : démarrage, temps jusqu'au premier /health OK, RSS, metaspace, puis latence de /health
+# (endpoint sans Thread.sleep : seul le coût de l'instrumentation varie).
+#
+# Usage (depuis 06_Opentelemetry_app/my-app, après mvn package) :
+#   ./bench/agent-overhead.sh [modes...]     modes : baseline dev production minimal sdk (défaut : tous)
+# Variables : AGENT_JAR (opentelemetry-javaagent.jar), WARMUP (5000), REQUESTS (20000), PORT (8080)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+AGENT_JAR=${AGENT_JAR:-opentelemetry-javaagent.jar}
+APP_JAR=${APP_JAR:-target/spring-demo-1.0.0.jar}
+WARMUP=${WARMUP:-5000}
+REQUESTS=${REQUESTS:-20000}
+PORT=${PORT:-8080}
+RESULTS_DIR=bench/results
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+  MODES=(baseline dev production minimal sdk)
+fi
+
+jvm_args() {
+  case "$1" in
+    baseline)   echo "" ;;
+    dev)        echo "-javaagent:$AGENT_JAR -Dotel.javaagent.configuration-file=otel.properties" ;;
+    production) echo "-javaagent:$AGENT_JAR -Dotel.javaagent.configuration-file=profiles/production.properties" ;;
+    minimal)    echo "-javaagent:$AGENT_JAR -Dotel.javaagent.configuration-file=profiles/minimal.properties" ;;
+    sdk)        echo "-Ddemo.otel-sdk.enabled=true -Ddemo.otel-sdk.configuration-file=profiles/production.properties" ;;
+    *)          echo "Mode inconnu : $1" >&2; exit 1 ;;
+  esac
+}
+
+now_ms() { date +%s%3N; }
+
+mkdir -p "$RESULTS_DIR"
+RESULT_FILE="$RESULTS_DIR/agent-overhead-$(date +%Y%m%d-%H%M%S).csv"
+echo "mode,startup_ms,rss_kb,metaspace_kb,mean_us,p50_us,p90_us,p99_us,max_us" > "$RESULT_FILE"
+
+for mode in "${MODES[@]}"; do
+  echo "=== $mode"
+  start=$(now_ms)
+  # shellcheck disable=SC2046
+  java $(jvm_args "$mode") -jar "$APP_JAR" --server.port="$PORT" > "$RESULTS_DIR/$mode.log" 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$PORT/health" > /dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "L'application ne démarre pas, voir $RESULTS_DIR/$mode.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  startup_ms=$(( $(now_ms) - start ))
+
+  read -r mean p50 p90 p99 max < <(java bench/LatencyProbe.java "http://localhost:$PORT/health" "$WARMUP" "$REQUESTS")
+  rss_kb=$(ps -o rss= -p "$pid" | tr -d ' ')
+  metaspace_kb=$(jcmd "$pid" GC.heap_info 2>/dev/null | sed -n 's/.*Metaspace *used \([0-9]*\)K.*/\1/p')
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  echo "$mode,$startup_ms,$rss_kb,${metaspace_kb:-},$mean,$p50,$p90,$p99,$max" | tee -a "$RESULT_FILE"
+done
+
+echo
+echo "Résultats : $RESULT_FILE"
+if command -v column > /dev/null; then column -s, -t "$RESULT_FILE"; else cat "$RESULT_FILE"; fi
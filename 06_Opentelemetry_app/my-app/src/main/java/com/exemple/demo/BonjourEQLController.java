@@ -1,11 +1,13 @@
 package com.exemple.demo;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.concurrent.ThreadLocalRandom;
@@ -19,6 +21,9 @@ public class BonjourEQLController {
     private static int requestCount = 0;
     private static int errorCount = 0;
 
+    @Autowired
+    private DataStreamService dataStreamService;
+
     @GetMapping("/bonjour-eql")
     public String direBonjourEQL() {
         requestCount++;
@@ -60,9 +65,12 @@ public class BonjourEQLController {
     }
 
     @PostMapping("/data")
-    public String postData(@RequestBody String data) {
+    public String postData(HttpServletRequest request) throws IOException {
         requestCount++;
-        logger.info("Réception de données POST - taille: {} caractères", data.length());
+        // Corps lu en flux, sans String intermédiaire
+        long length = dataStreamService.countChars(request.getInputStream(),
+                request.getContentLengthLong(), request.getCharacterEncoding());
+        logger.info("Réception de données POST - taille: {} caractères", length);
         
         // Simuler un traitement de données
         int processingDelay = ThreadLocalRandom.current().nextInt(30, 150);
@@ -75,8 +83,8 @@ public class BonjourEQLController {
             Thread.currentThread().interrupt();
         }
         
-        logger.info("Données traitées avec succès - {} caractères en {}ms", data.length(), processingDelay);
-        return "Données reçues et traitées: " + data.length() + " caractères (" + processingDelay + "ms)";
+        logger.info("Données traitées avec succès - {} caractères en {}ms", length, processingDelay);
+        return "Données reçues et traitées: " + length + " caractères (" + processingDelay + "ms)";
     }
 
     @GetMapping("/error")
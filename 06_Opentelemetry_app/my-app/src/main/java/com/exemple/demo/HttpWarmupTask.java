@@ -0,0 +1,56 @@
+package com.exemple.demo;
+
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Requête synthétique sur l'application elle-même (localhost, port réel du serveur) :
+ * toute la pile est chauffée, Tomcat, filtres, contrôleur, sérialisation JSON.
+ *
+ * En-tête X-Warmup sur chaque requête, pour les distinguer du trafic réel.
+ */
+class HttpWarmupTask implements WarmupTask {
+
+    static final String HEADER = "X-Warmup";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final Environment environment;
+    private final String method;
+    private final Supplier<String> path;
+    private final String body;
+
+    HttpWarmupTask(HttpClient httpClient, Environment environment, String method, Supplier<String> path, String body) {
+        this.httpClient = httpClient;
+        this.environment = environment;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+    }
+
+    /**
+     * @throws IllegalStateException sur une réponse autre que 2xx, 503 (délestage) compris
+     */
+    @Override
+    public void run() throws Exception {
+        // Port connu seulement une fois le serveur démarré (0 = port aléatoire)
+        String port = environment.getProperty("local.server.port", "8080");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path.get()))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .header(HEADER, "true")
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + request.uri().getPath() + " : HTTP " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.exemple.demo;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Instrumentation manuelle avec le SDK OpenTelemetry, alternative au javaagent
+ * (pas d'instrumentation bytecode : démarrage plus rapide, moins de metaspace).
+ *
+ * Activation : demo.otel-sdk.enabled=true, sans -javaagent.
+ * Le SDK est configuré par le même fichier que l'agent (otel.properties ou un profil de profiles/),
+ * donc mêmes attributs de ressource, échantillonnage, exporters et limites du batch span processor.
+ * Les propriétés système / variables OTEL_* restent prioritaires.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.otel-sdk.enabled", havingValue = "true")
+public class OpenTelemetrySdkConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenTelemetrySdkConfiguration.class);
+
+    private static final Set<String> EXPORTER_KEYS = Set.of("otel.traces.exporter", "otel.metrics.exporter", "otel.logs.exporter");
+
+    @Bean(destroyMethod = "close")
+    public OpenTelemetrySdk openTelemetry(@Value("${demo.otel-sdk.configuration-file:otel.properties}") String configurationFile) {
+        Map<String, String> fileProperties = loadConfigurationFile(configurationFile);
+        OpenTelemetrySdk sdk = AutoConfiguredOpenTelemetrySdk.builder()
+                .addPropertiesSupplier(() -> fileProperties)
+                .disableShutdownHook()
+                .build()
+                .getOpenTelemetrySdk();
+        logger.info("SDK OpenTelemetry initialisé sans agent (configuration : {})", configurationFile);
+        return sdk;
+    }
+
+    @Bean
+    public FilterRegistrationBean<OtelServerSpanFilter> otelServerSpanFilter(OpenTelemetry openTelemetry) {
+        FilterRegistrationBean<OtelServerSpanFilter> registration =
+                new FilterRegistrationBean<>(new OtelServerSpanFilter(openTelemetry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static Map<String, String> loadConfigurationFile(String file) {
+        Map<String, String> result = new HashMap<>();
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.warn("Fichier de configuration OpenTelemetry {} illisible, valeurs par défaut du SDK : {}", file, e.getMessage());
+            return result;
+        }
+        properties.forEach((key, value) -> result.put(key.toString(),
+                EXPORTER_KEYS.contains(key.toString()) ? sdkExporters(value.toString()) : value.toString()));
+        return result;
+    }
+
+    /**
+     * "console" est le nom de l'exporter côté agent, "logging" côté SDK : seules les valeurs exactes
+     * de la liste (ex : "otlp,console") sont renommées
+     */
+    private static String sdkExporters(String exporters) {
+        return Arrays.stream(exporters.split(","))
+                .map(String::trim)
+                .map(exporter -> "console".equals(exporter) ? "logging" : exporter)
+                .collect(Collectors.joining(","));
+    }
+}
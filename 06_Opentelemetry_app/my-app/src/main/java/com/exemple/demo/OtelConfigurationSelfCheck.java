@@ -0,0 +1,123 @@
+package com.exemple.demo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Vérification au démarrage de la configuration de l'agent OpenTelemetry.
+ *
+ * La configuration effective est résolue comme le fait l'agent : propriété système,
+ * puis variable d'environnement (OTEL_...), puis fichier otel.javaagent.configuration-file.
+ * Un WARN est émis pour chaque réglage coûteux en production :
+ * - exporter console/logging actif (traces, métriques ou logs)
+ * - échantillonnage always_on
+ * - export des métriques plus fréquent que 30s
+ */
+@Component
+public class OtelConfigurationSelfCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtelConfigurationSelfCheck.class);
+
+    private static final long MIN_METRIC_EXPORT_INTERVAL_MS = 30_000;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> jvmArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        boolean agentAttached = jvmArguments.stream()
+                .anyMatch(arg -> arg.startsWith("-javaagent:") && arg.contains("opentelemetry"));
+        if (!agentAttached) {
+            logger.info("Agent OpenTelemetry non détecté - vérification de la configuration ignorée");
+            return;
+        }
+
+        Properties fileProperties = loadConfigurationFile();
+        int warnings = 0;
+
+        for (String signal : List.of("traces", "metrics", "logs")) {
+            String exporters = resolve("otel." + signal + ".exporter", fileProperties, "otlp");
+            if (exporters.contains("console") || exporters.contains("logging")) {
+                logger.warn("⚠️ Exporter console actif pour les {} (otel.{}.exporter={}) : chaque donnée est écrite sur stdout",
+                        signal, signal, exporters);
+                warnings++;
+            }
+        }
+
+        String sampler = resolve("otel.traces.sampler", fileProperties, "parentbased_always_on");
+        if (sampler.endsWith("always_on")) {
+            logger.warn("⚠️ Échantillonnage {} : 100% des requêtes sont tracées, préférer parentbased_traceidratio", sampler);
+            warnings++;
+        }
+
+        String interval = resolve("otel.metric.export.interval", fileProperties, "60000");
+        long intervalMs = parseDurationMs(interval);
+        if (intervalMs > 0 && intervalMs < MIN_METRIC_EXPORT_INTERVAL_MS) {
+            logger.warn("⚠️ Export des métriques toutes les {} (otel.metric.export.interval), minimum conseillé : {}ms",
+                    interval, MIN_METRIC_EXPORT_INTERVAL_MS);
+            warnings++;
+        }
+
+        if (warnings == 0) {
+            logger.info("✅ Configuration OpenTelemetry vérifiée : profil adapté à la production");
+        } else {
+            logger.warn("Configuration OpenTelemetry : {} réglage(s) coûteux, voir profiles/production.properties", warnings);
+        }
+    }
+
+    private static String resolve(String key, Properties fileProperties, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        }
+        if (value == null) {
+            value = fileProperties.getProperty(key);
+        }
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : defaultValue;
+    }
+
+    private static Properties loadConfigurationFile() {
+        Properties properties = new Properties();
+        String file = System.getProperty("otel.javaagent.configuration-file",
+                System.getenv("OTEL_JAVAAGENT_CONFIGURATION_FILE"));
+        if (file == null) {
+            return properties;
+        }
+        try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.warn("Impossible de lire le fichier de configuration OpenTelemetry {}: {}", file, e.getMessage());
+        }
+        return properties;
+    }
+
+    /**
+     * "10s", "500ms", "1m" ou un nombre de millisecondes
+     */
+    static long parseDurationMs(String value) {
+        try {
+            if (value.endsWith("ms")) {
+                return Long.parseLong(value.substring(0, value.length() - 2));
+            }
+            if (value.endsWith("s")) {
+                return Long.parseLong(value.substring(0, value.length() - 1)) * 1000;
+            }
+            if (value.endsWith("m")) {
+                return Long.parseLong(value.substring(0, value.length() - 1)) * 60_000;
+            }
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
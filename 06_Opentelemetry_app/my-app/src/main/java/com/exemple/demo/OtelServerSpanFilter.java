@@ -0,0 +1,126 @@
+package com.exemple.demo;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Filtre servlet qui crée un span SERVER par requête (mode SDK, sans agent).
+ *
+ * Points clés :
+ * - Contexte parent extrait des en-têtes (propagateurs configurés : tracecontext, baggage...)
+ * - Attributs posés un par un avec des AttributeKey constantes (pas de builder Attributes par requête)
+ * - Nom du span = méthode + route Spring (ex: "GET /user/{id}"), pas l'URL brute (cardinalité bornée)
+ * - traceId / spanId dans le MDC logback pendant la requête (même clés que logback-spring.xml)
+ */
+public class OtelServerSpanFilter extends OncePerRequestFilter {
+
+    private static final String INSTRUMENTATION_NAME = "com.exemple.demo.manual";
+
+    // Conventions sémantiques HTTP (stables)
+    private static final AttributeKey<String> HTTP_REQUEST_METHOD = AttributeKey.stringKey("http.request.method");
+    private static final AttributeKey<String> HTTP_ROUTE = AttributeKey.stringKey("http.route");
+    private static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+    private static final AttributeKey<String> URL_SCHEME = AttributeKey.stringKey("url.scheme");
+    private static final AttributeKey<Long> HTTP_RESPONSE_STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<String> SERVER_ADDRESS = AttributeKey.stringKey("server.address");
+    private static final AttributeKey<Long> SERVER_PORT = AttributeKey.longKey("server.port");
+
+    private static final String MDC_TRACE_ID = "traceId";
+    private static final String MDC_SPAN_ID = "spanId";
+
+    private static final TextMapGetter<HttpServletRequest> HEADER_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String key) {
+            return request != null ? request.getHeader(key) : null;
+        }
+    };
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    public OtelServerSpanFilter(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME, "1.0.0");
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Context parent = propagator.extract(Context.current(), request, HEADER_GETTER);
+        String method = request.getMethod();
+        Span span = tracer.spanBuilder(method)
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .startSpan();
+
+        if (span.isRecording()) {
+            span.setAttribute(HTTP_REQUEST_METHOD, method);
+            span.setAttribute(URL_PATH, request.getRequestURI());
+            span.setAttribute(URL_SCHEME, request.getScheme());
+            span.setAttribute(SERVER_ADDRESS, request.getServerName());
+            span.setAttribute(SERVER_PORT, (long) request.getServerPort());
+        }
+
+        SpanContext spanContext = span.getSpanContext();
+        String previousTraceId = MDC.get(MDC_TRACE_ID);
+        String previousSpanId = MDC.get(MDC_SPAN_ID);
+        MDC.put(MDC_TRACE_ID, spanContext.getTraceId());
+        MDC.put(MDC_SPAN_ID, spanContext.getSpanId());
+
+        try (Scope ignored = span.makeCurrent()) {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            if (span.isRecording()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (route != null) {
+                    span.updateName(method + " " + route);
+                    span.setAttribute(HTTP_ROUTE, route.toString());
+                }
+                int status = response.getStatus();
+                span.setAttribute(HTTP_RESPONSE_STATUS_CODE, (long) status);
+                if (status >= 500) {
+                    span.setStatus(StatusCode.ERROR);
+                }
+            }
+            span.end();
+            restore(MDC_TRACE_ID, previousTraceId);
+            restore(MDC_SPAN_ID, previousSpanId);
+        }
+    }
+
+    private static void restore(String key, String previousValue) {
+        if (previousValue == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, previousValue);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.exemple.demo;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chemins chauds de l'application exercés par WarmupRunner : spans serveur (agent ou
+ * OtelServerSpanFilter), logs corrélés des endpoints et sérialisation Jackson de /observability.
+ */
+@Configuration
+@ConditionalOnProperty(name = "demo.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfiguration {
+
+    private static final String DATA = "x".repeat(1024);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Bean
+    public WarmupTask warmupBonjour(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET", () -> "/bonjour-eql", null);
+    }
+
+    @Bean
+    public WarmupTask warmupUser(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET",
+                () -> "/user/" + ThreadLocalRandom.current().nextInt(1, 1000), null);
+    }
+
+    @Bean
+    public WarmupTask warmupData(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "POST", () -> "/data", DATA);
+    }
+
+    @Bean
+    public WarmupTask warmupObservability(Environment environment) {
+        return new HttpWarmupTask(httpClient, environment, "GET", () -> "/observability", null);
+    }
+}
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Démarrage rapide d'un jar Spring Boot : couches extraites, classpath à plat, archive AppCDS.
+# Utilisé par le dockerfile (stage fast-start) et par startup-benchmark.sh.
+#
+#   fast-start.sh extract <jar> <dir>                    couches du jar (layertools) fusionnées dans <dir>
+#   fast-start.sh args <dir> [<agent.jar> <jmx_config>]  écrit <dir>/jvm.args (agent, AOT si présent, classpath, main)
+#                                                        et <dir>/application.jar (classes de l'application)
+#   fast-start.sh train <dir>                            training run, écrit <dir>/app.jsa
+#
+# Lancement : java -XX:SharedArchiveFile=<dir>/app.jsa @<dir>/jvm.args
+# L'archive n'est valable qu'avec le même JDK et le même classpath (mêmes chemins) que le training run.
+set -euo pipefail
+
+extract() {
+  local jar=$1 dir=$2 tmp
+  tmp=$(mktemp -d)
+  java -Djarmode=layertools -jar "$jar" extract --destination "$tmp"
+  mkdir -p "$dir"
+  for layer in dependencies spring-boot-loader snapshot-dependencies application; do
+    cp -r "$tmp/$layer/." "$dir/"
+  done
+  rm -rf "$tmp"
+}
+
+args() {
+  local dir agent=${2:-} config=${3:-} classpath main line lib
+  dir=$(cd "$1" && pwd)
+
+  # Classpath à plat, dans l'ordre de classpath.idx : AppCDS n'archive pas les classes
+  # chargées depuis les jars imbriqués du fat jar, ni depuis un répertoire non vide
+  (cd "$dir/BOOT-INF/classes" && jar cf "$dir/application.jar" .)
+  classpath="$dir/application.jar"
+  while read -r line; do
+    lib=${line#- \"}
+    classpath="$classpath:$dir/${lib%\"}"
+  done < "$dir/BOOT-INF/classpath.idx"
+  main=$(sed -n 's/^Start-Class: *//p' "$dir/META-INF/MANIFEST.MF" | tr -d '\r')
+
+  {
+    if [ -n "$agent" ]; then
+      # JDK 17 : une archive qui contient les classes de l'agent exige ce flag au training run
+      # comme au lancement (avertissement "testing purposes only" au démarrage)
+      echo "-XX:+UnlockDiagnosticVMOptions"
+      echo "-XX:+AllowArchivingWithJavaAgent"
+      echo "-javaagent:$agent=8081:$config"
+    fi
+    # Jar construit avec le profil Maven fast-start : contexte pré-calculé
+    if [ -n "$(find "$dir/BOOT-INF/classes" -name '*__ApplicationContextInitializer.class' -print -quit)" ]; then
+      echo "-Dspring.aot.enabled=true"
+    fi
+    echo "-cp $classpath"
+    echo "$main"
+  } > "$dir/jvm.args"
+}
+
+train() {
+  local dir=$1
+  rm -f "$dir/app.jsa"
+  # Agent présent pendant le training run : ses classes et celles qu'il charge sont archivées aussi
+  java -XX:ArchiveClassesAtExit="$dir/app.jsa" -Xlog:cds=off -Ddemo.training-run=true @"$dir/jvm.args"
+  ls -l "$dir/app.jsa"
+}
+
+command=${1:?"usage : $0 extract|args|train ..."}
+shift
+case "$command" in
+  extract|args|train) "$command" "$@" ;;
+  *) echo "commande inconnue : $command" >&2; exit 1 ;;
+esac
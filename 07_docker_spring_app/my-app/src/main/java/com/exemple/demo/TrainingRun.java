@@ -0,0 +1,45 @@
+package com.exemple.demo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Training run de l'archive AppCDS (-Ddemo.training-run=true, voir fast-start.sh) : une fois
+ * l'application prête, quelques appels à /bonjour-eql chargent aussi les classes du chemin d'une
+ * requête, puis la JVM s'arrête et écrit l'archive (-XX:ArchiveClassesAtExit).
+ *
+ * Propriété lue à l'exécution et pas en condition de bean : en mode AOT, les conditions sont
+ * évaluées au build.
+ */
+@Component
+public class TrainingRun {
+
+    private static final int REQUESTS = 50;
+
+    @Value("${demo.training-run:false}")
+    private boolean enabled;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", "8080");
+        URL url = new URL("http://localhost:" + port + "/bonjour-eql");
+        for (int i = 0; i < REQUESTS; i++) {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try (InputStream body = connection.getInputStream()) {
+                body.readAllBytes();
+            }
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,123 @@
+#!/usr/bin/env bash
+# Temps de démarrage et mémoire de l'application selon le mode de lancement, agent JMX compris.
+#
+# Modes, mêmes commandes que le dockerfile :
+#   fat-jar          java -javaagent:... -jar spring-demo.jar
+#   layered          couches extraites, classpath à plat (fast-start.sh args)
+#   layered-cds      + archive AppCDS du training run (fast-start.sh train)
+#   layered-cds-aot  + contexte Spring pré-calculé (mvn -Pfast-start)
+#
+# Mesure : temps jusqu'au premier GET /bonjour-eql réussi (depuis le lancement de la JVM)
+# et RSS du processus à cet instant. Médiane, min et max sur RUNS lancements par mode.
+#
+# Usage (depuis 07_docker_spring_app) : ./startup-benchmark.sh [runs]   (défaut : 5)
+# Variables : AGENT_JAR (défaut ./jmx_prometheus_javaagent.jar, téléchargé s'il manque)
+# Rapport : results/startup-<date>.txt
+set -euo pipefail
+
+cd "$(dirname "$0")"
+ROOT=$(pwd)
+RUNS=${1:-5}
+AGENT_URL=https://github.com/prometheus/jmx_exporter/releases/download/1.3.0/jmx_prometheus_javaagent-1.3.0.jar
+AGENT_JAR=${AGENT_JAR:-$ROOT/jmx_prometheus_javaagent.jar}
+URL=http://localhost:8080/bonjour-eql
+TIMEOUT_SECONDS=60
+
+if [ ! -f "$AGENT_JAR" ]; then
+  wget -O "$AGENT_JAR" "$AGENT_URL"
+fi
+AGENT_JAR=$(cd "$(dirname "$AGENT_JAR")" && pwd)/$(basename "$AGENT_JAR")
+
+if curl -s -o /dev/null "$URL"; then
+  echo "Le port 8080 est déjà utilisé : arrêtez l'application en cours" >&2
+  exit 1
+fi
+
+WORK_DIR=$(mktemp -d)
+cleanup() {
+  rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+echo "== Construction des jars (standard puis AOT)"
+mvn -B -q -f my-app/pom.xml clean package -DskipTests
+cp my-app/target/spring-demo-1.0.0.jar "$WORK_DIR/spring-demo.jar"
+mvn -B -q -f my-app/pom.xml -Pfast-start clean package -DskipTests
+cp my-app/target/spring-demo-1.0.0.jar "$WORK_DIR/spring-demo-aot.jar"
+
+echo "== Préparation des modes en couches et training runs AppCDS"
+for variant in layered layered-aot; do
+  jar="$WORK_DIR/spring-demo.jar"
+  if [ "$variant" = "layered-aot" ]; then
+    jar="$WORK_DIR/spring-demo-aot.jar"
+  fi
+  ./fast-start.sh extract "$jar" "$WORK_DIR/$variant" > /dev/null
+  ./fast-start.sh args "$WORK_DIR/$variant" "$AGENT_JAR" "$ROOT/jmx_config.yml"
+  ./fast-start.sh train "$WORK_DIR/$variant" > "$WORK_DIR/$variant-training.log" 2>&1 \
+    || { echo "Échec du training run, voir :" >&2; tail -20 "$WORK_DIR/$variant-training.log" >&2; exit 1; }
+done
+
+command_for() {
+  case "$1" in
+    fat-jar)         echo "java -javaagent:$AGENT_JAR=8081:$ROOT/jmx_config.yml -jar $WORK_DIR/spring-demo.jar" ;;
+    layered)         echo "java @$WORK_DIR/layered/jvm.args" ;;
+    layered-cds)     echo "java -XX:SharedArchiveFile=$WORK_DIR/layered/app.jsa @$WORK_DIR/layered/jvm.args" ;;
+    layered-cds-aot) echo "java -XX:SharedArchiveFile=$WORK_DIR/layered-aot/app.jsa @$WORK_DIR/layered-aot/jvm.args" ;;
+  esac
+}
+
+# Un lancement, dans un sous-shell : affiche "<ms jusqu'à la première réponse> <RSS en Mo>"
+measure() {
+  local start now rss
+  start=$(date +%s%N)
+  # shellcheck disable=SC2046
+  $(command_for "$1") > "$WORK_DIR/$1.log" 2>&1 &
+  APP_PID=$!
+  until curl -s -f -o /dev/null "$URL"; do
+    if ! kill -0 "$APP_PID" 2>/dev/null; then
+      echo "L'application s'est arrêtée ($1), voir :" >&2
+      tail -20 "$WORK_DIR/$1.log" >&2
+      exit 1
+    fi
+    if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_SECONDS )); then
+      echo "Pas de réponse après ${TIMEOUT_SECONDS}s ($1)" >&2
+      kill "$APP_PID"
+      exit 1
+    fi
+    sleep 0.01
+  done
+  now=$(date +%s%N)
+  rss=$(awk '/^VmRSS:/ { print int($2 / 1024) }' "/proc/$APP_PID/status")
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+  echo "$(( (now - start) / 1000000 )) $rss"
+}
+
+# Médiane, min, max d'une liste de nombres
+stats() {
+  tr ' ' '\n' | sort -n | awk '{ v[NR] = $1 } END { printf "%8d %8d %8d", v[int((NR + 1) / 2)], v[1], v[NR] }'
+}
+
+mkdir -p results
+REPORT=results/startup-$(date +%Y%m%d-%H%M%S).txt
+{
+  echo "=== Démarrage jusqu'au premier GET /bonjour-eql réussi, agent JMX compris ($RUNS lancements par mode)"
+  echo "$(java -version 2>&1 | head -1), $(nproc) CPU"
+  echo
+  printf "%-16s %8s %8s %8s | %8s %8s %8s\n" "mode" "ms p50" "min" "max" "RSS Mo" "min" "max"
+} | tee "$REPORT"
+
+for mode in fat-jar layered layered-cds layered-cds-aot; do
+  times=""
+  rss=""
+  for (( i = 0; i < RUNS; i++ )); do
+    result=$(measure "$mode")
+    read -r t r <<< "$result"
+    times="$times $t"
+    rss="$rss $r"
+  done
+  printf "%-16s %s | %s\n" "$mode" "$(echo $times | stats)" "$(echo $rss | stats)" | tee -a "$REPORT"
+done
+
+echo
+echo "Rapport : $REPORT"
@@ -0,0 +1,215 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Compare deux répertoires de résultats JMH (JSON, un fichier par module et nombre de threads).
+ *
+ * Pour chaque benchmark (fichier + méthode + paramètres) : score principal et allocations (gc.alloc.rate.norm).
+ * Régression = score ou allocations dégradés de plus de THRESHOLD %, code de sortie 1.
+ * Un écart de score inférieur à la marge d'erreur cumulée (scoreError) des deux mesures n'est pas une régression.
+ *
+ * Usage : java CompareResults.java <baseline> <results> [threshold %]
+ */
+public class CompareResults {
+
+    // En dessous, une variation d'allocation n'est pas significative (B/op)
+    private static final double MIN_ALLOC_DELTA = 8;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage : java CompareResults.java <baseline> <results> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Result> baseline = load(Path.of(args[0]));
+        Map<String, Result> current = load(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %8s %12s %12s%n", "Benchmark", "Référence", "Actuel", "Écart", "B/op réf.", "B/op");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.1f %8s %12s %12.0f  (nouveau)%n",
+                        entry.getKey(), "-", now.score, "-", "-", now.allocPerOp);
+                continue;
+            }
+            double delta = (now.score - before.score) / before.score;
+            // Débit (thrpt) : plus haut = mieux, temps (avgt, sample, ss) : plus bas = mieux
+            boolean slower = ("thrpt".equals(now.mode) ? delta < -threshold : delta > threshold)
+                    && !(Math.abs(now.score - before.score) <= now.error + before.error);
+            boolean allocates = now.allocPerOp - before.allocPerOp > Math.max(MIN_ALLOC_DELTA, before.allocPerOp * threshold);
+            String flag = slower || allocates ? "  ⚠️ régression" + (slower ? " (score)" : "") + (allocates ? " (allocations)" : "") : "";
+            if (!flag.isEmpty()) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.1f %14.1f %+7.1f%% %12.0f %12.0f%s%n",
+                    entry.getKey(), before.score, now.score, delta * 100, before.allocPerOp, now.allocPerOp, flag);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d régression(s) au-delà de %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+        System.out.println("Aucune régression au-delà de " + Math.round(threshold * 100) + "%");
+    }
+
+    private record Result(String mode, double score, double error, double allocPerOp) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Result> load(Path directory) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.toString().endsWith(".json")).toList();
+        }
+        for (Path file : files) {
+            String run = file.getFileName().toString().replace(".json", "");
+            List<Object> benchmarks = (List<Object>) new JsonParser(Files.readString(file)).parse();
+            for (Object item : benchmarks) {
+                Map<String, Object> benchmark = (Map<String, Object>) item;
+                String name = (String) benchmark.get("benchmark");
+                StringBuilder key = new StringBuilder(run).append(' ').append(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+                Map<String, Object> params = (Map<String, Object>) benchmark.get("params");
+                if (params != null) {
+                    params.forEach((param, value) -> key.append(' ').append(param).append('=').append(value));
+                }
+                Map<String, Object> primary = (Map<String, Object>) benchmark.get("primaryMetric");
+                Map<String, Object> secondary = (Map<String, Object>) benchmark.get("secondaryMetrics");
+                double alloc = Double.NaN;
+                if (secondary != null && secondary.get("gc.alloc.rate.norm") instanceof Map<?, ?> norm) {
+                    alloc = number(norm.get("score"));
+                }
+                results.put(key.toString(), new Result((String) benchmark.get("mode"),
+                        number(primary.get("score")), number(primary.get("scoreError")), alloc));
+            }
+        }
+        return results;
+    }
+
+    private static double number(Object value) {
+        if (value instanceof Double d) {
+            return d;
+        }
+        // JMH écrit "NaN" entre guillemets
+        return value == null ? Double.NaN : Double.parseDouble(value.toString());
+    }
+
+    /**
+     * Parseur JSON minimal (objets, tableaux, chaînes, nombres, booléens, null), suffisant pour la sortie JMH
+     */
+    private static final class JsonParser {
+        private final String json;
+        private int pos;
+
+        JsonParser(String json) {
+            this.json = json;
+        }
+
+        Object parse() {
+            skipWhitespace();
+            return switch (json.charAt(pos)) {
+                case '{' -> parseObject();
+                case '[' -> parseArray();
+                case '"' -> parseString();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> parseNumber();
+            };
+        }
+
+        private Object literal(String text, Object value) {
+            pos += text.length();
+            return value;
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (json.charAt(pos) == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = parseString();
+                skipWhitespace();
+                pos++; // ':'
+                object.put(key, parse());
+                skipWhitespace();
+                if (json.charAt(pos++) == '}') {
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> parseArray() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (json.charAt(pos) == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(parse());
+                skipWhitespace();
+                if (json.charAt(pos++) == ']') {
+                    return array;
+                }
+            }
+        }
+
+        private String parseString() {
+            StringBuilder builder = new StringBuilder();
+            pos++;
+            while (true) {
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c == '\\') {
+                    char escaped = json.charAt(pos++);
+                    switch (escaped) {
+                        case 'n' -> builder.append('\n');
+                        case 't' -> builder.append('\t');
+                        case 'r' -> builder.append('\r');
+                        case 'b' -> builder.append('\b');
+                        case 'f' -> builder.append('\f');
+                        case 'u' -> {
+                            builder.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                            pos += 4;
+                        }
+                        default -> builder.append(escaped);
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+
+        private Double parseNumber() {
+            int start = pos;
+            while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) >= 0) {
+                pos++;
+            }
+            return Double.parseDouble(json.substring(start, pos));
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
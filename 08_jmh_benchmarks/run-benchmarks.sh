@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Benchmarks JMH du coût de l'instrumentation (modules 02, 04, 05), de 1 thread à tous les cœurs.
+#
+# Chaque module est construit avec le profil Maven "benchmark" (sources src/jmh/java, jar target/benchmarks.jar),
+# puis lancé pour chaque nombre de threads avec le profileur d'allocations (-prof gc, gc.alloc.rate.norm en B/op).
+# Résultats JSON : results/<date>/<module>-t<threads>.json, comparés à baseline/ s'il existe.
+#
+# Usage (depuis 08_jmh_benchmarks) :
+#   ./run-benchmarks.sh [--save-baseline] [modules...]   modules : 02 04 05 (défaut : tous)
+# Variables : THREADS ("1 2 4 ... max" par défaut), JMH_ARGS (options JMH en plus, ex: "-f 1 -wi 2 -i 3"),
+#             THRESHOLD (régression tolérée en %, défaut 10)
+set -euo pipefail
+
+cd "$(dirname "$0")"
+ROOT=$(pwd)
+
+SAVE_BASELINE=false
+if [ "${1:-}" = "--save-baseline" ]; then
+  SAVE_BASELINE=true
+  shift
+fi
+
+MODULES=("$@")
+if [ ${#MODULES[@]} -eq 0 ]; then
+  MODULES=(02 04 05)
+fi
+
+module_dir() {
+  case "$1" in
+    02) echo "$ROOT/../02_Add_actuator/my-app" ;;
+    04) echo "$ROOT/../04_tracing_app/my-app" ;;
+    05) echo "$ROOT/../05_logs_spring_app/my-app" ;;
+    *)  echo "Module inconnu : $1" >&2; exit 1 ;;
+  esac
+}
+
+if [ -z "${THREADS:-}" ]; then
+  cores=$(nproc)
+  THREADS=""
+  for (( t = 1; t < cores; t *= 2 )); do
+    THREADS="$THREADS $t"
+  done
+  THREADS="$THREADS max"
+fi
+
+RESULTS_DIR="$ROOT/results/$(date +%Y%m%d-%H%M%S)"
+mkdir -p "$RESULTS_DIR"
+
+# Répertoire de travail jetable : traces.log (module 04) n'est pas écrit dans le dépôt
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+for module in "${MODULES[@]}"; do
+  dir=$(module_dir "$module")
+  echo "=== Construction du module $module"
+  (cd "$dir" && mvn -B -q -Pbenchmark package -DskipTests)
+
+  for threads in $THREADS; do
+    echo "=== Module $module, $threads thread(s)"
+    # shellcheck disable=SC2086
+    (cd "$WORK_DIR" && java -jar "$dir/target/benchmarks.jar" -t "$threads" -prof gc \
+      -rf json -rff "$RESULTS_DIR/$module-t$threads.json" ${JMH_ARGS:-})
+  done
+done
+
+echo "Résultats : $RESULTS_DIR"
+
+if [ "$SAVE_BASELINE" = true ]; then
+  mkdir -p baseline
+  cp "$RESULTS_DIR"/*.json baseline/
+  echo "Référence mise à jour : $ROOT/baseline"
+elif compgen -G "baseline/*.json" > /dev/null; then
+  java CompareResults.java baseline "$RESULTS_DIR" "${THRESHOLD:-10}"
+fi
@@ -0,0 +1,208 @@
+package com.exemple.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rapport texte : latence vue du client, puis ce que le serveur a mesuré sur la même période.
+ *
+ * L'écart client - serveur (http.server.requests) correspond au temps passé hors du contrôleur :
+ * réseau, attente d'un thread Tomcat, sérialisation. Il grandit quand le pool Tomcat sature.
+ */
+public class LatencyReport {
+
+    private static final String SEPARATOR = "-".repeat(110) + "\n";
+
+    private final LoadTestOptions options;
+    private final RunStats stats;
+    private final PrometheusSnapshot before;
+    private final PrometheusSnapshot after;
+    private final List<TimelineSample> timeline;
+    private final List<TraceDurations.OperationStats> traces;
+    private final StringBuilder out = new StringBuilder();
+
+    public LatencyReport(LoadTestOptions options, RunStats stats, PrometheusSnapshot before, PrometheusSnapshot after,
+                         List<TimelineSample> timeline, List<TraceDurations.OperationStats> traces) {
+        this.options = options;
+        this.stats = stats;
+        this.before = before;
+        this.after = after;
+        this.timeline = timeline;
+        this.traces = traces;
+    }
+
+    public String render() {
+        summary();
+        clientLatency();
+        serverLatency();
+        tomcat();
+        traceDurations();
+        timeline();
+        diagnostics();
+        return out.toString();
+    }
+
+    private void summary() {
+        line("=== Test de charge %s", options.getBaseUri());
+        line("Débit demandé : %d req/s pendant %ds (modèle ouvert), répartition : %s",
+                options.getRate(), options.getDuration().toSeconds(), options.getMix());
+        line("Arrivées : %d, mises en file (--max-in-flight) : %d, jamais envoyées : %d, débit obtenu : %.1f rép/s",
+                stats.getArrivals(), stats.getQueued(), stats.getNotSent(), stats.getAchievedRate());
+        out.append('\n');
+    }
+
+    private void clientLatency() {
+        line("Latence client en ms (depuis l'instant d'envoi prévu, corrigée de l'omission coordonnée)");
+        out.append(SEPARATOR);
+        line("%-8s %-16s %8s %7s %7s %9s %9s %9s %9s %9s | %12s",
+                "scénario", "route", "requêtes", "err.HTTP", "échecs", "p50", "p90", "p99", "p99.9", "max", "service p99");
+        for (ScenarioStats scenario : stats.getScenarios()) {
+            if (scenario.getCount() == 0) {
+                continue;
+            }
+            Histogram latency = scenario.getLatency();
+            line("%-8s %-16s %8d %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f | %12.1f",
+                    scenario.getScenario().getId(), scenario.getScenario().getMethod() + " " + scenario.getScenario().getUri(),
+                    scenario.getCount(), scenario.getHttpErrors(), scenario.getFailures(),
+                    ms(latency, 50), ms(latency, 90), ms(latency, 99), ms(latency, 99.9), latency.getMaxValue() / 1000.0,
+                    ms(scenario.getServiceTime(), 99));
+        }
+        line("service p99 : envoi effectif -> réponse, ce que mesurerait un générateur en boucle fermée");
+        out.append('\n');
+    }
+
+    private void serverLatency() {
+        line("Latence serveur en ms sur la même période (/actuator/prometheus)");
+        out.append(SEPARATOR);
+        if (before == null || after == null) {
+            line("Non disponible (module sans actuator ou --metrics-url none)");
+            out.append('\n');
+            return;
+        }
+        line("%-36s %8s %9s %9s %9s | %16s %16s", "métrique", "requêtes", "moyenne", "p50", "p99",
+                "client p50 - srv", "client p99 - srv");
+        for (ScenarioStats scenario : stats.getScenarios()) {
+            if (scenario.getCount() == 0) {
+                continue;
+            }
+            ServerHistogram server = ServerHistogram.delta(before, after, "http_server_requests_seconds",
+                    Map.of("uri", scenario.getScenario().getUri()));
+            serverLine("http.server.requests " + scenario.getScenario().getUri(), server, scenario.getLatency());
+        }
+        ServerHistogram bonjour = ServerHistogram.delta(before, after, "bonjour_response_time_seconds", Map.of());
+        if (bonjour != null) {
+            serverLine("bonjour.response.time", bonjour, stats.get(Scenario.BONJOUR).getLatency());
+        }
+        out.append('\n');
+    }
+
+    private void serverLine(String name, ServerHistogram server, Histogram client) {
+        if (server == null || server.getCount() <= 0) {
+            line("%-36s %8s", name, "-");
+            return;
+        }
+        double p50 = server.quantile(0.50) * 1000;
+        double p99 = server.quantile(0.99) * 1000;
+        line("%-36s %8.0f %9.1f %9.1f %9.1f | %16.1f %16.1f", name, server.getCount(), server.mean() * 1000, p50, p99,
+                ms(client, 50) - p50, ms(client, 99) - p99);
+    }
+
+    private void tomcat() {
+        line("Pool de threads Tomcat (relevé toutes les %ds)", options.getSampleInterval().toSeconds());
+        out.append(SEPARATOR);
+        double maxThreads = after != null ? after.sum("tomcat_threads_config_max_threads", Map.of()) : Double.NaN;
+        double[] busy = timeline.stream().mapToDouble(TimelineSample::tomcatBusyThreads).filter(v -> !Double.isNaN(v)).toArray();
+        if (busy.length == 0 || Double.isNaN(maxThreads)) {
+            line("Non disponible (server.tomcat.mbeanregistry.enabled=true nécessaire côté serveur)");
+            out.append('\n');
+            return;
+        }
+        double busyMax = 0;
+        double busySum = 0;
+        int saturated = 0;
+        for (double value : busy) {
+            busyMax = Math.max(busyMax, value);
+            busySum += value;
+            if (value >= maxThreads) {
+                saturated++;
+            }
+        }
+        line("Threads max : %.0f, occupés : moyenne %.1f, max %.0f, saturé sur %d%% des relevés",
+                maxThreads, busySum / busy.length, busyMax, Math.round(100.0 * saturated / busy.length));
+        out.append('\n');
+    }
+
+    private void traceDurations() {
+        line("Durée des spans en ms (/traces/api, module 04)");
+        out.append(SEPARATOR);
+        if (traces.isEmpty()) {
+            line("Non disponible (module sans /traces/api ou --traces-url none)");
+            out.append('\n');
+            return;
+        }
+        line("%-28s %6s %8s %7s %9s %9s %9s", "opération", "racine", "spans", "erreurs", "p50", "p99", "max");
+        for (TraceDurations.OperationStats operation : traces) {
+            line("%-28s %6s %8d %7d %9d %9d %9d", operation.operation(), operation.root() ? "oui" : "",
+                    operation.count(), operation.errors(), operation.p50Ms(), operation.p99Ms(), operation.maxMs());
+        }
+        out.append('\n');
+    }
+
+    private void timeline() {
+        line("Chronologie (latence client des réponses reçues dans l'intervalle, en ms)");
+        out.append(SEPARATOR);
+        line("%7s %8s %9s %7s %9s %9s %9s %12s", "t (s)", "envoyées", "terminées", "en vol", "p50", "p99", "max", "Tomcat occ.");
+        for (TimelineSample sample : timeline) {
+            line("%7.1f %8d %9d %7d %9.1f %9.1f %9.1f %12s", sample.elapsedSeconds(), sample.sent(), sample.completed(),
+                    sample.inFlight(), sample.p50Ms(), sample.p99Ms(), sample.maxMs(),
+                    Double.isNaN(sample.tomcatBusyThreads()) ? "-" : String.format(Locale.ROOT, "%.0f/%.0f",
+                            sample.tomcatBusyThreads(), sample.tomcatCurrentThreads()));
+        }
+        out.append('\n');
+    }
+
+    private void diagnostics() {
+        line("Lecture");
+        out.append(SEPARATOR);
+        boolean findings = false;
+        if (stats.getQueued() > 0) {
+            line("- %d arrivées mises en file côté client (%d jamais envoyées, comptées en échecs) : le serveur ne suit pas %d req/s",
+                    stats.getQueued(), stats.getNotSent(), options.getRate());
+            findings = true;
+        }
+        if (stats.getAchievedRate() < options.getRate() * 0.95) {
+            line("- Débit obtenu (%.1f rép/s) inférieur de plus de 5%% au débit demandé", stats.getAchievedRate());
+            findings = true;
+        }
+        for (ScenarioStats scenario : stats.getScenarios()) {
+            if (scenario.getCount() == 0) {
+                continue;
+            }
+            double corrected = ms(scenario.getLatency(), 99);
+            double service = ms(scenario.getServiceTime(), 99);
+            if (corrected > service * 1.5 && corrected - service > 10) {
+                line("- %s : p99 corrigé %.1fms contre %.1fms en temps de service, le générateur a pris du retard "
+                        + "(une mesure en boucle fermée aurait masqué cette attente)", scenario.getScenario().getId(), corrected, service);
+                findings = true;
+            }
+            if (scenario.getFailures() > 0) {
+                line("- %s : %d échecs (timeout, connexion refusée...)", scenario.getScenario().getId(), scenario.getFailures());
+                findings = true;
+            }
+        }
+        if (!findings) {
+            line("- Pas de saturation détectée à %d req/s", options.getRate());
+        }
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() > 0 ? histogram.getValueAtPercentile(percentile) / 1000.0 : Double.NaN;
+    }
+
+    private void line(String format, Object... args) {
+        out.append(String.format(Locale.ROOT, format, args)).append('\n');
+    }
+}
@@ -0,0 +1,118 @@
+package com.exemple.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge des endpoints de démonstration (/bonjour-eql, /user/{id}, /data, /error).
+ *
+ * Déroulement :
+ * 1. Chauffe au débit demandé (non mesurée : JIT, pools de connexions, caches)
+ * 2. Relevé des métriques serveur (/actuator/prometheus) et du nombre de traces (/traces/api)
+ * 3. Charge en modèle ouvert, chronologie relevée à intervalle fixe (latence client, threads Tomcat)
+ * 4. Second relevé serveur, puis rapport : latence client vs bonjour.response.time, http.server.requests,
+ *    durées des traces et occupation du pool Tomcat sur la même période
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            if (!e.getMessage().isEmpty()) {
+                System.err.println(e.getMessage());
+            }
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.getTimeout())
+                .build();
+        OpenModelGenerator generator = new OpenModelGenerator(client, options);
+        URI metricsUri = options.getMetricsUri();
+        URI tracesUri = options.getTracesUri();
+
+        System.out.printf("Cible %s, %d req/s, répartition : %s%n", options.getBaseUri(), options.getRate(), options.getMix());
+        if (!options.getWarmup().isZero()) {
+            System.out.printf("Chauffe pendant %ds...%n", options.getWarmup().toSeconds());
+            generator.run(options.getWarmup());
+        }
+
+        PrometheusSnapshot before = PrometheusSnapshot.scrape(client, metricsUri);
+        int tracesBefore = TraceDurations.count(client, tracesUri);
+        System.out.printf("Métriques serveur : %s, traces : %s%n",
+                before != null ? metricsUri : "non disponibles", tracesBefore >= 0 ? tracesUri : "non disponibles");
+
+        System.out.printf("Mesure pendant %ds...%n", options.getDuration().toSeconds());
+        List<TimelineSample> timeline = Collections.synchronizedList(new ArrayList<>());
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-test-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        generator.intervalLatency();
+        long start = System.nanoTime();
+        long[] previous = {generator.getSent(), generator.getCompleted()};
+        boolean tomcatMetrics = before != null;
+        long intervalMs = options.getSampleInterval().toMillis();
+        sampler.scheduleAtFixedRate(() -> {
+            Histogram latency = generator.intervalLatency();
+            long sent = generator.getSent();
+            long completed = generator.getCompleted();
+            PrometheusSnapshot snapshot = tomcatMetrics ? PrometheusSnapshot.scrape(client, metricsUri) : null;
+            timeline.add(new TimelineSample(
+                    (System.nanoTime() - start) / 1e9,
+                    sent - previous[0],
+                    completed - previous[1],
+                    generator.getInFlight(),
+                    latency.getTotalCount() > 0 ? latency.getValueAtPercentile(50) / 1000.0 : Double.NaN,
+                    latency.getTotalCount() > 0 ? latency.getValueAtPercentile(99) / 1000.0 : Double.NaN,
+                    latency.getTotalCount() > 0 ? latency.getMaxValue() / 1000.0 : Double.NaN,
+                    snapshot != null ? snapshot.sum("tomcat_threads_busy_threads", Map.of()) : Double.NaN,
+                    snapshot != null ? snapshot.sum("tomcat_threads_current_threads", Map.of()) : Double.NaN));
+            previous[0] = sent;
+            previous[1] = completed;
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        RunStats stats = generator.run(options.getDuration());
+        sampler.shutdownNow();
+        sampler.awaitTermination(5, TimeUnit.SECONDS);
+
+        PrometheusSnapshot after = PrometheusSnapshot.scrape(client, metricsUri);
+        List<TraceDurations.OperationStats> traces = tracesBefore >= 0
+                ? TraceDurations.since(client, tracesUri, tracesBefore)
+                : List.of();
+
+        String report = new LatencyReport(options, stats, before, after, new ArrayList<>(timeline), traces).render();
+        System.out.println(report);
+        writeReport(Path.of(options.getReportFile()), report);
+    }
+
+    private static void writeReport(Path file, String report) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, report);
+            System.out.println("Rapport : " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Impossible d'écrire le rapport " + file + " : " + e.getMessage());
+        }
+    }
+}
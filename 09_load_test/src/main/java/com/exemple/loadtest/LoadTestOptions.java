@@ -0,0 +1,107 @@
+package com.exemple.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Options de la ligne de commande (--nom valeur), toutes facultatives.
+ */
+public class LoadTestOptions {
+
+    static final String USAGE = """
+            Usage : java -jar target/load-test.jar [options]
+              --url <url>              application testée (défaut : http://localhost:8080)
+              --rate <n>               requêtes par seconde, à débit d'arrivée constant (défaut : 50)
+              --duration <s>           durée de la mesure en secondes (défaut : 60)
+              --warmup <s>             chauffe non mesurée, au même débit (défaut : 10)
+              --mix <répartition>      scénarios pondérés (défaut : bonjour=60,user=30,data=5,error=5)
+              --data-size <octets>     taille du corps de POST /data (défaut : 1024)
+              --timeout <s>            timeout d'une requête (défaut : 10)
+              --max-in-flight <n>      requêtes en vol au-delà desquelles les arrivées attendent en file (défaut : 10000)
+              --sample-interval <s>    période de la chronologie et des relevés Tomcat (défaut : 1)
+              --metrics-url <url>      endpoint Prometheus, "none" pour désactiver (défaut : <url>/actuator/prometheus)
+              --traces-url <url>       traces du module 04, "none" pour désactiver (défaut : <url>/traces/api)
+              --report <fichier>       rapport texte (défaut : results/report-<date>.txt)
+            """;
+
+    private URI baseUri = URI.create("http://localhost:8080");
+    private int rate = 50;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private RequestMix mix = RequestMix.parse("bonjour=60,user=30,data=5,error=5");
+    private int dataSize = 1024;
+    private Duration timeout = Duration.ofSeconds(10);
+    private int maxInFlight = 10_000;
+    private Duration sampleInterval = Duration.ofSeconds(1);
+    private String metricsUrl;
+    private String tracesUrl;
+    private String reportFile = "results/report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt";
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if ("--help".equals(name) || "-h".equals(name)) {
+                throw new IllegalArgumentException("");
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Valeur manquante pour " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--url" -> options.baseUri = URI.create(value);
+                case "--rate" -> options.rate = Integer.parseInt(value);
+                case "--duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "--warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "--mix" -> options.mix = RequestMix.parse(value);
+                case "--data-size" -> options.dataSize = Integer.parseInt(value);
+                case "--timeout" -> options.timeout = Duration.ofSeconds(Long.parseLong(value));
+                case "--max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "--sample-interval" -> options.sampleInterval = Duration.ofSeconds(Long.parseLong(value));
+                case "--metrics-url" -> options.metricsUrl = value;
+                case "--traces-url" -> options.tracesUrl = value;
+                case "--report" -> options.reportFile = value;
+                default -> throw new IllegalArgumentException("Option inconnue : " + name);
+            }
+        }
+        if (options.rate <= 0 || options.rate > 1_000_000_000) {
+            throw new IllegalArgumentException("--rate doit être entre 1 et 1000000000");
+        }
+        if (options.maxInFlight <= 0) {
+            throw new IllegalArgumentException("--max-in-flight doit être positif");
+        }
+        return options;
+    }
+
+    /**
+     * URL résolue par rapport à --url, ou null si désactivée ("none")
+     */
+    private URI resolve(String url, String defaultPath) {
+        if (url == null) {
+            return baseUri.resolve(defaultPath);
+        }
+        return "none".equals(url) ? null : URI.create(url);
+    }
+
+    public URI getMetricsUri() {
+        return resolve(metricsUrl, "/actuator/prometheus");
+    }
+
+    public URI getTracesUri() {
+        return resolve(tracesUrl, "/traces/api");
+    }
+
+    // Getters
+    public URI getBaseUri() { return baseUri; }
+    public int getRate() { return rate; }
+    public Duration getDuration() { return duration; }
+    public Duration getWarmup() { return warmup; }
+    public RequestMix getMix() { return mix; }
+    public int getDataSize() { return dataSize; }
+    public Duration getTimeout() { return timeout; }
+    public int getMaxInFlight() { return maxInFlight; }
+    public Duration getSampleInterval() { return sampleInterval; }
+    public String getReportFile() { return reportFile; }
+}
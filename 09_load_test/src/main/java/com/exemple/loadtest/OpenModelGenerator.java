@@ -0,0 +1,157 @@
+package com.exemple.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur en modèle ouvert : une requête part toutes les 1/rate secondes, que les réponses
+ * précédentes soient arrivées ou non, comme des utilisateurs indépendants.
+ *
+ * Points clés :
+ * - Correction de l'omission coordonnée : la latence part de l'instant d'envoi prévu. Si le serveur
+ *   (ou le générateur) prend du retard, ce retard compte dans la latence au lieu de disparaître de la mesure
+ * - Envois asynchrones (HttpClient.sendAsync) : un seul thread émet, aucun thread ne bloque sur une réponse
+ * - Au-delà de --max-in-flight requêtes en vol, les arrivées attendent dans une file côté client et partent
+ *   dès qu'une réponse libère une place : leur latence compte toujours depuis l'instant prévu. Celles encore
+ *   en file à la fin de l'attente finale sont des échecs, à la latence attendue jusque-là
+ */
+public class OpenModelGenerator {
+
+    private final HttpClient client;
+    private final LoadTestOptions options;
+    private final byte[] payload;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final Recorder intervalLatency = new Recorder(ScenarioStats.HIGHEST_TRACKABLE_MICROS, 3);
+    // Arrivées pas encore envoyées (--max-in-flight atteint)
+    private final ConcurrentLinkedQueue<Arrival> waiting = new ConcurrentLinkedQueue<>();
+    private volatile boolean dispatching;
+
+    private record Arrival(long intended, Scenario scenario, ScenarioStats stats) {
+    }
+
+    public OpenModelGenerator(HttpClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+        this.payload = new byte[options.getDataSize()];
+        Arrays.fill(payload, (byte) 'x');
+    }
+
+    /**
+     * Génère la charge pendant duration puis attend les réponses en vol (au plus le timeout des requêtes)
+     */
+    public RunStats run(Duration duration) {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats(scenario));
+        }
+        long intervalNanos = 1_000_000_000L / options.getRate();
+        long arrivals = duration.toNanos() / intervalNanos;
+        long queued = 0;
+        dispatching = true;
+
+        long start = System.nanoTime();
+        for (long i = 0; i < arrivals; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = options.getMix().next();
+            if (inFlight.get() >= options.getMaxInFlight() || !waiting.isEmpty()) {
+                queued++;
+            }
+            waiting.add(new Arrival(intended, scenario, stats.get(scenario)));
+            dispatch();
+        }
+        long generationEnd = System.nanoTime();
+
+        // Arrivées en file envoyées jusqu'à la limite, puis attente des dernières réponses (au plus le timeout)
+        long drainNanos = options.getTimeout().toNanos() + 1_000_000_000L;
+        long dispatchDeadline = generationEnd + drainNanos;
+        while ((inFlight.get() > 0 || !waiting.isEmpty()) && System.nanoTime() < dispatchDeadline) {
+            dispatch();
+            LockSupport.parkNanos(10_000_000L);
+        }
+        dispatching = false;
+        long notSent = 0;
+        for (Arrival arrival = waiting.poll(); arrival != null; arrival = waiting.poll()) {
+            long end = System.nanoTime();
+            arrival.stats().recordNotSent(arrival.intended(), end);
+            intervalLatency.recordValue(ScenarioStats.toMicros(end - arrival.intended()));
+            notSent++;
+        }
+        while (inFlight.get() > 0 && System.nanoTime() < dispatchDeadline + drainNanos) {
+            LockSupport.parkNanos(10_000_000L);
+        }
+        return new RunStats(stats, arrivals, queued, notSent, generationEnd - start);
+    }
+
+    /**
+     * Envoie les arrivées en file tant qu'il reste des places sous --max-in-flight.
+     * Appelé à chaque arrivée et à chaque réponse
+     */
+    private void dispatch() {
+        while (dispatching && tryAcquireSlot()) {
+            Arrival arrival = waiting.poll();
+            if (arrival == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            send(arrival);
+        }
+    }
+
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= options.getMaxInFlight()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void send(Arrival arrival) {
+        HttpRequest request = arrival.scenario().request(options.getBaseUri(), payload, options.getTimeout());
+        sent.increment();
+        long sentAt = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long end = System.nanoTime();
+                    arrival.stats().record(arrival.intended(), sentAt, end, response, error);
+                    intervalLatency.recordValue(ScenarioStats.toMicros(end - arrival.intended()));
+                    completed.increment();
+                    inFlight.decrementAndGet();
+                    dispatch();
+                });
+    }
+
+    /**
+     * Latences (corrigées) des réponses reçues depuis l'appel précédent, pour la chronologie
+     */
+    public Histogram intervalLatency() {
+        return intervalLatency.getIntervalHistogram();
+    }
+
+    // Getters
+    public int getInFlight() { return inFlight.get(); }
+    public long getSent() { return sent.sum(); }
+    public long getCompleted() { return completed.sum(); }
+}
@@ -0,0 +1,155 @@
+package com.exemple.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Relevé de /actuator/prometheus (format texte), pour comparer l'état du serveur avant et après la charge.
+ */
+public class PrometheusSnapshot {
+
+    record Sample(String name, Map<String, String> labels, double value) {
+    }
+
+    private final List<Sample> samples;
+
+    private PrometheusSnapshot(List<Sample> samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * Relevé courant, ou null si l'endpoint ne répond pas (module sans actuator, endpoint non exposé...)
+     */
+    public static PrometheusSnapshot scrape(HttpClient client, URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            return parse(response.body());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    static PrometheusSnapshot parse(String text) {
+        List<Sample> samples = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            // Exemplar éventuel (OpenMetrics) : "... valeur # {trace_id=...} ..."
+            int exemplar = line.indexOf(" # ");
+            String sample = exemplar >= 0 ? line.substring(0, exemplar) : line;
+            int labelsStart = sample.indexOf('{');
+            int labelsEnd = sample.lastIndexOf('}');
+            int valueStart = sample.lastIndexOf(' ');
+            if (valueStart < 0) {
+                continue;
+            }
+            String name = labelsStart >= 0 ? sample.substring(0, labelsStart) : sample.substring(0, valueStart);
+            Map<String, String> labels = labelsStart >= 0 ? parseLabels(sample.substring(labelsStart + 1, labelsEnd)) : Map.of();
+            try {
+                samples.add(new Sample(name, labels, Double.parseDouble(sample.substring(valueStart + 1))));
+            } catch (NumberFormatException e) {
+                // Ligne inattendue : ignorée
+            }
+        }
+        return new PrometheusSnapshot(samples);
+    }
+
+    private static Map<String, String> parseLabels(String labels) {
+        Map<String, String> result = new HashMap<>();
+        int pos = 0;
+        while (pos < labels.length()) {
+            int equals = labels.indexOf('=', pos);
+            if (equals < 0) {
+                break;
+            }
+            String key = labels.substring(pos, equals).trim();
+            int valueStart = labels.indexOf('"', equals) + 1;
+            StringBuilder value = new StringBuilder();
+            int i = valueStart;
+            while (i < labels.length() && labels.charAt(i) != '"') {
+                if (labels.charAt(i) == '\\' && i + 1 < labels.length()) {
+                    i++;
+                }
+                value.append(labels.charAt(i++));
+            }
+            result.put(key, value.toString());
+            pos = labels.indexOf(',', i);
+            if (pos < 0) {
+                break;
+            }
+            pos++;
+        }
+        return result;
+    }
+
+    /**
+     * Somme des séries du nom donné dont les labels contiennent filter
+     */
+    public double sum(String name, Map<String, String> filter) {
+        double total = 0;
+        boolean found = false;
+        for (Sample sample : samples) {
+            if (sample.name.equals(name) && matches(sample.labels, filter)) {
+                total += sample.value;
+                found = true;
+            }
+        }
+        return found ? total : Double.NaN;
+    }
+
+    /**
+     * Compteurs cumulés par borne "le" d'un histogramme, agrégés sur les séries filtrées
+     */
+    TreeMap<Double, Double> buckets(String name, Map<String, String> filter) {
+        TreeMap<Double, Double> buckets = new TreeMap<>();
+        for (Sample sample : samples) {
+            if (sample.name.equals(name + "_bucket") && matches(sample.labels, filter)) {
+                String le = sample.labels.get("le");
+                double bound = "+Inf".equals(le) ? Double.POSITIVE_INFINITY : Double.parseDouble(le);
+                buckets.merge(bound, sample.value, Double::sum);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Valeurs distinctes d'un label pour un nom de série (ex: les uri de http_server_requests)
+     */
+    public List<String> labelValues(String name, String label) {
+        return samples.stream()
+                .filter(sample -> sample.name.equals(name) && sample.labels.containsKey(label))
+                .map(sample -> sample.labels.get(label))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static boolean matches(Map<String, String> labels, Map<String, String> filter) {
+        for (Map.Entry<String, String> entry : filter.entrySet()) {
+            if (!entry.getValue().equals(labels.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.exemple.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Répartition pondérée des requêtes, ex: "bonjour=60,user=30,data=5,error=5".
+ *
+ * Tirage par recherche dans les poids cumulés (pas d'allocation par requête).
+ */
+public class RequestMix {
+
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private RequestMix(Scenario[] scenarios, int[] cumulativeWeights) {
+        this.scenarios = scenarios;
+        this.cumulativeWeights = cumulativeWeights;
+        this.totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+    }
+
+    public static RequestMix parse(String mix) {
+        List<Scenario> scenarios = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Poids négatif : " + entry);
+            }
+            if (weight > 0) {
+                scenarios.add(Scenario.fromId(parts[0].trim()));
+                weights.add(weight);
+            }
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("Répartition vide : " + mix);
+        }
+        int[] cumulative = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += weights.get(i);
+            cumulative[i] = total;
+        }
+        return new RequestMix(scenarios.toArray(new Scenario[0]), cumulative);
+    }
+
+    public Scenario next() {
+        int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(scenarios[i].getId()).append('=')
+                    .append(Math.round(100.0 * (cumulativeWeights[i] - previous) / totalWeight)).append('%');
+            previous = cumulativeWeights[i];
+        }
+        return builder.toString();
+    }
+}
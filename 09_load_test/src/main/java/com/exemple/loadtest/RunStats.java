@@ -0,0 +1,46 @@
+package com.exemple.loadtest;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Résultats client d'une exécution du générateur
+ */
+public class RunStats {
+
+    private final Map<Scenario, ScenarioStats> byScenario;
+    private final long arrivals;
+    private final long queued;
+    private final long notSent;
+    private final long elapsedNanos;
+
+    RunStats(Map<Scenario, ScenarioStats> byScenario, long arrivals, long queued, long notSent, long elapsedNanos) {
+        this.byScenario = byScenario;
+        this.arrivals = arrivals;
+        this.queued = queued;
+        this.notSent = notSent;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Collection<ScenarioStats> getScenarios() {
+        return byScenario.values();
+    }
+
+    public ScenarioStats get(Scenario scenario) {
+        return byScenario.get(scenario);
+    }
+
+    /**
+     * Réponses (ou échecs) reçues par seconde de génération, arrivées jamais envoyées exclues
+     */
+    public double getAchievedRate() {
+        long completed = byScenario.values().stream().mapToLong(ScenarioStats::getCount).sum() - notSent;
+        return elapsedNanos > 0 ? completed * 1e9 / elapsedNanos : 0;
+    }
+
+    // Getters
+    public long getArrivals() { return arrivals; }
+    public long getQueued() { return queued; }
+    public long getNotSent() { return notSent; }
+    public long getElapsedNanos() { return elapsedNanos; }
+}
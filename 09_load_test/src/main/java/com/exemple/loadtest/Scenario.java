@@ -0,0 +1,55 @@
+package com.exemple.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Requêtes de démonstration, communes aux modules 02, 04 et 06.
+ *
+ * uri est la route Spring, identique au tag uri de http.server.requests côté serveur.
+ */
+public enum Scenario {
+
+    BONJOUR("bonjour", "GET", "/bonjour-eql"),
+    USER("user", "GET", "/user/{id}"),
+    DATA("data", "POST", "/data"),
+    ERROR("error", "GET", "/error");
+
+    private final String id;
+    private final String method;
+    private final String uri;
+
+    Scenario(String id, String method, String uri) {
+        this.id = id;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public static Scenario fromId(String id) {
+        for (Scenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Scénario inconnu : " + id + " (bonjour, user, data, error)");
+    }
+
+    HttpRequest request(URI baseUri, byte[] payload, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(timeout);
+        switch (this) {
+            case USER -> builder.uri(baseUri.resolve("/user/" + ThreadLocalRandom.current().nextInt(1, 1000))).GET();
+            case DATA -> builder.uri(baseUri.resolve(uri))
+                    .header("Content-Type", "text/plain")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payload));
+            default -> builder.uri(baseUri.resolve(uri)).GET();
+        }
+        return builder.build();
+    }
+
+    // Getters
+    public String getId() { return id; }
+    public String getMethod() { return method; }
+    public String getUri() { return uri; }
+}
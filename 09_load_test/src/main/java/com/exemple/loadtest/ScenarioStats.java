@@ -0,0 +1,67 @@
+package com.exemple.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Résultats client d'un scénario, enregistrés par les callbacks des réponses (thread-safe).
+ *
+ * - latency : instant d'envoi prévu -> réponse (corrigée de l'omission coordonnée), en µs
+ * - serviceTime : envoi effectif -> réponse (ce que mesurerait un générateur naïf), en µs
+ */
+public class ScenarioStats {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Scenario scenario;
+    private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder httpErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    ScenarioStats(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    void record(long intendedNanos, long sentNanos, long endNanos, HttpResponse<?> response, Throwable error) {
+        latency.recordValue(toMicros(endNanos - intendedNanos));
+        serviceTime.recordValue(toMicros(endNanos - sentNanos));
+        if (error != null) {
+            failures.increment();
+        } else {
+            responses.increment();
+            if (response.statusCode() >= 400) {
+                httpErrors.increment();
+            }
+        }
+    }
+
+    /**
+     * Arrivée jamais envoyée (toujours en file client à la fin) : échec, à la latence attendue jusque-là
+     */
+    void recordNotSent(long intendedNanos, long endNanos) {
+        latency.recordValue(toMicros(endNanos - intendedNanos));
+        failures.increment();
+    }
+
+    static long toMicros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 0), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    public long getCount() {
+        return latency.getTotalCount();
+    }
+
+    // Getters
+    public Scenario getScenario() { return scenario; }
+    public Histogram getLatency() { return latency; }
+    public Histogram getServiceTime() { return serviceTime; }
+    public long getResponses() { return responses.sum(); }
+    public long getHttpErrors() { return httpErrors.sum(); }
+    public long getFailures() { return failures.sum(); }
+}
@@ -0,0 +1,81 @@
+package com.exemple.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Histogramme serveur (Micrometer, buckets Prometheus) restreint à la période de charge :
+ * différence des compteurs cumulés entre deux relevés.
+ *
+ * Les quantiles sont interpolés linéairement dans le bucket, la précision dépend donc des bornes
+ * publiées (publishPercentileHistogram) ; les valeurs sont en secondes.
+ */
+public class ServerHistogram {
+
+    private final TreeMap<Double, Double> buckets;
+    private final double count;
+    private final double sum;
+
+    private ServerHistogram(TreeMap<Double, Double> buckets, double count, double sum) {
+        this.buckets = buckets;
+        this.count = count;
+        this.sum = sum;
+    }
+
+    /**
+     * Différence after - before pour la série name (ex: "bonjour_response_time_seconds"), ou null si absente
+     */
+    public static ServerHistogram delta(PrometheusSnapshot before, PrometheusSnapshot after, String name, Map<String, String> filter) {
+        if (before == null || after == null) {
+            return null;
+        }
+        TreeMap<Double, Double> afterBuckets = after.buckets(name, filter);
+        double afterCount = after.sum(name + "_count", filter);
+        if (Double.isNaN(afterCount)) {
+            return null;
+        }
+        TreeMap<Double, Double> beforeBuckets = before.buckets(name, filter);
+        TreeMap<Double, Double> delta = new TreeMap<>();
+        afterBuckets.forEach((bound, value) -> delta.put(bound, value - beforeBuckets.getOrDefault(bound, 0.0)));
+        return new ServerHistogram(delta,
+                afterCount - orZero(before.sum(name + "_count", filter)),
+                after.sum(name + "_sum", filter) - orZero(before.sum(name + "_sum", filter)));
+    }
+
+    private static double orZero(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    /**
+     * Quantile en secondes (NaN sans buckets ou sans requête)
+     */
+    public double quantile(double q) {
+        if (buckets.isEmpty() || count <= 0) {
+            return Double.NaN;
+        }
+        double rank = q * count;
+        double previousBound = 0;
+        double previousCount = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            if (bucket.getValue() >= rank) {
+                if (bucket.getKey().isInfinite()) {
+                    return previousBound;
+                }
+                double inBucket = bucket.getValue() - previousCount;
+                double fraction = inBucket > 0 ? (rank - previousCount) / inBucket : 1;
+                return previousBound + fraction * (bucket.getKey() - previousBound);
+            }
+            previousBound = bucket.getKey();
+            previousCount = bucket.getValue();
+        }
+        return previousBound;
+    }
+
+    public double mean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    // Getters
+    public double getCount() { return count; }
+    public double getSum() { return sum; }
+}
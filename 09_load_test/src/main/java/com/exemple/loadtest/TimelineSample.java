@@ -0,0 +1,11 @@
+package com.exemple.loadtest;
+
+/**
+ * Point de la chronologie : charge côté client et threads Tomcat sur un intervalle
+ *
+ * Latences en ms (corrigées, réponses reçues pendant l'intervalle), threads Tomcat à NaN sans métriques serveur.
+ */
+public record TimelineSample(double elapsedSeconds, long sent, long completed, int inFlight,
+                             double p50Ms, double p99Ms, double maxMs,
+                             double tomcatBusyThreads, double tomcatCurrentThreads) {
+}
@@ -0,0 +1,96 @@
+package com.exemple.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Durées des spans du module 04 (/traces/api) terminés pendant la charge.
+ *
+ * /traces/api renvoie les traces dans l'ordre de fin : les spans de la période sont ceux
+ * au-delà du nombre relevé avant la charge.
+ */
+public class TraceDurations {
+
+    public record OperationStats(String operation, boolean root, int count, int errors, long p50Ms, long p99Ms, long maxMs) {
+    }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TraceDurations() {
+    }
+
+    /**
+     * Nombre de traces stockées, -1 si l'endpoint n'est pas disponible
+     */
+    public static int count(HttpClient client, URI uri) {
+        JsonNode traces = fetch(client, uri);
+        return traces != null ? traces.size() : -1;
+    }
+
+    /**
+     * Statistiques par opération des traces au-delà de offset (spans racine d'abord)
+     */
+    public static List<OperationStats> since(HttpClient client, URI uri, int offset) {
+        JsonNode traces = fetch(client, uri);
+        if (traces == null) {
+            return List.of();
+        }
+        // Si les traces ont été vidées entre-temps (/traces/clear), tout est repris
+        int from = traces.size() >= offset ? offset : 0;
+        Map<String, List<JsonNode>> byOperation = new TreeMap<>();
+        for (int i = from; i < traces.size(); i++) {
+            JsonNode trace = traces.get(i);
+            byOperation.computeIfAbsent(trace.path("operationName").asText(), key -> new ArrayList<>()).add(trace);
+        }
+
+        List<OperationStats> result = new ArrayList<>();
+        byOperation.forEach((operation, spans) -> {
+            long[] durations = spans.stream().mapToLong(span -> span.path("durationMs").asLong()).sorted().toArray();
+            boolean root = spans.stream().anyMatch(span -> span.path("parentSpanId").isNull() || span.path("parentSpanId").isMissingNode());
+            // finish() repasse le statut à FINISHED : l'erreur reste visible dans les tags
+            int errors = (int) spans.stream()
+                    .filter(span -> "ERROR".equals(span.path("status").asText()) || span.path("tags").asText().contains("error="))
+                    .count();
+            result.add(new OperationStats(operation, root, durations.length, errors,
+                    percentile(durations, 0.50), percentile(durations, 0.99), durations[durations.length - 1]));
+        });
+        result.sort((a, b) -> Boolean.compare(b.root(), a.root()));
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static JsonNode fetch(HttpClient client, URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            JsonNode traces = objectMapper.readTree(response.body());
+            return traces.isArray() ? traces : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}